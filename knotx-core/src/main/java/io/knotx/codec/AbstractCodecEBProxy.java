@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+/**
+ * Event bus proxy sending data objects with a binary {@link DataObjectCodec} instead of the JSON
+ * envelope used by the generated service proxies.
+ *
+ * @param <Q> request type
+ * @param <R> response type
+ */
+abstract class AbstractCodecEBProxy<Q, R> {
+
+  static final String ACTION_HEADER = "action";
+
+  static final String PROCESS_ACTION = "process";
+
+  private final Vertx vertx;
+  private final String address;
+  private final DeliveryOptions options;
+  private final EventBusCodec codec;
+
+  AbstractCodecEBProxy(Vertx vertx, String address, DeliveryOptions options,
+      EventBusCodec codec) {
+    this.vertx = vertx;
+    this.address = address;
+    this.options = options == null ? new DeliveryOptions() : options;
+    this.codec = codec;
+    KnotxCodecs.registerFor(vertx);
+  }
+
+  void send(Class<Q> requestType, Q request, Handler<AsyncResult<R>> result) {
+    vertx.eventBus().<R>send(address, request, deliveryOptions(requestType), reply -> {
+      if (reply.succeeded()) {
+        result.handle(Future.succeededFuture(reply.result().body()));
+      } else {
+        result.handle(Future.failedFuture(reply.cause()));
+      }
+    });
+  }
+
+  private DeliveryOptions deliveryOptions(Class<Q> requestType) {
+    DeliveryOptions deliveryOptions = new DeliveryOptions()
+        .setSendTimeout(options.getSendTimeout())
+        .setCodecName(KnotxCodecs.codecName(requestType, codec))
+        .addHeader(ACTION_HEADER, PROCESS_ACTION)
+        .addHeader(KnotxCodecs.CODEC_HEADER, codec.name());
+    if (options.getHeaders() != null) {
+      options.getHeaders().forEach(
+          header -> deliveryOptions.addHeader(header.getKey(), header.getValue()));
+    }
+    return deliveryOptions;
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.knotx.dataobjects.AdapterRequest;
+import io.knotx.dataobjects.AdapterResponse;
+import io.knotx.proxy.AdapterProxy;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+class AdapterProxyCodecEBProxy extends AbstractCodecEBProxy<AdapterRequest, AdapterResponse>
+    implements AdapterProxy {
+
+  AdapterProxyCodecEBProxy(Vertx vertx, String address, DeliveryOptions options,
+      EventBusCodec codec) {
+    super(vertx, address, options, codec);
+  }
+
+  @Override
+  public void process(AdapterRequest request, Handler<AsyncResult<AdapterResponse>> result) {
+    send(AdapterRequest.class, request, result);
+  }
+}
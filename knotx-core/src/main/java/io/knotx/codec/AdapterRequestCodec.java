@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.knotx.dataobjects.AdapterRequest;
+
+public class AdapterRequestCodec extends DataObjectCodec<AdapterRequest> {
+
+  public static final String NAME = "knotx.AdapterRequest";
+
+  private final ClientRequestCodec requestCodec;
+
+  AdapterRequestCodec(String name, ClientRequestCodec requestCodec) {
+    super(name);
+    this.requestCodec = requestCodec;
+  }
+
+  @Override
+  void write(WireWriter writer, AdapterRequest request) {
+    requestCodec.writeValue(writer, request.getRequest());
+    writer.writeJson(request.getParams())
+        .writeJson(request.getAdapterParams());
+  }
+
+  @Override
+  AdapterRequest read(WireReader reader) {
+    return new AdapterRequest()
+        .setRequest(requestCodec.readValue(reader))
+        .setParams(reader.readJson())
+        .setAdapterParams(reader.readJson());
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.knotx.dataobjects.ClientRequest;
+import io.vertx.core.http.HttpMethod;
+
+public class ClientRequestCodec extends DataObjectCodec<ClientRequest> {
+
+  public static final String NAME = "knotx.ClientRequest";
+
+  ClientRequestCodec(String name) {
+    super(name);
+  }
+
+  @Override
+  void write(WireWriter writer, ClientRequest request) {
+    writer.writeString(request.getPath())
+        .writeString(request.getMethod() == null ? null : request.getMethod().name())
+        .writeMultiMap(request.getHeaders())
+        .writeMultiMap(request.getParams())
+        .writeMultiMap(request.getFormAttributes());
+  }
+
+  @Override
+  ClientRequest read(WireReader reader) {
+    ClientRequest request = new ClientRequest().setPath(reader.readString());
+    String method = reader.readString();
+    if (method != null) {
+      request.setMethod(HttpMethod.valueOf(method));
+    }
+    return request
+        .setHeaders(reader.readMultiMap())
+        .setParams(reader.readMultiMap())
+        .setFormAttributes(reader.readMultiMap());
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.knotx.dataobjects.ClientResponse;
+import io.vertx.core.buffer.Buffer;
+
+public class ClientResponseCodec extends DataObjectCodec<ClientResponse> {
+
+  public static final String NAME = "knotx.ClientResponse";
+
+  ClientResponseCodec(String name) {
+    super(name);
+  }
+
+  @Override
+  void write(WireWriter writer, ClientResponse response) {
+    writer.writeInt(response.getStatusCode())
+        .writeMultiMap(response.getHeaders())
+        .writeBuffer(response.getBody());
+  }
+
+  @Override
+  ClientResponse read(WireReader reader) {
+    ClientResponse response = new ClientResponse()
+        .setStatusCode(reader.readInt())
+        .setHeaders(reader.readMultiMap());
+    Buffer body = reader.readBuffer();
+    if (body != null) {
+      response.setBody(body);
+    }
+    return response;
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.knotx.dataobjects.AdapterResponse;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.proxy.AdapterProxy;
+import io.knotx.proxy.AdapterProxyVertxProxyHandler;
+import io.knotx.proxy.KnotProxy;
+import io.knotx.proxy.KnotProxyVertxProxyHandler;
+import io.knotx.proxy.RepositoryConnectorProxy;
+import io.knotx.proxy.RepositoryConnectorProxyVertxProxyHandler;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.serviceproxy.ProxyHandler;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Registers Knot.x services ({@link KnotProxy}, {@link AdapterProxy} and
+ * {@link RepositoryConnectorProxy}) on the event bus, the same way
+ * {@link io.vertx.serviceproxy.ServiceBinder} does. Registered consumer accepts both JSON messages
+ * sent by the generated service proxies and data objects sent with binary
+ * {@link DataObjectCodec}s. Replies are always sent with the codec used by the caller.
+ */
+public class CodecServiceBinder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CodecServiceBinder.class);
+
+  private static final int PROCESSING_FAILURE_CODE = -1;
+
+  private final Vertx vertx;
+
+  private String address;
+
+  public CodecServiceBinder(Vertx vertx) {
+    this.vertx = Objects.requireNonNull(vertx);
+  }
+
+  public CodecServiceBinder setAddress(String address) {
+    this.address = address;
+    return this;
+  }
+
+  /**
+   * Registers the service on the event bus.
+   *
+   * @param clazz - the service interface, one of {@link KnotProxy}, {@link AdapterProxy} or
+   * {@link RepositoryConnectorProxy}.
+   * @param service - the service implementation.
+   * @param <T> - type of the service interface.
+   * @return the consumer used to unregister the service.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> MessageConsumer<Object> register(Class<T> clazz, T service) {
+    Objects.requireNonNull(address, "address");
+    KnotxCodecs.registerFor(vertx);
+
+    final ProxyHandler jsonHandler;
+    final Handler<Message<Object>> binaryHandler;
+    if (clazz == KnotProxy.class) {
+      KnotProxy knot = (KnotProxy) service;
+      jsonHandler = new KnotProxyVertxProxyHandler(vertx, knot);
+      binaryHandler = binaryHandler(KnotContext.class, knot::process);
+    } else if (clazz == AdapterProxy.class) {
+      AdapterProxy adapter = (AdapterProxy) service;
+      jsonHandler = new AdapterProxyVertxProxyHandler(vertx, adapter);
+      binaryHandler = binaryHandler(AdapterResponse.class, adapter::process);
+    } else if (clazz == RepositoryConnectorProxy.class) {
+      RepositoryConnectorProxy connector = (RepositoryConnectorProxy) service;
+      jsonHandler = new RepositoryConnectorProxyVertxProxyHandler(vertx, connector);
+      binaryHandler = binaryHandler(ClientResponse.class, connector::process);
+    } else {
+      throw new IllegalArgumentException("Unsupported service interface " + clazz.getName());
+    }
+
+    return vertx.eventBus().consumer(address, message -> {
+      if (message.body() instanceof JsonObject) {
+        jsonHandler.handle((Message<JsonObject>) (Message<?>) message);
+      } else {
+        binaryHandler.handle(message);
+      }
+    });
+  }
+
+  /**
+   * Unregisters the service consumer.
+   *
+   * @param consumer - the consumer returned by {@link #register(Class, Object)}.
+   */
+  public void unregister(MessageConsumer<Object> consumer) {
+    consumer.unregister();
+  }
+
+  /**
+   * Any failure, including an exception thrown by the service before it calls the result handler
+   * or a missing codec header, is replied with {@link Message#fail(int, String)}, so the caller
+   * does not wait for the send timeout, as with the generated JSON proxy handler.
+   */
+  @SuppressWarnings("unchecked")
+  private <Q, R> Handler<Message<Object>> binaryHandler(Class<R> replyType,
+      BiConsumer<Q, Handler<AsyncResult<R>>> service) {
+    return message -> {
+      try {
+        EventBusCodec codec = EventBusCodec
+            .valueOf(message.headers().get(KnotxCodecs.CODEC_HEADER));
+        service.accept((Q) message.body(), result -> {
+          if (result.succeeded()) {
+            reply(message, result.result(), replyType, codec);
+          } else {
+            fail(message, result.cause());
+          }
+        });
+      } catch (Throwable e) {
+        fail(message, e);
+      }
+    };
+  }
+
+  private <R> void reply(Message<Object> message, R result, Class<R> replyType,
+      EventBusCodec codec) {
+    try {
+      message.reply(result,
+          new DeliveryOptions().setCodecName(KnotxCodecs.codecName(replyType, codec)));
+    } catch (Throwable e) {
+      fail(message, e);
+    }
+  }
+
+  private void fail(Message<Object> message, Throwable cause) {
+    LOGGER.error("Service processing failed at [{}]", cause, address);
+    message.fail(PROCESSING_FAILURE_CODE,
+        cause.getMessage() != null ? cause.getMessage() : cause.toString());
+  }
+}
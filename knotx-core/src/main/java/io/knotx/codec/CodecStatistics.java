@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates payload sizes and encoding / decoding times of a single {@link DataObjectCodec},
+ * together with the number of local deliveries that skipped serialization.
+ * Counters are updated from many event loops at once, so they are backed by {@link LongAdder}.
+ */
+public class CodecStatistics {
+
+  private final LongAdder encoded = new LongAdder();
+  private final LongAdder encodedBytes = new LongAdder();
+  private final LongAdder encodeNanos = new LongAdder();
+
+  private final LongAdder decoded = new LongAdder();
+  private final LongAdder decodedBytes = new LongAdder();
+  private final LongAdder decodeNanos = new LongAdder();
+
+  private final LongAdder transferred = new LongAdder();
+
+  void encoded(int bytes, long nanos) {
+    encoded.increment();
+    encodedBytes.add(bytes);
+    encodeNanos.add(nanos);
+  }
+
+  void decoded(int bytes, long nanos) {
+    decoded.increment();
+    decodedBytes.add(bytes);
+    decodeNanos.add(nanos);
+  }
+
+  void transferred() {
+    transferred.increment();
+  }
+
+  /**
+   * @return a snapshot of the counters: number of messages, total payload size in bytes and total
+   * time spent in microseconds, separately for encoding and decoding, and the number of objects
+   * handed over to local consumers without any copy.
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("encoded", counters(encoded, encodedBytes, encodeNanos))
+        .put("decoded", counters(decoded, decodedBytes, decodeNanos))
+        .put("transferred", transferred.sum());
+  }
+
+  private JsonObject counters(LongAdder messages, LongAdder bytes, LongAdder nanos) {
+    long count = messages.sum();
+    return new JsonObject()
+        .put("messages", count)
+        .put("bytes", bytes.sum())
+        .put("averageBytes", count == 0 ? 0 : bytes.sum() / count)
+        .put("micros", TimeUnit.NANOSECONDS.toMicros(nanos.sum()));
+  }
+}
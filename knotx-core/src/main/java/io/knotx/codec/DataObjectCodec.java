@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class of the binary {@link MessageCodec}s used to send Knot.x data objects through the
+ * event bus without converting them to {@link io.vertx.core.json.JsonObject} first.
+ * <br>
+ * Each payload starts with its length and the {@link #FORMAT_VERSION}, followed by the fields
+ * written by {@link #write(WireWriter, Object)}. Local deliveries get a decoded copy of the encoded
+ * object, so the sender and the consumer never share the same instance (see
+ * {@link LocalDataObjectCodec} for the variant handing over the object itself).
+ *
+ * @param <T> type of the data object
+ */
+public abstract class DataObjectCodec<T> implements MessageCodec<T, T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DataObjectCodec.class);
+
+  static final byte FORMAT_VERSION = 2;
+
+  private final String name;
+
+  private final CodecStatistics statistics = new CodecStatistics();
+
+  DataObjectCodec(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public void encodeToWire(Buffer buffer, T object) {
+    long start = System.nanoTime();
+    WireWriter writer = new WireWriter(buffer);
+    int lengthPosition = writer.position();
+    writer.writeInt(0).writeByte(FORMAT_VERSION);
+    writeValue(writer, object);
+    int length = writer.position() - lengthPosition - Integer.BYTES;
+    writer.setInt(lengthPosition, length);
+    record(true, length, System.nanoTime() - start);
+  }
+
+  @Override
+  public T decodeFromWire(int pos, Buffer buffer) {
+    long start = System.nanoTime();
+    WireReader reader = new WireReader(buffer, pos);
+    int length = reader.readInt();
+    byte version = reader.readByte();
+    if (version != FORMAT_VERSION) {
+      throw new IllegalStateException(
+          "Unsupported [" + name + "] wire format version [" + version + "]");
+    }
+    T result = readValue(reader);
+    record(false, length, System.nanoTime() - start);
+    return result;
+  }
+
+  @Override
+  public T transform(T object) {
+    Buffer buffer = Buffer.buffer();
+    encodeToWire(buffer, object);
+    return decodeFromWire(0, buffer);
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+
+  /**
+   * @return payload sizes and encoding / decoding times gathered by this codec.
+   */
+  public CodecStatistics statistics() {
+    return statistics;
+  }
+
+  void writeValue(WireWriter writer, T object) {
+    writer.writeBoolean(object != null);
+    if (object != null) {
+      write(writer, object);
+    }
+  }
+
+  T readValue(WireReader reader) {
+    return reader.readBoolean() ? read(reader) : null;
+  }
+
+  /**
+   * Writes all fields of the given (not null) object.
+   *
+   * @param writer - the target of serialized fields.
+   * @param object - object to serialize.
+   */
+  abstract void write(WireWriter writer, T object);
+
+  /**
+   * Reads an object written by {@link #write(WireWriter, Object)}.
+   *
+   * @param reader - the source of serialized fields.
+   * @return deserialized object.
+   */
+  abstract T read(WireReader reader);
+
+  private void record(boolean encoding, int bytes, long nanos) {
+    if (encoding) {
+      statistics.encoded(bytes, nanos);
+    } else {
+      statistics.decoded(bytes, nanos);
+    }
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Codec [{}] {} {} bytes in {} us", name, encoding ? "encoded" : "decoded",
+          bytes, TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.knotx.proxy.AdapterProxy;
+import io.knotx.proxy.KnotProxy;
+import io.knotx.proxy.RepositoryConnectorProxy;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Defines how Knot.x data objects are serialized when they are sent through the event bus.
+ */
+public enum EventBusCodec {
+
+  /**
+   * Data objects are converted to {@link JsonObject} by the generated service proxies. It is the
+   * default one, compatible with any service registered with
+   * {@link io.vertx.serviceproxy.ServiceBinder}.
+   */
+  JSON {
+    @Override
+    public KnotProxy knotProxy(Vertx vertx, String address, DeliveryOptions options) {
+      return KnotProxy.createProxyWithOptions(vertx, address, options);
+    }
+
+    @Override
+    public AdapterProxy adapterProxy(Vertx vertx, String address, DeliveryOptions options) {
+      return AdapterProxy.createProxyWithOptions(vertx, address, options);
+    }
+
+    @Override
+    public RepositoryConnectorProxy repositoryConnectorProxy(Vertx vertx, String address,
+        DeliveryOptions options) {
+      return RepositoryConnectorProxy.createProxyWithOptions(vertx, address, options);
+    }
+  },
+
+  /**
+   * Data objects are written with the compact binary {@link DataObjectCodec}s. Requires services
+   * registered with {@link CodecServiceBinder}.
+   */
+  BINARY,
+
+  /**
+   * Same as {@link #BINARY} for messages sent to other cluster nodes, but consumers deployed in the
+   * same Vert.x instance receive the sent object itself instead of its copy. The sender hands the
+   * ownership of the object over and must not use it after sending. Requires services registered
+   * with {@link CodecServiceBinder}.
+   */
+  LOCAL;
+
+  public static final String CONFIG_KEY = "eventBusCodec";
+
+  /**
+   * Reads the codec from the <tt>eventBusCodec</tt> entry of a verticle configuration.
+   *
+   * @param config - verticle configuration.
+   * @return configured codec, {@link #JSON} if not set.
+   */
+  public static EventBusCodec from(JsonObject config) {
+    return valueOf(config.getString(CONFIG_KEY, JSON.name()).toUpperCase());
+  }
+
+  public KnotProxy knotProxy(Vertx vertx, String address, DeliveryOptions options) {
+    return new KnotProxyCodecEBProxy(vertx, address, options, this);
+  }
+
+  public AdapterProxy adapterProxy(Vertx vertx, String address, DeliveryOptions options) {
+    return new AdapterProxyCodecEBProxy(vertx, address, options, this);
+  }
+
+  public RepositoryConnectorProxy repositoryConnectorProxy(Vertx vertx, String address,
+      DeliveryOptions options) {
+    return new RepositoryConnectorProxyCodecEBProxy(vertx, address, options, this);
+  }
+}
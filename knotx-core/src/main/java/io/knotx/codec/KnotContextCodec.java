@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import java.util.ArrayList;
+import java.util.List;
+
+public class KnotContextCodec extends DataObjectCodec<KnotContext> {
+
+  public static final String NAME = "knotx.KnotContext";
+
+  private final ClientRequestCodec requestCodec;
+  private final ClientResponseCodec responseCodec;
+  private final FragmentCodec fragmentCodec;
+
+  KnotContextCodec(String name, ClientRequestCodec requestCodec,
+      ClientResponseCodec responseCodec, FragmentCodec fragmentCodec) {
+    super(name);
+    this.requestCodec = requestCodec;
+    this.responseCodec = responseCodec;
+    this.fragmentCodec = fragmentCodec;
+  }
+
+  @Override
+  void write(WireWriter writer, KnotContext context) {
+    writer.writeString(context.getTransition());
+    requestCodec.writeValue(writer, context.getClientRequest());
+    responseCodec.writeValue(writer, context.getClientResponse());
+
+    List<Fragment> fragments = context.getFragments();
+    if (fragments == null) {
+      writer.writeInt(WireWriter.NULL_LENGTH);
+    } else {
+      writer.writeInt(fragments.size());
+      fragments.forEach(fragment -> fragmentCodec.writeValue(writer, fragment));
+    }
+  }
+
+  @Override
+  KnotContext read(WireReader reader) {
+    KnotContext context = new KnotContext()
+        .setTransition(reader.readString())
+        .setClientRequest(requestCodec.readValue(reader))
+        .setClientResponse(responseCodec.readValue(reader));
+
+    int size = reader.readInt();
+    if (size != WireWriter.NULL_LENGTH) {
+      List<Fragment> fragments = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        fragments.add(fragmentCodec.readValue(reader));
+      }
+      context.setFragments(fragments);
+    }
+    return context;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import com.google.common.collect.ImmutableMap;
+import io.knotx.dataobjects.AdapterRequest;
+import io.knotx.dataobjects.AdapterResponse;
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Registry of the binary codecs of Knot.x data objects, both the copying ones and their
+ * {@link EventBusCodec#LOCAL} variants.
+ */
+public final class KnotxCodecs {
+
+  /**
+   * Message header carrying the {@link EventBusCodec} the sender used, so the consumer replies with
+   * the same one.
+   */
+  public static final String CODEC_HEADER = "knotx-codec";
+
+  private static final ClientRequestCodec CLIENT_REQUEST_CODEC =
+      new ClientRequestCodec(ClientRequestCodec.NAME);
+
+  private static final ClientResponseCodec CLIENT_RESPONSE_CODEC =
+      new ClientResponseCodec(ClientResponseCodec.NAME);
+
+  private static final FragmentCodec FRAGMENT_CODEC = new FragmentCodec(FragmentCodec.NAME);
+
+  private static final Map<Class<?>, DataObjectCodec<?>> CODECS =
+      ImmutableMap.<Class<?>, DataObjectCodec<?>>builder()
+          .put(ClientRequest.class, CLIENT_REQUEST_CODEC)
+          .put(ClientResponse.class, CLIENT_RESPONSE_CODEC)
+          .put(Fragment.class, FRAGMENT_CODEC)
+          .put(AdapterRequest.class,
+              new AdapterRequestCodec(AdapterRequestCodec.NAME, CLIENT_REQUEST_CODEC))
+          .put(AdapterResponse.class,
+              new AdapterResponseCodec(AdapterResponseCodec.NAME, CLIENT_RESPONSE_CODEC))
+          .put(KnotContext.class,
+              new KnotContextCodec(KnotContextCodec.NAME, CLIENT_REQUEST_CODEC,
+                  CLIENT_RESPONSE_CODEC, FRAGMENT_CODEC))
+          .build();
+
+  private static final Map<Class<?>, DataObjectCodec<?>> LOCAL_CODECS = localCodecs();
+
+  private KnotxCodecs() {
+    //util class
+  }
+
+  /**
+   * Registers all Knot.x data object codecs on the event bus of the given Vert.x instance. Codecs
+   * that are already registered (e.g. by other verticle in the same instance) are skipped.
+   *
+   * @param vertx - Vert.x instance.
+   */
+  public static void registerFor(Vertx vertx) {
+    Stream.concat(CODECS.values().stream(), LOCAL_CODECS.values().stream()).forEach(codec -> {
+      try {
+        vertx.eventBus().registerCodec(codec);
+      } catch (IllegalStateException ex) {
+        // codec already registered
+      }
+    });
+  }
+
+  /**
+   * @param type - data object class.
+   * @param codec - requested event bus codec.
+   * @return name of the message codec serializing given type, <tt>null</tt> for {@link
+   * EventBusCodec#JSON}.
+   */
+  public static String codecName(Class<?> type, EventBusCodec codec) {
+    if (codec == EventBusCodec.JSON) {
+      return null;
+    }
+    Map<Class<?>, DataObjectCodec<?>> codecs = codec == EventBusCodec.LOCAL ? LOCAL_CODECS : CODECS;
+    return Optional.ofNullable(codecs.get(type))
+        .map(DataObjectCodec::name)
+        .orElseThrow(() -> new IllegalArgumentException("No codec for " + type.getName()));
+  }
+
+  /**
+   * @return payload sizes and encoding / decoding times of all codecs, keyed by codec name.
+   */
+  public static JsonObject statistics() {
+    JsonObject statistics = new JsonObject();
+    Stream.concat(CODECS.values().stream(), LOCAL_CODECS.values().stream())
+        .forEach(codec -> statistics.put(codec.name(), codec.statistics().toJson()));
+    return statistics;
+  }
+
+  private static Map<Class<?>, DataObjectCodec<?>> localCodecs() {
+    ImmutableMap.Builder<Class<?>, DataObjectCodec<?>> builder = ImmutableMap.builder();
+    CODECS.forEach((type, codec) -> builder.put(type, local(codec)));
+    return builder.build();
+  }
+
+  private static <T> DataObjectCodec<T> local(DataObjectCodec<T> codec) {
+    return new LocalDataObjectCodec<>(codec);
+  }
+}
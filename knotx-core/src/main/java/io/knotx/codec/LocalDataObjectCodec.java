@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+/**
+ * Variant of a {@link DataObjectCodec} used for single JVM deployments. A message delivered to a
+ * consumer in the same Vert.x instance carries the very same object the sender passed to the event
+ * bus - the ownership of the object is transferred to the consumer, so the sender must not use nor
+ * modify it after sending. Messages sent to other cluster nodes are still fully serialized with the
+ * binary format of the wrapped codec.
+ *
+ * @param <T> type of the data object
+ */
+class LocalDataObjectCodec<T> extends DataObjectCodec<T> {
+
+  static final String NAME_SUFFIX = ".local";
+
+  private final DataObjectCodec<T> delegate;
+
+  LocalDataObjectCodec(DataObjectCodec<T> delegate) {
+    super(delegate.name() + NAME_SUFFIX);
+    this.delegate = delegate;
+  }
+
+  @Override
+  public T transform(T object) {
+    statistics().transferred();
+    return object;
+  }
+
+  @Override
+  void write(WireWriter writer, T object) {
+    delegate.write(writer, object);
+  }
+
+  @Override
+  T read(WireReader reader) {
+    return delegate.read(reader);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import static io.knotx.codec.WireWriter.NULL_LENGTH;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.MultiMap;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads values written by {@link WireWriter} moving the cursor forward after each read.
+ */
+final class WireReader {
+
+  private final Buffer buffer;
+
+  private int position;
+
+  WireReader(Buffer buffer, int position) {
+    this.buffer = buffer;
+    this.position = position;
+  }
+
+  byte readByte() {
+    return buffer.getByte(position++);
+  }
+
+  boolean readBoolean() {
+    return readByte() != 0;
+  }
+
+  int readInt() {
+    int value = buffer.getInt(position);
+    position += Integer.BYTES;
+    return value;
+  }
+
+  String readString() {
+    int length = readInt();
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    String value = buffer.getString(position, position + length);
+    position += length;
+    return value;
+  }
+
+  List<String> readStrings() {
+    int size = readInt();
+    if (size == NULL_LENGTH) {
+      return null;
+    }
+    List<String> values = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      values.add(readString());
+    }
+    return values;
+  }
+
+  Buffer readBuffer() {
+    int length = readInt();
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+    Buffer value = buffer.getBuffer(position, position + length);
+    position += length;
+    return value;
+  }
+
+  JsonObject readJson() {
+    String value = readString();
+    return value == null ? null : new JsonObject(value);
+  }
+
+  MultiMap readMultiMap() {
+    int size = readInt();
+    if (size == NULL_LENGTH) {
+      return null;
+    }
+    MultiMap value = MultiMap.caseInsensitiveMultiMap();
+    for (int i = 0; i < size; i++) {
+      value.add(readString(), readString());
+    }
+    return value;
+  }
+
+  int position() {
+    return position;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.MultiMap;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends Knot.x data objects fields to a {@link Buffer} using the compact binary format read by
+ * {@link WireReader}. Variable length values are prefixed with their length, <tt>-1</tt> marks a
+ * <tt>null</tt> value.
+ */
+final class WireWriter {
+
+  static final int NULL_LENGTH = -1;
+
+  private final Buffer buffer;
+
+  WireWriter(Buffer buffer) {
+    this.buffer = buffer;
+  }
+
+  WireWriter writeByte(byte value) {
+    buffer.appendByte(value);
+    return this;
+  }
+
+  WireWriter writeBoolean(boolean value) {
+    buffer.appendByte(value ? (byte) 1 : (byte) 0);
+    return this;
+  }
+
+  WireWriter writeInt(int value) {
+    buffer.appendInt(value);
+    return this;
+  }
+
+  WireWriter writeString(String value) {
+    if (value == null) {
+      buffer.appendInt(NULL_LENGTH);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      buffer.appendInt(bytes.length).appendBytes(bytes);
+    }
+    return this;
+  }
+
+  WireWriter writeStrings(List<String> values) {
+    if (values == null) {
+      buffer.appendInt(NULL_LENGTH);
+    } else {
+      buffer.appendInt(values.size());
+      values.forEach(this::writeString);
+    }
+    return this;
+  }
+
+  WireWriter writeBuffer(Buffer value) {
+    if (value == null) {
+      buffer.appendInt(NULL_LENGTH);
+    } else {
+      buffer.appendInt(value.length()).appendBuffer(value);
+    }
+    return this;
+  }
+
+  /**
+   * Free-form JSON structures (Fragment context, service params) are written in their textual
+   * form, so there is no need to replicate the whole JSON type system on the wire.
+   */
+  WireWriter writeJson(JsonObject value) {
+    return writeString(value == null ? null : value.encode());
+  }
+
+  WireWriter writeMultiMap(MultiMap value) {
+    if (value == null) {
+      buffer.appendInt(NULL_LENGTH);
+    } else {
+      List<Map.Entry<String, String>> entries = value.getDelegate().entries();
+      buffer.appendInt(entries.size());
+      entries.forEach(entry -> writeString(entry.getKey()).writeString(entry.getValue()));
+    }
+    return this;
+  }
+
+  int position() {
+    return buffer.length();
+  }
+
+  void setInt(int position, int value) {
+    buffer.setInt(position, value);
+  }
+}
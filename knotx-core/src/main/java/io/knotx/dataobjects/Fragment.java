@@ -36,16 +36,47 @@ public class Fragment {
   private static final String KNOTS_KEY = "_KNOTS";
   private static final String CONTENT_KEY = "_CONTENT";
   private static final String CONTEXT_KEY = "_CONTEXT";
+  private static final String FINGERPRINT_KEY = "_FINGERPRINT";
 
   private final List<String> knots;
   private final JsonObject context;
   private String content;
+  private String fingerprint;
 
   public Fragment(JsonObject fragment) {
     this.knots = fragment.getJsonArray(KNOTS_KEY).stream().map(String::valueOf)
         .collect(Collectors.toList());
     this.content = fragment.getString(CONTENT_KEY);
     this.context = fragment.getJsonObject(CONTEXT_KEY, new JsonObject());
+    this.fingerprint = fragment.getString(FINGERPRINT_KEY);
+  }
+
+  /**
+   * Restores a Fragment from its already validated parts, e.g. when it is decoded from the event
+   * bus.
+   *
+   * @param knots list of Knots identifiers.
+   * @param content markup content of the fragment.
+   * @param context data produced during Knots chain processing.
+   */
+  public Fragment(List<String> knots, String content, JsonObject context) {
+    this(knots, content, context, null);
+  }
+
+  /**
+   * Restores a Fragment from its already validated parts, e.g. when it is decoded from the event
+   * bus.
+   *
+   * @param knots list of Knots identifiers.
+   * @param content markup content of the fragment.
+   * @param context data produced during Knots chain processing.
+   * @param fingerprint fingerprint of the original content, may be <tt>null</tt>.
+   */
+  public Fragment(List<String> knots, String content, JsonObject context, String fingerprint) {
+    this.knots = knots;
+    this.content = content;
+    this.context = context == null ? new JsonObject() : context;
+    this.fingerprint = fingerprint;
   }
 
   private Fragment(List<String> knots, String data) {
@@ -66,8 +97,13 @@ public class Fragment {
   }
 
   public JsonObject toJson() {
-    return new JsonObject().put(KNOTS_KEY, new JsonArray(knots)).put(CONTENT_KEY, content)
+    JsonObject json = new JsonObject().put(KNOTS_KEY, new JsonArray(knots))
+        .put(CONTENT_KEY, content)
         .put(CONTEXT_KEY, context);
+    if (fingerprint != null) {
+      json.put(FINGERPRINT_KEY, fingerprint);
+    }
+    return json;
   }
 
   /**
@@ -84,8 +120,28 @@ public class Fragment {
     return content;
   }
 
+  /**
+   * Replaces the markup content of this fragment. The fingerprint of the previous content is
+   * cleared.
+   */
   public Fragment content(String content) {
     this.content = content;
+    this.fingerprint = null;
+    return this;
+  }
+
+  /**
+   * @return a fingerprint of the fragment content, computed once by the Splitter, or <tt>null</tt>
+   * if it is unknown or the content has changed since. Fragments with equal fingerprints have
+   * equal content, so Knots can use it as a cheap key of anything derived from the content, e.g.
+   * compiled templates. It is not a part of the fragment identity ({@link #equals(Object)}).
+   */
+  public String fingerprint() {
+    return fingerprint;
+  }
+
+  public Fragment fingerprint(String fingerprint) {
+    this.fingerprint = fingerprint;
     return this;
   }
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.util;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public final class CacheStatisticsLogger {
+
+  private static final Map<Object, AtomicLong> LAST_LOGGED = Collections
+      .synchronizedMap(new WeakHashMap<>());
+
+  private CacheStatisticsLogger() {
+    //util class
+  }
+
+  /**
+   * Periodically logs statistics of a cache shared by all instances of a verticle. Each instance
+   * starts its own timer, so the statistics are still logged when some instances are undeployed,
+   * but only the first timer that fires in an interval logs them.
+   *
+   * @param vertx - Vert.x instance of the verticle.
+   * @param logger - logger of the verticle.
+   * @param name - name of the cache put in the log message.
+   * @param cache - the shared cache.
+   * @param interval - interval (in milliseconds) of logging.
+   * @param statistics - supplier of the cache statistics.
+   * @return id of the timer to cancel when the verticle stops.
+   */
+  public static long start(Vertx vertx, Logger logger, String name, Object cache, long interval,
+      Supplier<JsonObject> statistics) {
+    return vertx.setPeriodic(interval, id -> {
+      if (isDue(cache, System.currentTimeMillis(), interval)) {
+        logger.info("{} statistics {}", name, statistics.get());
+      }
+    });
+  }
+
+  static boolean isDue(Object cache, long now, long interval) {
+    AtomicLong lastLogged = LAST_LOGGED.computeIfAbsent(cache, key -> new AtomicLong());
+    long last = lastLogged.get();
+    // timers of the same interval do not fire exactly the same time after each other
+    return now - last >= interval - interval / 10 && lastLogged.compareAndSet(last, now);
+  }
+}
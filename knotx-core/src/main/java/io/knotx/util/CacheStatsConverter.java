@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.util;
+
+import com.google.common.cache.CacheStats;
+import io.vertx.core.json.JsonObject;
+
+public final class CacheStatsConverter {
+
+  private CacheStatsConverter() {
+    //util class
+  }
+
+  /**
+   * Converts Guava cache statistics into a {@link JsonObject} that can be logged or sent through
+   * the event bus.
+   *
+   * @param stats - statistics of a cache built with {@code recordStats()}.
+   * @return JSON with hits, misses, hit rate and evictions counters.
+   */
+  public static JsonObject toJsonObject(CacheStats stats) {
+    return new JsonObject()
+        .put("requests", stats.requestCount())
+        .put("hits", stats.hitCount())
+        .put("misses", stats.missCount())
+        .put("hitRate", stats.hitRate())
+        .put("evictions", stats.evictionCount());
+  }
+}
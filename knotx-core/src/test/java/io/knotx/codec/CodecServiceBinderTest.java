@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.proxy.KnotProxy;
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public class CodecServiceBinderTest {
+
+  private static final String ADDRESS = "knotx.test.codec-binder";
+
+  private static final long SEND_TIMEOUT = 5000;
+
+  @Rule
+  public RunTestOnContext vertx = new RunTestOnContext();
+
+  @Test
+  public void register_whenServiceSucceeds_expectReplyWithBinaryCodec(TestContext context) {
+    register((knotContext, result) -> result
+        .handle(Future.succeededFuture(knotContext.setTransition("next"))));
+    Async async = context.async();
+
+    proxy().process(knotContext(), result -> {
+      context.assertTrue(result.succeeded());
+      context.assertEquals("next", result.result().getTransition());
+      async.complete();
+    });
+  }
+
+  @Test
+  public void register_whenServiceThrowsException_expectFailureReplied(TestContext context) {
+    register((knotContext, result) -> {
+      throw new IllegalStateException("Knot is broken");
+    });
+    Async async = context.async();
+
+    proxy().process(knotContext(), result -> {
+      context.assertTrue(result.failed());
+      ReplyException cause = (ReplyException) result.cause();
+      context.assertEquals(ReplyFailure.RECIPIENT_FAILURE, cause.failureType());
+      context.assertEquals(-1, cause.failureCode());
+      context.assertEquals("Knot is broken", cause.getMessage());
+      async.complete();
+    });
+  }
+
+  @Test
+  public void register_whenServiceFails_expectFailureReplied(TestContext context) {
+    register((knotContext, result) -> result
+        .handle(Future.failedFuture(new IllegalArgumentException("Invalid context"))));
+    Async async = context.async();
+
+    proxy().process(knotContext(), result -> {
+      context.assertTrue(result.failed());
+      context.assertEquals("Invalid context", result.cause().getMessage());
+      async.complete();
+    });
+  }
+
+  @Test
+  public void register_whenCodecHeaderMissing_expectFailureReplied(TestContext context) {
+    register((knotContext, result) -> result.handle(Future.succeededFuture(knotContext)));
+    Async async = context.async();
+
+    vertx.vertx().eventBus().send(ADDRESS, knotContext(), new DeliveryOptions()
+            .setSendTimeout(SEND_TIMEOUT)
+            .setCodecName(KnotxCodecs.codecName(KnotContext.class, EventBusCodec.BINARY)),
+        reply -> {
+          context.assertTrue(reply.failed());
+          ReplyException cause = (ReplyException) reply.cause();
+          context.assertEquals(ReplyFailure.RECIPIENT_FAILURE, cause.failureType());
+          context.assertEquals(-1, cause.failureCode());
+          async.complete();
+        });
+  }
+
+  private void register(KnotProxy service) {
+    new CodecServiceBinder(vertx.vertx())
+        .setAddress(ADDRESS)
+        .register(KnotProxy.class, service);
+  }
+
+  private KnotProxy proxy() {
+    return EventBusCodec.BINARY.knotProxy(vertx.vertx(), ADDRESS,
+        new DeliveryOptions().setSendTimeout(SEND_TIMEOUT));
+  }
+
+  private KnotContext knotContext() {
+    return new KnotContext()
+        .setClientRequest(new ClientRequest())
+        .setClientResponse(new ClientResponse().setStatusCode(200));
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.MultiMap;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class KnotContextCodecTest {
+
+  private final KnotContextCodec codec = new KnotContextCodec(KnotContextCodec.NAME,
+      new ClientRequestCodec(ClientRequestCodec.NAME),
+      new ClientResponseCodec(ClientResponseCodec.NAME),
+      new FragmentCodec(FragmentCodec.NAME));
+
+  @Test
+  public void roundTrip_whenFullContext_expectEqualContext() {
+    KnotContext context = new KnotContext()
+        .setTransition("next")
+        .setClientRequest(new ClientRequest()
+            .setPath("/content/page.html")
+            .setMethod(HttpMethod.POST)
+            .setHeaders(MultiMap.caseInsensitiveMultiMap().add("Accept", "text/html"))
+            .setParams(MultiMap.caseInsensitiveMultiMap().add("q", "zażółć").add("q", "2"))
+            .setFormAttributes(MultiMap.caseInsensitiveMultiMap().add("name", "value")))
+        .setClientResponse(new ClientResponse()
+            .setStatusCode(200)
+            .setHeaders(MultiMap.caseInsensitiveMultiMap().add("Content-Type", "text/html"))
+            .setBody(Buffer.buffer("<html>ąę</html>")))
+        .setFragments(Arrays.asList(
+            Fragment.raw("<html>"),
+            new Fragment(Arrays.asList("services", "handlebars"), "<script>{{a}}</script>",
+                new JsonObject().put("_result", new JsonObject().put("a", "b")))));
+
+    assertThat(roundTrip(context), equalTo(context));
+  }
+
+  @Test
+  public void roundTrip_whenFragmentWithFingerprint_expectFingerprintPreserved() {
+    KnotContext decoded = roundTrip(new KnotContext().setFragments(Collections.singletonList(
+        Fragment.snippet(Collections.singletonList("handlebars"), "<script>{{a}}</script>")
+            .fingerprint("fingerprint"))));
+
+    assertThat(decoded.getFragments().get(0).fingerprint(), equalTo("fingerprint"));
+  }
+
+  @Test
+  public void roundTrip_whenEmptyContext_expectNullFieldsPreserved() {
+    KnotContext decoded = roundTrip(new KnotContext());
+
+    assertThat(decoded.getClientRequest(), nullValue());
+    assertThat(decoded.getClientResponse(), nullValue());
+    assertThat(decoded.getFragments(), nullValue());
+  }
+
+  @Test
+  public void roundTrip_whenNoFragments_expectEmptyList() {
+    KnotContext decoded = roundTrip(new KnotContext().setFragments(Collections.emptyList()));
+
+    assertThat(decoded.getFragments().size(), equalTo(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void decode_whenUnknownFormatVersion_expectException() {
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, new KnotContext());
+    buffer.setByte(Integer.BYTES, (byte) (DataObjectCodec.FORMAT_VERSION + 1));
+
+    codec.decodeFromWire(0, buffer);
+  }
+
+  private KnotContext roundTrip(KnotContext context) {
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, context);
+    return codec.decodeFromWire(0, buffer);
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.codec;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import io.knotx.dataobjects.Fragment;
+import io.vertx.core.buffer.Buffer;
+import java.util.Collections;
+import org.junit.Test;
+
+public class LocalDataObjectCodecTest {
+
+  private final FragmentCodec codec = new FragmentCodec(FragmentCodec.NAME);
+
+  private final LocalDataObjectCodec<Fragment> localCodec = new LocalDataObjectCodec<>(codec);
+
+  private final Fragment fragment = Fragment
+      .snippet(Collections.singletonList("services"), "<script>{{name}}</script>");
+
+  @Test
+  public void transform_whenLocalCodec_expectSameInstance() {
+    assertThat(localCodec.transform(fragment), sameInstance(fragment));
+    assertThat(localCodec.statistics().toJson().getLong("transferred"), equalTo(1L));
+  }
+
+  @Test
+  public void transform_whenCopyingCodec_expectEqualCopy() {
+    Fragment transformed = codec.transform(fragment);
+
+    assertThat(transformed, equalTo(fragment));
+    assertThat(transformed, not(sameInstance(fragment)));
+  }
+
+  @Test
+  public void decodeFromWire_whenLocalCodec_expectSameFormatAsCopyingCodec() {
+    Buffer buffer = Buffer.buffer();
+    localCodec.encodeToWire(buffer, fragment);
+
+    assertThat(codec.decodeFromWire(0, buffer), equalTo(fragment));
+  }
+
+  @Test
+  public void name_whenLocalCodec_expectSuffixedName() {
+    assertThat(localCodec.name(), equalTo(FragmentCodec.NAME + LocalDataObjectCodec.NAME_SUFFIX));
+  }
+}
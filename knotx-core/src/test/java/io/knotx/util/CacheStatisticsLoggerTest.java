@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import org.junit.Test;
+
+public class CacheStatisticsLoggerTest {
+
+  private static final long INTERVAL = 60000;
+
+  @Test
+  public void whenManyTimersFireInOneInterval_expectStatisticsDueOnlyOnce() {
+    Object cache = new Object();
+
+    assertThat(CacheStatisticsLogger.isDue(cache, 1000000, INTERVAL), equalTo(true));
+    assertThat(CacheStatisticsLogger.isDue(cache, 1000000, INTERVAL), equalTo(false));
+    assertThat(CacheStatisticsLogger.isDue(cache, 1020000, INTERVAL), equalTo(false));
+    assertThat(CacheStatisticsLogger.isDue(cache, 1059000, INTERVAL), equalTo(true));
+    assertThat(CacheStatisticsLogger.isDue(cache, 1060000, INTERVAL), equalTo(false));
+  }
+
+  @Test
+  public void whenOtherCacheLogged_expectStatisticsStillDue() {
+    Object cache = new Object();
+    Object otherCache = new Object();
+
+    assertThat(CacheStatisticsLogger.isDue(cache, 1000000, INTERVAL), equalTo(true));
+    assertThat(CacheStatisticsLogger.isDue(otherCache, 1000000, INTERVAL), equalTo(true));
+  }
+}
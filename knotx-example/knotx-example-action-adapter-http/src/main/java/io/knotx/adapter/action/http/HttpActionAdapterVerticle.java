@@ -18,15 +18,14 @@ package io.knotx.adapter.action.http;
 
 import io.knotx.adapter.action.http.impl.HttpActionAdapterProxyImpl;
 import io.knotx.adapter.common.http.HttpAdapterConfiguration;
+import io.knotx.codec.CodecServiceBinder;
 import io.knotx.proxy.AdapterProxy;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.AbstractVerticle;
-import io.vertx.serviceproxy.ServiceBinder;
 
 public class HttpActionAdapterVerticle extends AbstractVerticle {
 
@@ -34,9 +33,9 @@ public class HttpActionAdapterVerticle extends AbstractVerticle {
 
   private HttpAdapterConfiguration configuration;
 
-  private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<Object> consumer;
 
-  private ServiceBinder serviceBinder;
+  private CodecServiceBinder serviceBinder;
 
   @Override
   public void init(Vertx vertx, Context context) {
@@ -49,7 +48,7 @@ public class HttpActionAdapterVerticle extends AbstractVerticle {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
 
     //register the service proxy on event bus
-    serviceBinder = new ServiceBinder(getVertx());
+    serviceBinder = new CodecServiceBinder(getVertx());
     consumer = serviceBinder
         .setAddress(configuration.getAddress())
         .register(AdapterProxy.class, new HttpActionAdapterProxyImpl(vertx, configuration));
@@ -15,6 +15,7 @@
  */
 package io.knotx.gateway;
 
+import io.knotx.codec.CodecServiceBinder;
 import io.knotx.gateway.configuration.KnotxGatewayKnotConfiguration;
 import io.knotx.gateway.impl.ResponseProviderKnotProxyImpl;
 import io.knotx.proxy.KnotProxy;
@@ -22,10 +23,8 @@ import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import io.vertx.serviceproxy.ServiceBinder;
 
 public class ResponseProviderKnotVerticle extends AbstractVerticle {
 
@@ -33,9 +32,9 @@ public class ResponseProviderKnotVerticle extends AbstractVerticle {
 
   private KnotxGatewayKnotConfiguration configuration;
 
-  private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<Object> consumer;
 
-  private ServiceBinder serviceBinder;
+  private CodecServiceBinder serviceBinder;
 
   @Override
   public void init(Vertx vertx, Context context) {
@@ -46,7 +45,7 @@ public class ResponseProviderKnotVerticle extends AbstractVerticle {
   @Override
   public void start() throws Exception {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
-    serviceBinder = new ServiceBinder(getVertx());
+    serviceBinder = new CodecServiceBinder(getVertx());
     consumer = serviceBinder
         .setAddress(configuration.getAddress())
         .register(KnotProxy.class, new ResponseProviderKnotProxyImpl());
@@ -17,6 +17,7 @@ package io.knotx.knot.action;
 
 import com.google.common.base.MoreObjects;
 import io.knotx.http.StringToPatternFunction;
+import io.knotx.codec.EventBusCodec;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -36,6 +37,7 @@ public class ActionKnotConfiguration {
   private final String formIdentifierName;
 
   private DeliveryOptions deliveryOptions;
+  private EventBusCodec eventBusCodec;
 
   ActionKnotConfiguration(JsonObject config) {
     address = config.getString("address");
@@ -62,6 +64,7 @@ public class ActionKnotConfiguration {
     deliveryOptions =
         config.containsKey("deliveryOptions") ? new DeliveryOptions(config.getJsonObject("deliveryOptions"))
             : new DeliveryOptions();
+    eventBusCodec = EventBusCodec.from(config);
   }
 
   public List<AdapterMetadata> adapterMetadatas() {
@@ -80,6 +83,10 @@ public class ActionKnotConfiguration {
     return deliveryOptions;
   }
 
+  public EventBusCodec getEventBusCodec() {
+    return eventBusCodec;
+  }
+
   public static class AdapterMetadata {
 
     private String name;
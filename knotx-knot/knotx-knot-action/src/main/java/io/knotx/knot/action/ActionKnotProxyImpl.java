@@ -95,15 +95,16 @@ public class ActionKnotProxyImpl extends AbstractKnotProxy {
     LOGGER.debug("Pass-through {} request", knotContext.getClientRequest().getMethod());
     knotContext.setTransition(DEFAULT_TRANSITION);
     forms.forEach(form -> form.fragment()
-        .content(simplifier.simplify(form.fragment().content(), configuration.formIdentifierName(),
+        .content(simplifier.simplify(form.fragment(), configuration.formIdentifierName(),
             form.identifier())));
     return knotContext;
   }
 
   private Single<AdapterResponse> callActionAdapter(KnotContext knotContext, FormEntity current) {
     LOGGER.trace("Process form for {} ", knotContext);
-    AdapterProxy adapter = AdapterProxy
-        .createProxyWithOptions(vertx, current.adapter().getAddress(), configuration.getDeliveryOptions());
+    AdapterProxy adapter = AdapterProxy.newInstance(configuration.getEventBusCodec()
+        .adapterProxy(vertx.getDelegate(), current.adapter().getAddress(),
+            configuration.getDeliveryOptions()));
     return adapter.rxProcess(prepareAdapterRequest(knotContext, current));
   }
 
@@ -153,7 +154,7 @@ public class ActionKnotProxyImpl extends AbstractKnotProxy {
         );
     forms.forEach(f -> f.fragment()
         .content(simplifier
-            .simplify(f.fragment().content(), configuration.formIdentifierName(), f.identifier())));
+            .simplify(f.fragment(), configuration.formIdentifierName(), f.identifier())));
     knotContext.setTransition(DEFAULT_TRANSITION);
     return knotContext;
   }
@@ -15,16 +15,15 @@
  */
 package io.knotx.knot.action;
 
+import io.knotx.codec.CodecServiceBinder;
 import io.knotx.knot.action.domain.DefaultFormSimplifier;
 import io.knotx.proxy.KnotProxy;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.AbstractVerticle;
-import io.vertx.serviceproxy.ServiceBinder;
 
 public class ActionKnotVerticle extends AbstractVerticle {
 
@@ -32,9 +31,9 @@ public class ActionKnotVerticle extends AbstractVerticle {
 
   private ActionKnotConfiguration configuration;
 
-  private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<Object> consumer;
 
-  private ServiceBinder serviceBinder;
+  private CodecServiceBinder serviceBinder;
 
   @Override
   public void init(Vertx vertx, Context context) {
@@ -47,7 +46,7 @@ public class ActionKnotVerticle extends AbstractVerticle {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
 
     //register the service proxy on event bus
-    serviceBinder = new ServiceBinder(getVertx());
+    serviceBinder = new CodecServiceBinder(getVertx());
     consumer = serviceBinder
         .setAddress(configuration.address())
         .register(KnotProxy.class, new ActionKnotProxyImpl(vertx, configuration, new DefaultFormSimplifier()));
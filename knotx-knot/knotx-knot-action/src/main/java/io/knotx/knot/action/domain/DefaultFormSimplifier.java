@@ -18,9 +18,12 @@ package io.knotx.knot.action.domain;
 import static io.knotx.knot.action.domain.FormConstants.ACTION_FORM_ATTRIBUTES_PATTERN;
 import static io.knotx.knot.action.domain.FormConstants.FORM_ACTION_ATTR;
 
-import io.knotx.fragments.FragmentContentExtractor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.knotx.dataobjects.Fragment;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Attribute;
@@ -30,19 +33,57 @@ import org.jsoup.nodes.Element;
 import org.jsoup.parser.Parser;
 import org.jsoup.parser.Tag;
 
+/**
+ * Simplifies form fragments with a single parse of their content. Results for fragments with a
+ * fingerprint are cached as a template split around the identifier value, so the hidden input is
+ * spliced in without parsing the markup again.
+ */
 public class DefaultFormSimplifier implements FormSimplifier {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFormSimplifier.class);
 
+  private static final long MAX_CACHED_FORMS = 10_000;
+
+  private static final String IDENTIFIER_PLACEHOLDER = "knotx-form-identifier-placeholder";
+
+  /**
+   * Values that are written to the markup as they are, without escaping.
+   */
+  private static final Pattern SPLICEABLE_VALUE = Pattern.compile("[\\w\\-.:]*");
+
+  private static final Cache<String, SimplifiedForm> TEMPLATES = CacheBuilder.newBuilder()
+      .maximumSize(MAX_CACHED_FORMS)
+      .build();
+
   @Override
   public String simplify(String content, String formIdAttrName, String formIdAttrValue) {
-    Element scriptContentDocument = FragmentContentExtractor.unwrapContent(content);
-    Element actionFormElement = scriptContentDocument.getElementsByAttribute(FORM_ACTION_ATTR).first();
+    Document document = Jsoup.parse(content, "UTF-8", Parser.xmlParser());
+    Element actionFormElement = document.child(0).getElementsByAttribute(FORM_ACTION_ATTR).first();
 
     LOGGER.debug("Changing form with identifier [{}]", formIdAttrValue);
     addHiddenInputTag(actionFormElement, formIdAttrName, formIdAttrValue);
     clearFromActionAttributes(actionFormElement);
-    return getFragmentContent(content, scriptContentDocument);
+    return document.html();
+  }
+
+  @Override
+  public String simplify(Fragment fragment, String formIdAttrName, String formIdAttrValue) {
+    if (fragment.fingerprint() == null
+        || !SPLICEABLE_VALUE.matcher(formIdAttrValue).matches()) {
+      return simplify(fragment.content(), formIdAttrName, formIdAttrValue);
+    }
+    String key = fragment.fingerprint() + '|' + formIdAttrName;
+    SimplifiedForm template = TEMPLATES.getIfPresent(key);
+    if (template == null) {
+      template = SimplifiedForm
+          .from(simplify(fragment.content(), formIdAttrName, IDENTIFIER_PLACEHOLDER));
+      if (template == null) {
+        return simplify(fragment.content(), formIdAttrName, formIdAttrValue);
+      }
+      TEMPLATES.put(key, template);
+    }
+    LOGGER.debug("Changing form with identifier [{}]", formIdAttrValue);
+    return template.apply(formIdAttrValue);
   }
 
   private void clearFromActionAttributes(Element item) {
@@ -60,13 +101,33 @@ public class DefaultFormSimplifier implements FormSimplifier {
     form.prependChild(new Element(Tag.valueOf("input"), "/", attributes));
   }
 
+  private static class SimplifiedForm {
+
+    private final String beforeValue;
+    private final String afterValue;
+
+    private SimplifiedForm(String beforeValue, String afterValue) {
+      this.beforeValue = beforeValue;
+      this.afterValue = afterValue;
+    }
 
-  private String getFragmentContent(String content, Element scriptContentDocument) {
-    Document resultDocument = Jsoup.parse(content, "UTF-8", Parser.xmlParser());
-    Element scriptTag = resultDocument.child(0).empty();
-    scriptContentDocument.childNodesCopy().forEach(scriptTag::appendChild);
+    /**
+     * @return the template, <tt>null</tt> if the placeholder position is ambiguous.
+     */
+    static SimplifiedForm from(String simplified) {
+      int index = simplified.indexOf(IDENTIFIER_PLACEHOLDER);
+      if (index < 0 || index != simplified.lastIndexOf(IDENTIFIER_PLACEHOLDER)) {
+        return null;
+      }
+      return new SimplifiedForm(simplified.substring(0, index),
+          simplified.substring(index + IDENTIFIER_PLACEHOLDER.length()));
+    }
 
-    return resultDocument.html();
+    String apply(String value) {
+      return new StringBuilder(beforeValue.length() + value.length() + afterValue.length())
+          .append(beforeValue).append(value).append(afterValue)
+          .toString();
+    }
   }
 
 }
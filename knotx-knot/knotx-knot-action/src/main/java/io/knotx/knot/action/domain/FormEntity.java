@@ -22,6 +22,8 @@ import static io.knotx.knot.action.domain.FormConstants.FORM_SIGNAL_ATTR_PREFIX;
 import static io.knotx.knot.action.domain.FormConstants.FRAGMENT_KNOT_PATTERN;
 import static io.knotx.knot.action.domain.FormConstants.FRAGMENT_KNOT_PREFIX;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.knotx.dataobjects.Fragment;
 import io.knotx.dataobjects.KnotContext;
 import io.knotx.exceptions.ConfigurationException;
@@ -31,6 +33,7 @@ import io.knotx.knot.action.ActionKnotConfiguration.AdapterMetadata;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
@@ -54,14 +57,13 @@ public class FormEntity {
   private Map<String, String> signalToUrl;
 
   public static FormEntity from(Fragment fragment, ActionKnotConfiguration configuration) {
-    Element scriptDocument = FragmentContentExtractor.unwrapFragmentContent(fragment);
+    Definition definition = Definition.of(fragment);
     return new FormEntity()
         .fragment(fragment)
-        .identifier(getFormIdentifier(fragment))
-        .adapterParams(getAdapterParams(scriptDocument))
-        .adapter(getAdapterMetadata(configuration, getAdapterName(fragment, scriptDocument)))
-        .signalToUrlMapping(getSignalToUrlMapping(scriptDocument));
-
+        .identifier(definition.identifier)
+        .adapterParams(definition.adapterParams == null ? null : definition.adapterParams.copy())
+        .adapter(getAdapterMetadata(configuration, definition.adapterName))
+        .signalToUrlMapping(definition.signalToUrl);
   }
 
   public Fragment fragment() {
@@ -172,4 +174,42 @@ public class FormEntity {
             Collectors.toMap(e -> e.getKey().replace(FORM_SIGNAL_ATTR_PREFIX, StringUtils.EMPTY),
                 Entry::getValue));
   }
+
+  /**
+   * Form metadata read from the fragment markup. Definitions of fragments with a fingerprint are
+   * parsed once and shared, so they are never modified.
+   */
+  private static class Definition {
+
+    private static final long MAX_CACHED_FORMS = 10_000;
+
+    private static final Cache<String, Definition> DEFINITIONS = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_FORMS)
+        .build();
+
+    private final String identifier;
+    private final String adapterName;
+    private final JsonObject adapterParams;
+    private final Map<String, String> signalToUrl;
+
+    private Definition(Fragment fragment) {
+      Element scriptDocument = FragmentContentExtractor.unwrapFragmentContent(fragment);
+      this.identifier = getFormIdentifier(fragment);
+      this.adapterParams = getAdapterParams(scriptDocument);
+      this.adapterName = getAdapterName(fragment, scriptDocument);
+      this.signalToUrl = Collections.unmodifiableMap(getSignalToUrlMapping(scriptDocument));
+    }
+
+    static Definition of(Fragment fragment) {
+      Definition definition = fragment.fingerprint() == null
+          ? null : DEFINITIONS.getIfPresent(fragment.fingerprint());
+      if (definition == null) {
+        definition = new Definition(fragment);
+        if (fragment.fingerprint() != null) {
+          DEFINITIONS.put(fragment.fingerprint(), definition);
+        }
+      }
+      return definition;
+    }
+  }
 }
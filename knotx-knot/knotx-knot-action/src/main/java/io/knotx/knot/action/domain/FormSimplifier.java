@@ -15,6 +15,8 @@
  */
 package io.knotx.knot.action.domain;
 
+import io.knotx.dataobjects.Fragment;
+
 @FunctionalInterface
 public interface FormSimplifier {
 
@@ -29,4 +31,17 @@ public interface FormSimplifier {
    */
   String simplify(String content, String formIdAttrName, String formIdAttrValue);
 
+  /**
+   * Simplifies the content of a form fragment. Implementations may reuse the result for fragments
+   * with the same {@link Fragment#fingerprint()}.
+   *
+   * @param fragment - form fragment that should be processed.
+   * @param formIdAttrName - unique identifier of a hidden form field.
+   * @param formIdAttrValue - value of identifier hidden field.
+   * @return processed content.
+   */
+  default String simplify(Fragment fragment, String formIdAttrName, String formIdAttrValue) {
+    return simplify(fragment.content(), formIdAttrName, formIdAttrValue);
+  }
+
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.action.domain;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.knotx.dataobjects.Fragment;
+import io.knotx.junit.util.FileReader;
+import java.util.Collections;
+import org.junit.Test;
+
+public class DefaultFormSimplifierTest {
+
+  private static final String FORM_ID_ATTR_NAME = "snippet-identifier";
+
+  private final DefaultFormSimplifier tested = new DefaultFormSimplifier();
+
+  @Test
+  public void simplify_whenFragmentHasFingerprint_expectSameContentAsWithoutCache()
+      throws Exception {
+    String content = FileReader.readText("fragment_form_self_in.txt");
+    String expected = tested.simplify(content, FORM_ID_ATTR_NAME, "someId456");
+
+    assertThat(tested.simplify(fragment(content, "self"), FORM_ID_ATTR_NAME, "someId456"),
+        equalTo(expected));
+    assertThat(tested.simplify(fragment(content, "self"), FORM_ID_ATTR_NAME, "someId456"),
+        equalTo(expected));
+  }
+
+  @Test
+  public void simplify_whenValueNeedsEscaping_expectEscapedValue() throws Exception {
+    String content = FileReader.readText("fragment_form_redirect_in.txt");
+    String value = "a\"b";
+
+    String simplified = tested.simplify(fragment(content, "redirect"), FORM_ID_ATTR_NAME, value);
+
+    assertThat(simplified, equalTo(tested.simplify(content, FORM_ID_ATTR_NAME, value)));
+    assertThat(simplified, not(containsString(value)));
+  }
+
+  private static Fragment fragment(String content, String fingerprint) {
+    return Fragment.snippet(Collections.singletonList("form"), content).fingerprint(fingerprint);
+  }
+}
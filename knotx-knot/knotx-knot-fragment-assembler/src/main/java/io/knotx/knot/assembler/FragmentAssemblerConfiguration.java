@@ -24,6 +24,7 @@ public class FragmentAssemblerConfiguration {
   private final String address;
   private final String snippetTagName;
   private final UnprocessedFragmentStrategy assemblyStrategy;
+  private final boolean chunked;
 
   public FragmentAssemblerConfiguration(JsonObject config) {
     address = config.getString("address");
@@ -31,6 +32,7 @@ public class FragmentAssemblerConfiguration {
     assemblyStrategy = UnprocessedFragmentStrategy
         .valueOf(config.getString("unprocessedStrategy", UnprocessedFragmentStrategy.UNWRAP.name())
             .toUpperCase());
+    chunked = config.getBoolean("chunked", false);
   }
 
   public String address() {
@@ -44,4 +46,13 @@ public class FragmentAssemblerConfiguration {
   public UnprocessedFragmentStrategy unprocessedFragmentStrategy() {
     return assemblyStrategy;
   }
+
+  /**
+   * @return <tt>true</tt> if assembled fragments should be returned as they are, so the Server can
+   * write them to the client as chunks of the response, instead of joining them into a single
+   * response body.
+   */
+  public boolean isChunked() {
+    return chunked;
+  }
 }
@@ -16,6 +16,7 @@
 package io.knotx.knot.assembler.impl;
 
 import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
 import io.knotx.dataobjects.KnotContext;
 import io.knotx.fragments.SnippetPatterns;
 import io.knotx.knot.AbstractKnotProxy;
@@ -28,6 +29,8 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.MultiMap;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
@@ -49,11 +52,14 @@ public class FragmentAssemblerKnotProxyImpl extends AbstractKnotProxy {
   protected Single<KnotContext> processRequest(KnotContext knotContext) {
     if (hasFragments(knotContext)) {
       try {
-        String joinedFragments = knotContext.getFragments().stream()
+        if (configuration.isChunked()) {
+          return Single.just(createChunkedResponse(knotContext));
+        }
+        List<String> contents = knotContext.getFragments().stream()
             .map(fragment -> configuration.unprocessedFragmentStrategy().get(fragment, patterns))
-            .collect(Collectors.joining());
+            .collect(Collectors.toList());
 
-        return Single.just(createSuccessResponse(knotContext, joinedFragments));
+        return Single.just(createSuccessResponse(knotContext, contents));
       } catch (Exception ex) {
         LOGGER.error("Exception happened during Fragment assembly.", ex);
         return Single.just(processError(knotContext, ex));
@@ -83,16 +89,17 @@ public class FragmentAssemblerKnotProxyImpl extends AbstractKnotProxy {
         .setClientResponse(errorResponse);
   }
 
-  private KnotContext createSuccessResponse(KnotContext inputContext, String renderedContent) {
+  private KnotContext createSuccessResponse(KnotContext inputContext, List<String> contents) {
     ClientResponse clientResponse = inputContext.getClientResponse();
-    if (StringUtils.isBlank(renderedContent)) {
+    if (contents.stream().allMatch(StringUtils::isBlank)) {
       clientResponse.setStatusCode(HttpResponseStatus.NO_CONTENT.code());
     } else {
+      Buffer body = toBody(contents);
       MultiMap headers = clientResponse.getHeaders();
       headers.add(HttpHeaders.CONTENT_LENGTH.toString().toLowerCase(),
-          Integer.toString(renderedContent.length()));
+          Integer.toString(body.length()));
 
-      clientResponse.setBody(Buffer.buffer(renderedContent)).setHeaders(headers);
+      clientResponse.setBody(body).setHeaders(headers);
       clientResponse.setStatusCode(HttpResponseStatus.OK.code());
     }
 
@@ -100,4 +107,43 @@ public class FragmentAssemblerKnotProxyImpl extends AbstractKnotProxy {
         .setClientRequest(inputContext.getClientRequest())
         .setClientResponse(clientResponse);
   }
+
+  /**
+   * Encodes fragments one by one into a single buffer sized up front, so the page is not joined
+   * into an intermediate String first.
+   */
+  private Buffer toBody(List<String> contents) {
+    int length = contents.stream().mapToInt(String::length).sum();
+    Buffer body = Buffer.buffer(length + length / 8);
+    contents.forEach(content -> body.appendString(content, StandardCharsets.UTF_8.name()));
+    return body;
+  }
+
+  /**
+   * Applies the unprocessed fragments strategy to each fragment and returns them without joining.
+   * The response body stays empty and has no <tt>Content-Length</tt>, the Server writes fragments
+   * one by one using chunked transfer encoding.
+   */
+  private KnotContext createChunkedResponse(KnotContext inputContext) {
+    ClientResponse clientResponse = inputContext.getClientResponse();
+    List<Fragment> fragments = inputContext.getFragments();
+    fragments.forEach(fragment -> fragment
+        .content(configuration.unprocessedFragmentStrategy().get(fragment, patterns)));
+
+    if (fragments.stream().allMatch(fragment -> StringUtils.isBlank(fragment.content()))) {
+      clientResponse.setStatusCode(HttpResponseStatus.NO_CONTENT.code());
+      return new KnotContext()
+          .setClientRequest(inputContext.getClientRequest())
+          .setClientResponse(clientResponse);
+    }
+
+    MultiMap headers = clientResponse.getHeaders();
+    headers.remove(HttpHeaders.CONTENT_LENGTH.toString());
+    clientResponse.setHeaders(headers).clearBody().setStatusCode(HttpResponseStatus.OK.code());
+
+    return new KnotContext()
+        .setClientRequest(inputContext.getClientRequest())
+        .setClientResponse(clientResponse)
+        .setFragments(fragments);
+  }
 }
@@ -15,6 +15,7 @@
  */
 package io.knotx.assembler;
 
+import io.knotx.dataobjects.Fragment;
 import io.knotx.dataobjects.KnotContext;
 import io.knotx.junit.rule.KnotxConfiguration;
 import io.knotx.junit.rule.Logback;
@@ -29,9 +30,11 @@ import io.vertx.ext.unit.junit.RunTestOnContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.reactivex.core.Vertx;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -94,6 +97,30 @@ public class FragmentAssemblerTest {
               knotContext.getClientResponse().getStatusCode());
           context
               .assertEquals(expectedResult, knotContext.getClientResponse().getBody().toString());
+          context.assertEquals(
+              Integer.toString(expectedResult.getBytes(StandardCharsets.UTF_8).length),
+              knotContext.getClientResponse().getHeaders().get("content-length"));
+        });
+  }
+
+  @Test
+  @KnotxConfiguration("test.chunked.io.knotx.FragmentAssembler.json")
+  public void callAssemblerInChunkedMode_expectFragmentsWithoutBody(TestContext context)
+      throws Exception {
+    List<Pair<List<String>, String>> fragments = Arrays.asList(
+        toPair("fragment1.txt", RAW),
+        toPair("fragment2.txt", SERVICES, HANDLEBARS),
+        toPair("fragment3.txt", RAW));
+    String expectedResult = FileReader.readText("expectedAsIsResult.html");
+    callAssemblerWithAssertions(context, fragments,
+        knotContext -> {
+          context.assertEquals(HttpResponseStatus.OK.code(),
+              knotContext.getClientResponse().getStatusCode());
+          context.assertEquals(0, knotContext.getClientResponse().getBody().length());
+          context.assertNull(knotContext.getClientResponse().getHeaders().get("content-length"));
+          context.assertEquals(expectedResult, knotContext.getFragments().stream()
+              .map(Fragment::content)
+              .collect(Collectors.joining()));
         });
   }
 
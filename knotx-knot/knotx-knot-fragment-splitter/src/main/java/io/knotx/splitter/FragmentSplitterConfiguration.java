@@ -22,10 +22,12 @@ public class FragmentSplitterConfiguration {
 
   private final String address;
   private final String snippetTagName;
+  private final SplitCacheConfig splitCache;
 
   public FragmentSplitterConfiguration(JsonObject config) {
     address = config.getString("address");
     snippetTagName = config.getString("snippetTagName", FragmentConstants.DEFAULT_SNIPPET_TAG_NAME);
+    splitCache = new SplitCacheConfig(config.getJsonObject("splitCache", new JsonObject()));
   }
 
   public String getAddress() {
@@ -35,4 +37,8 @@ public class FragmentSplitterConfiguration {
   public String getSnippetTagName() {
     return snippetTagName;
   }
+
+  public SplitCacheConfig getSplitCache() {
+    return splitCache;
+  }
 }
@@ -15,16 +15,15 @@
  */
 package io.knotx.splitter;
 
+import io.knotx.codec.CodecServiceBinder;
 import io.knotx.proxy.KnotProxy;
 import io.knotx.splitter.impl.FragmentSplitterKnotProxyImpl;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import io.vertx.serviceproxy.ServiceBinder;
 
 public class FragmentSplitterVerticle extends AbstractVerticle {
 
@@ -32,9 +31,11 @@ public class FragmentSplitterVerticle extends AbstractVerticle {
 
   private FragmentSplitterConfiguration configuration;
 
-  private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<Object> consumer;
 
-  private ServiceBinder serviceBinder;
+  private CodecServiceBinder serviceBinder;
+
+  private long statisticsTimerId = -1;
 
   @Override
   public void init(Vertx vertx, Context context) {
@@ -47,14 +48,24 @@ public class FragmentSplitterVerticle extends AbstractVerticle {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
 
     //register the service proxy on event bus
-    serviceBinder = new ServiceBinder(getVertx());
+    FragmentSplitterKnotProxyImpl splitter = new FragmentSplitterKnotProxyImpl(configuration);
+    serviceBinder = new CodecServiceBinder(getVertx());
     consumer = serviceBinder
         .setAddress(configuration.getAddress())
-        .register(KnotProxy.class, new FragmentSplitterKnotProxyImpl(configuration));
+        .register(KnotProxy.class, splitter);
+
+    long interval = configuration.getSplitCache().getStatisticsLogInterval();
+    if (configuration.getSplitCache().isEnabled() && interval > 0) {
+      statisticsTimerId = vertx.setPeriodic(interval,
+          id -> LOGGER.info("Split plan cache statistics {}", splitter.cacheStatistics()));
+    }
   }
 
   @Override
   public void stop() throws Exception {
+    if (statisticsTimerId != -1) {
+      vertx.cancelTimer(statisticsTimerId);
+    }
     serviceBinder.unregister(consumer);
   }
 }
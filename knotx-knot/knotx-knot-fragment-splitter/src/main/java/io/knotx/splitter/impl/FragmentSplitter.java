@@ -16,17 +16,28 @@
 package io.knotx.splitter.impl;
 
 import io.knotx.dataobjects.Fragment;
+import io.vertx.core.buffer.Buffer;
 import java.util.List;
 
 @FunctionalInterface
 public interface FragmentSplitter {
 
+  /**
+   * Splits a template (markup) into list of fragments (see {@link io.knotx.dataobjects.Fragment}).
+   *
+   * @param template - a buffer containing the UTF-8 encoded template content which will be split.
+   * @return list of fragments (see {@link io.knotx.dataobjects.Fragment}).
+   */
+  List<Fragment> split(Buffer template);
+
   /**
    * Splits a template (markup) into list of fragments (see {@link io.knotx.dataobjects.Fragment}).
    *
    * @param template - a string containing the template content which will be split.
    * @return list of fragments (see {@link io.knotx.dataobjects.Fragment}).
    */
-  List<Fragment> split(String template);
+  default List<Fragment> split(String template) {
+    return split(Buffer.buffer(template));
+  }
 
 }
@@ -20,6 +20,7 @@ import io.knotx.knot.AbstractKnotProxy;
 import io.knotx.splitter.FragmentSplitterConfiguration;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import java.util.NoSuchElementException;
@@ -31,15 +32,28 @@ public class FragmentSplitterKnotProxyImpl extends AbstractKnotProxy {
 
   private final FragmentSplitter splitter;
 
+  private final SplitPlanCache planCache;
+
   public FragmentSplitterKnotProxyImpl(FragmentSplitterConfiguration configuration) {
     splitter = new HtmlFragmentSplitter(configuration.getSnippetTagName());
+    planCache = configuration.getSplitCache().isEnabled()
+        ? new SplitPlanCache(splitter, configuration.getSplitCache())
+        : null;
+  }
+
+  /**
+   * @return split plan cache statistics, empty if the cache is disabled.
+   */
+  public JsonObject cacheStatistics() {
+    return planCache != null ? planCache.statistics() : new JsonObject();
   }
 
   @Override
   protected Single<KnotContext> processRequest(KnotContext knotContext) {
     try {
-      knotContext
-          .setFragments(splitter.split(knotContext.getClientResponse().getBody().toString()));
+      knotContext.setFragments(planCache != null
+          ? planCache.split(knotContext)
+          : splitter.split(knotContext.getClientResponse().getBody()));
       knotContext.getClientResponse().setStatusCode(HttpResponseStatus.OK.code()).clearBody();
 
       return Single.just(knotContext);
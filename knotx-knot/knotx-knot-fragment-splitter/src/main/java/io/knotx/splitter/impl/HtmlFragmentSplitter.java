@@ -15,54 +15,187 @@
  */
 package io.knotx.splitter.impl;
 
-import com.google.common.collect.Lists;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 import io.knotx.dataobjects.Fragment;
 import io.knotx.fragments.FragmentConstants;
-import io.knotx.fragments.SnippetPatterns;
+import io.vertx.core.buffer.Buffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
 
+/**
+ * Splits the template in a single pass over its UTF-8 bytes. It recognizes exactly the same
+ * snippets as the {@link io.knotx.fragments.SnippetPatterns#getSnippetPattern()} regular
+ * expression:
+ * <pre>
+ *   &lt;tag\s+data-knotx-knots\s*=\s*"([A-Za-z0-9-,]+)"[^&gt;]*&gt;.+?&lt;/tag&gt;
+ * </pre>
+ * but without backtracking, so the splitting cost is linear to the template size. All markers are
+ * ASCII and UTF-8 never uses ASCII byte values inside multi-byte sequences, so scanning bytes gives
+ * the same boundaries as scanning characters. Each snippet gets a fingerprint of its bytes (see
+ * {@link Fragment#fingerprint()}).
+ */
 class HtmlFragmentSplitter implements FragmentSplitter {
 
-  private final SnippetPatterns snippetPatterns;
+  private static final byte[] IDENTIFIER = FragmentConstants.SNIPPET_IDENTIFIER_NAME
+      .getBytes(StandardCharsets.UTF_8);
+
+  private static final int NOT_FOUND = -1;
+
+  private static final HashFunction FINGERPRINT = Hashing.murmur3_128();
+
+  private final byte[] openingTag;
+
+  private final byte[] closingTag;
 
   HtmlFragmentSplitter(String snippetTag) {
-    snippetPatterns = new SnippetPatterns(snippetTag);
+    openingTag = ("<" + snippetTag).getBytes(StandardCharsets.UTF_8);
+    closingTag = ("</" + snippetTag + ">").getBytes(StandardCharsets.UTF_8);
   }
 
   @Override
-  public List<Fragment> split(String html) {
-    List<Fragment> fragments = Lists.newLinkedList();
-    if (snippetPatterns.getAnySnippetPattern().matcher(html).matches()) {
-      Matcher matcher = snippetPatterns.getSnippetPattern().matcher(html);
-      int idx = 0;
-      while (matcher.find()) {
-        MatchResult matchResult = matcher.toMatchResult();
-        if (idx < matchResult.start()) {
-          fragments.add(toRaw(html, idx, matchResult.start()));
-        }
-        fragments.add(
-            toSnippet(matchResult.group(1).intern()
-                    .split(FragmentConstants.FRAGMENT_IDENTIFIERS_SEPARATOR), html,
-                matchResult.start(), matchResult.end()));
-        idx = matchResult.end();
+  public List<Fragment> split(Buffer template) {
+    byte[] html = template.getBytes();
+    List<Fragment> fragments = new ArrayList<>();
+
+    int idx = 0;
+    int from = 0;
+    int tagEnd = NOT_FOUND;
+    while (true) {
+      int start = indexOf(html, openingTag, from);
+      if (start == NOT_FOUND) {
+        break;
       }
-      if (idx < html.length()) {
-        fragments.add(toRaw(html, idx, html.length()));
+      int idsStart = identifiersStart(html, start + openingTag.length);
+      int idsEnd = idsStart == NOT_FOUND ? NOT_FOUND : identifiersEnd(html, idsStart);
+      if (idsEnd == NOT_FOUND) {
+        from = start + 1;
+        continue;
       }
-    } else {
-      fragments.add(toRaw(html, 0, html.length()));
+      if (tagEnd <= idsEnd) {
+        tagEnd = indexOf(html, (byte) '>', idsEnd + 1);
+      }
+      if (tagEnd == NOT_FOUND) {
+        // no later snippet can be closed either
+        break;
+      }
+      // snippet body must not be empty
+      int closing = indexOf(html, closingTag, tagEnd + 2);
+      if (closing == NOT_FOUND) {
+        break;
+      }
+      int end = closing + closingTag.length;
+      if (idx < start) {
+        fragments.add(toRaw(html, idx, start));
+      }
+      fragments.add(toSnippet(decode(html, idsStart, idsEnd).intern()
+          .split(FragmentConstants.FRAGMENT_IDENTIFIERS_SEPARATOR), html, start, end));
+      idx = end;
+      from = end;
+    }
+    if (idx < html.length || fragments.isEmpty()) {
+      fragments.add(toRaw(html, idx, html.length));
     }
     return fragments;
   }
 
-  private Fragment toRaw(String html, int startIdx, int endIdx) {
-    return Fragment.raw(html.substring(startIdx, endIdx));
+  /**
+   * Matches <tt>\s+data-knotx-knots\s*=\s*"</tt> starting at the given position.
+   *
+   * @return position of the first snippet identifier, or {@link #NOT_FOUND}.
+   */
+  private int identifiersStart(byte[] html, int position) {
+    int pos = skipWhitespaces(html, position);
+    if (pos == position || !regionMatches(html, pos, IDENTIFIER)) {
+      return NOT_FOUND;
+    }
+    pos = skipWhitespaces(html, pos + IDENTIFIER.length);
+    if (pos == html.length || html[pos] != '=') {
+      return NOT_FOUND;
+    }
+    pos = skipWhitespaces(html, pos + 1);
+    if (pos == html.length || html[pos] != '"') {
+      return NOT_FOUND;
+    }
+    return pos + 1;
+  }
+
+  /**
+   * Matches <tt>[A-Za-z0-9-,]+"</tt> starting at the given position.
+   *
+   * @return position of the closing quote, or {@link #NOT_FOUND}.
+   */
+  private int identifiersEnd(byte[] html, int position) {
+    int pos = position;
+    while (pos < html.length && isIdentifierChar(html[pos])) {
+      pos++;
+    }
+    return pos > position && pos < html.length && html[pos] == '"' ? pos : NOT_FOUND;
+  }
+
+  private static boolean isIdentifierChar(byte b) {
+    return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+        || b == '-' || b == ',';
+  }
+
+  private static int skipWhitespaces(byte[] html, int position) {
+    int pos = position;
+    while (pos < html.length && isWhitespace(html[pos])) {
+      pos++;
+    }
+    return pos;
+  }
+
+  /**
+   * The same set of characters as <tt>\s</tt> in {@link java.util.regex.Pattern}.
+   */
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+  }
+
+  private static boolean regionMatches(byte[] html, int position, byte[] expected) {
+    if (position + expected.length > html.length) {
+      return false;
+    }
+    for (int i = 0; i < expected.length; i++) {
+      if (html[position + i] != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int indexOf(byte[] html, byte expected, int from) {
+    for (int i = from; i < html.length; i++) {
+      if (html[i] == expected) {
+        return i;
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  private static int indexOf(byte[] html, byte[] expected, int from) {
+    int last = html.length - expected.length;
+    for (int i = from; i <= last; i++) {
+      if (html[i] == expected[0] && regionMatches(html, i, expected)) {
+        return i;
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  private static String decode(byte[] html, int startIdx, int endIdx) {
+    return new String(html, startIdx, endIdx - startIdx, StandardCharsets.UTF_8);
+  }
+
+  private Fragment toRaw(byte[] html, int startIdx, int endIdx) {
+    return Fragment.raw(decode(html, startIdx, endIdx));
   }
 
-  private Fragment toSnippet(String[] ids, String html, int startIdx, int endIdx) {
-    return Fragment.snippet(Arrays.asList(ids), html.substring(startIdx, endIdx));
+  private Fragment toSnippet(String[] ids, byte[] html, int startIdx, int endIdx) {
+    return Fragment.snippet(Arrays.asList(ids), decode(html, startIdx, endIdx))
+        .fingerprint(FINGERPRINT.hashBytes(html, startIdx, endIdx - startIdx).toString());
   }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.splitter.impl;
+
+import com.google.common.collect.ImmutableList;
+import io.knotx.dataobjects.Fragment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable result of a template splitting: fragment boundaries (the content of each fragment) and
+ * Knots identifiers of each fragment. Fragments are mutable and owned by the request, so every
+ * request gets fresh {@link Fragment} instances sharing the immutable content.
+ */
+final class SplitPlan {
+
+  private static final int FRAGMENT_OVERHEAD = 64;
+  private static final int KNOT_OVERHEAD = 48;
+
+  private final ImmutableList<Entry> entries;
+
+  private final int weight;
+
+  private SplitPlan(ImmutableList<Entry> entries) {
+    this.entries = entries;
+    this.weight = entries.stream().mapToInt(Entry::weight).sum();
+  }
+
+  static SplitPlan of(List<Fragment> fragments) {
+    return new SplitPlan(fragments.stream()
+        .map(fragment -> new Entry(fragment.isRaw(), ImmutableList.copyOf(fragment.knots()),
+            fragment.content(), fragment.fingerprint()))
+        .collect(Collectors.collectingAndThen(Collectors.toList(), ImmutableList::copyOf)));
+  }
+
+  List<Fragment> fragments() {
+    return entries.stream().map(Entry::toFragment).collect(Collectors.toList());
+  }
+
+  /**
+   * @return approximate number of bytes the plan occupies on the heap.
+   */
+  int weight() {
+    return weight;
+  }
+
+  private static final class Entry {
+
+    private final boolean raw;
+    private final ImmutableList<String> knots;
+    private final String content;
+    private final String fingerprint;
+
+    private Entry(boolean raw, ImmutableList<String> knots, String content, String fingerprint) {
+      this.raw = raw;
+      this.knots = knots;
+      this.content = content;
+      this.fingerprint = fingerprint;
+    }
+
+    private Fragment toFragment() {
+      return raw ? Fragment.raw(content)
+          : Fragment.snippet(new ArrayList<>(knots), content).fingerprint(fingerprint);
+    }
+
+    private int weight() {
+      return FRAGMENT_OVERHEAD + KNOT_OVERHEAD * knots.size() + 2 * content.length()
+          + (fingerprint == null ? 0 : 2 * fingerprint.length());
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.splitter.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.splitter.SplitCacheConfig;
+import io.knotx.util.CacheStatsConverter;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+
+/**
+ * Keeps split plans of recently split templates, so a template returned many times by the
+ * repository is scanned only once. Plans are keyed by a fingerprint of the template body or, when
+ * configured, by the request path and the strong <tt>ETag</tt> returned by the repository (weak
+ * <tt>ETag</tt>s do not guarantee identical bodies, so such templates are fingerprinted). The cache is
+ * bounded by the approximate heap size of the cached plans.
+ */
+class SplitPlanCache {
+
+  private static final HashFunction FINGERPRINT = Hashing.murmur3_128();
+
+  private static final String ETAG_KEY_PREFIX = "etag:";
+
+  private static final String ETAG_KEY_SEPARATOR = "\n";
+
+  private static final String WEAK_ETAG_PREFIX = "W/";
+
+  private final FragmentSplitter splitter;
+
+  private final boolean useETag;
+
+  private final Cache<String, SplitPlan> plans;
+
+  SplitPlanCache(FragmentSplitter splitter, SplitCacheConfig config) {
+    this.splitter = splitter;
+    this.useETag = config.isUseETag();
+    // the weight limit is divided between the cache segments, so with more segments plans bigger
+    // than a segment limit would never be cached; the cache is used by a single verticle instance
+    // (one thread), so one segment is enough
+    this.plans = CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .maximumWeight(config.getMaximumWeight())
+        .weigher((String key, SplitPlan plan) -> 2 * key.length() + plan.weight())
+        .recordStats()
+        .build();
+  }
+
+  List<Fragment> split(KnotContext knotContext) {
+    Buffer template = knotContext.getClientResponse().getBody();
+    String key = key(knotContext.getClientRequest(), knotContext.getClientResponse(), template);
+
+    SplitPlan plan = plans.getIfPresent(key);
+    if (plan == null) {
+      plan = SplitPlan.of(splitter.split(template));
+      plans.put(key, plan);
+    }
+    return plan.fragments();
+  }
+
+  /**
+   * @return hits, misses and evictions of the cache.
+   */
+  JsonObject statistics() {
+    return CacheStatsConverter.toJsonObject(plans.stats())
+        .put("size", plans.size());
+  }
+
+  private String key(ClientRequest request, ClientResponse response, Buffer template) {
+    if (useETag && request != null) {
+      String eTag = response.getHeaders().get(HttpHeaders.ETAG.toString());
+      if (eTag != null && !eTag.startsWith(WEAK_ETAG_PREFIX)) {
+        return ETAG_KEY_PREFIX + request.getPath() + ETAG_KEY_SEPARATOR + eTag;
+      }
+    }
+    return fingerprint(template);
+  }
+
+  /**
+   * Hashes the template in place when it is backed by a heap array, without copying its bytes.
+   */
+  private static String fingerprint(Buffer template) {
+    ByteBuf bytes = template.getByteBuf();
+    if (bytes.hasArray()) {
+      return FINGERPRINT.hashBytes(bytes.array(), bytes.arrayOffset() + bytes.readerIndex(),
+          bytes.readableBytes()).toString();
+    }
+    return FINGERPRINT.hashBytes(template.getBytes()).toString();
+  }
+}
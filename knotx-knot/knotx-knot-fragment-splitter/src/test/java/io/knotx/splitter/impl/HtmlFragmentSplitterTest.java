@@ -21,6 +21,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import io.knotx.dataobjects.Fragment;
 import io.knotx.junit.util.FileReader;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
 import org.junit.Rule;
@@ -135,4 +136,33 @@ public class HtmlFragmentSplitterTest {
     assertThat(testOneSnippetMiddle.get(7).isRaw(), equalTo(true));
     assertThat(testOneSnippetMiddle.get(8).isRaw(), equalTo(false));
   }
+
+  @Test
+  public void split_whenSnippetNotClosed_expectOneRawFragment() throws Exception {
+    String html = "<p>before</p><script data-knotx-knots=\"templating\">{{message}}";
+    List<Fragment> fragments = new HtmlFragmentSplitter(DEFAULT_SCRIPT_TAG).split(html);
+    assertThat(fragments.size(), equalTo(1));
+    assertThat(fragments.get(0).isRaw(), equalTo(true));
+    assertThat(fragments.get(0).content(), equalTo(html));
+  }
+
+  @Test
+  public void split_whenInvalidKnotsIdentifiers_expectSnippetTreatedAsRaw() throws Exception {
+    String html = "<script data-knotx-knots=\"templating_X\">{{message}}</script>";
+    List<Fragment> fragments = new HtmlFragmentSplitter(DEFAULT_SCRIPT_TAG).split(html);
+    assertThat(fragments.size(), equalTo(1));
+    assertThat(fragments.get(0).isRaw(), equalTo(true));
+  }
+
+  @Test
+  public void split_whenMultiByteCharacters_expectCharactersPreserved() throws Exception {
+    String snippet = "<script data-knotx-knots=\"services,handlebars\">Zażółć {{gęślą}}</script>";
+    List<Fragment> fragments = new HtmlFragmentSplitter(DEFAULT_SCRIPT_TAG)
+        .split("<p>jaźń</p>" + snippet + "<p>日本</p>");
+    assertThat(fragments.size(), equalTo(3));
+    assertThat(fragments.get(0).content(), equalTo("<p>jaźń</p>"));
+    assertThat(fragments.get(1).content(), equalTo(snippet));
+    assertThat(fragments.get(1).knots(), equalTo(Arrays.asList("services", "handlebars")));
+    assertThat(fragments.get(2).content(), equalTo("<p>日本</p>"));
+  }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.splitter.impl;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.junit.util.FileReader;
+import io.knotx.splitter.SplitCacheConfig;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.MultiMap;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Test;
+
+public class SplitPlanCacheTest {
+
+  private static final String TEMPLATE = "test-many-fragments.html";
+
+  @Test
+  public void split_whenSameTemplateTwice_expectSecondSplitFromCache() throws Exception {
+    SplitPlanCache cache = cache(new JsonObject());
+
+    List<Fragment> first = cache.split(knotContext(FileReader.readText(TEMPLATE), null));
+    List<Fragment> second = cache.split(knotContext(FileReader.readText(TEMPLATE), null));
+
+    assertThat(second, equalTo(first));
+    assertThat(second.get(1), not(sameInstance(first.get(1))));
+    assertThat(cache.statistics().getLong("hits"), equalTo(1L));
+    assertThat(cache.statistics().getLong("misses"), equalTo(1L));
+  }
+
+  @Test
+  public void split_whenCachedFragmentModified_expectPlanNotAffected() throws Exception {
+    SplitPlanCache cache = cache(new JsonObject());
+
+    cache.split(knotContext(FileReader.readText(TEMPLATE), null)).get(1).content("processed");
+    List<Fragment> fragments = cache.split(knotContext(FileReader.readText(TEMPLATE), null));
+
+    assertThat(fragments, equalTo(new HtmlFragmentSplitter("script")
+        .split(FileReader.readText(TEMPLATE))));
+  }
+
+  @Test
+  public void split_whenCachedPlan_expectSnippetFingerprintsPreserved() throws Exception {
+    SplitPlanCache cache = cache(new JsonObject());
+
+    List<Fragment> first = cache.split(knotContext(FileReader.readText(TEMPLATE), null));
+    List<Fragment> second = cache.split(knotContext(FileReader.readText(TEMPLATE), null));
+
+    assertThat(first.get(1).fingerprint(), notNullValue());
+    assertThat(second.get(1).fingerprint(), equalTo(first.get(1).fingerprint()));
+    assertThat(second.get(1).content("processed").fingerprint(), nullValue());
+  }
+
+  @Test
+  public void split_whenDifferentTemplates_expectNoHits() throws Exception {
+    SplitPlanCache cache = cache(new JsonObject());
+
+    cache.split(knotContext(FileReader.readText(TEMPLATE), null));
+    cache.split(knotContext(FileReader.readText("test-one-fragment-middle.html"), null));
+
+    assertThat(cache.statistics().getLong("hits"), equalTo(0L));
+  }
+
+  @Test
+  public void split_whenETagKeyAndSameETag_expectCachedPlan() throws Exception {
+    SplitPlanCache cache = cache(new JsonObject().put("useETag", true));
+
+    cache.split(knotContext(FileReader.readText(TEMPLATE), "\"v1\""));
+    List<Fragment> fragments = cache
+        .split(knotContext(FileReader.readText("test-one-fragment-middle.html"), "\"v1\""));
+
+    assertThat(fragments.size(), equalTo(9));
+    assertThat(cache.statistics().getLong("hits"), equalTo(1L));
+  }
+
+  @Test
+  public void split_whenETagKeyAndSameWeakETag_expectTemplateFingerprinted() throws Exception {
+    SplitPlanCache cache = cache(new JsonObject().put("useETag", true));
+
+    cache.split(knotContext(FileReader.readText(TEMPLATE), "W/\"v1\""));
+    List<Fragment> fragments = cache
+        .split(knotContext(FileReader.readText("test-one-fragment-middle.html"), "W/\"v1\""));
+
+    assertThat(fragments.size(), equalTo(3));
+    assertThat(cache.statistics().getLong("hits"), equalTo(0L));
+  }
+
+  @Test
+  public void split_whenETagKeyAndPathEndingWithETagPrefix_expectDifferentKeys()
+      throws Exception {
+    SplitPlanCache cache = cache(new JsonObject().put("useETag", true));
+
+    cache.split(knotContext("/content/page.html", FileReader.readText(TEMPLATE), "1\"v1\""));
+    cache.split(knotContext("/content/page.html1", FileReader.readText(TEMPLATE), "\"v1\""));
+
+    assertThat(cache.statistics().getLong("hits"), equalTo(0L));
+  }
+
+  @Test
+  public void split_whenSameTemplateInDirectBuffer_expectCachedPlan() throws Exception {
+    SplitPlanCache cache = cache(new JsonObject());
+    String template = FileReader.readText(TEMPLATE);
+
+    cache.split(knotContext(template, null));
+    cache.split(knotContext(Buffer.buffer(Unpooled.directBuffer()
+        .writeBytes(template.getBytes(StandardCharsets.UTF_8))), null));
+
+    assertThat(cache.statistics().getLong("hits"), equalTo(1L));
+  }
+
+  @Test
+  public void split_whenPlanBiggerThanQuarterOfMaximumWeight_expectCachedPlan() throws Exception {
+    String template = FileReader.readText(TEMPLATE);
+    int weight = SplitPlan.of(new HtmlFragmentSplitter("script").split(template)).weight();
+    SplitPlanCache cache = cache(new JsonObject().put("maximumWeight", weight + 100));
+
+    cache.split(knotContext(template, null));
+    cache.split(knotContext(template, null));
+
+    assertThat(cache.statistics().getLong("hits"), equalTo(1L));
+  }
+
+  private SplitPlanCache cache(JsonObject config) {
+    return new SplitPlanCache(new HtmlFragmentSplitter("script"), new SplitCacheConfig(config));
+  }
+
+  private KnotContext knotContext(String template, String eTag) {
+    return knotContext(Buffer.buffer(template), eTag);
+  }
+
+  private KnotContext knotContext(Buffer template, String eTag) {
+    return knotContext("/content/page.html", template, eTag);
+  }
+
+  private KnotContext knotContext(String path, String template, String eTag) {
+    return knotContext(path, Buffer.buffer(template), eTag);
+  }
+
+  private KnotContext knotContext(String path, Buffer template, String eTag) {
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+    if (eTag != null) {
+      headers.add("ETag", eTag);
+    }
+    return new KnotContext()
+        .setClientRequest(new ClientRequest().setPath(path))
+        .setClientResponse(new ClientResponse()
+            .setHeaders(headers)
+            .setBody(template));
+  }
+}
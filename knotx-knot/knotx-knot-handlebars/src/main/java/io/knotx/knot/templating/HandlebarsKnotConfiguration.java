@@ -20,24 +20,25 @@ import io.vertx.core.json.JsonObject;
 public class HandlebarsKnotConfiguration {
 
   private final String address;
-  private final String cacheKeyAlgorithm;
   private final Long cacheSize;
+  private final OutputCacheConfig outputCache;
 
-  HandlebarsKnotConfiguration(JsonObject config) {
+  public HandlebarsKnotConfiguration(JsonObject config) {
     this.address = config.getString("address");
-    this.cacheKeyAlgorithm = config.getString("cacheKeyAlgorithm", "MD5");
     this.cacheSize = config.getLong("cacheSize", 1000L);
+    this.outputCache = new OutputCacheConfig(
+        config.getJsonObject("outputCache", new JsonObject()));
   }
 
   public String address() {
     return address;
   }
 
-  public String getCacheKeyAlgorithm() {
-    return cacheKeyAlgorithm;
-  }
-
   public Long getCacheSize() {
     return cacheSize;
   }
+
+  public OutputCacheConfig getOutputCache() {
+    return outputCache;
+  }
 }
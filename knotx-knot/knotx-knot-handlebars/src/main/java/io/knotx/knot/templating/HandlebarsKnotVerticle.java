@@ -15,16 +15,17 @@
  */
 package io.knotx.knot.templating;
 
+import io.knotx.codec.CodecServiceBinder;
 import io.knotx.knot.templating.impl.HandlebarsKnotProxyImpl;
+import io.knotx.knot.templating.impl.OutputCache;
 import io.knotx.proxy.KnotProxy;
+import io.knotx.util.CacheStatisticsLogger;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import io.vertx.serviceproxy.ServiceBinder;
 
 public class HandlebarsKnotVerticle extends AbstractVerticle {
 
@@ -32,9 +33,11 @@ public class HandlebarsKnotVerticle extends AbstractVerticle {
 
   private HandlebarsKnotConfiguration configuration;
 
-  private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<Object> consumer;
 
-  private ServiceBinder serviceBinder;
+  private CodecServiceBinder serviceBinder;
+
+  private long statisticsTimerId = -1;
 
   @Override
   public void init(Vertx vertx, Context context) {
@@ -47,15 +50,25 @@ public class HandlebarsKnotVerticle extends AbstractVerticle {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
 
     //register the service proxy on event bus
-    serviceBinder = new ServiceBinder(getVertx());
+    serviceBinder = new CodecServiceBinder(getVertx());
     consumer = serviceBinder
         .setAddress(configuration.address())
-        .register(KnotProxy.class, new HandlebarsKnotProxyImpl(configuration));
+        .register(KnotProxy.class, new HandlebarsKnotProxyImpl(vertx, configuration));
+
+    OutputCacheConfig outputCacheConfig = configuration.getOutputCache();
+    if (outputCacheConfig.isEnabled() && outputCacheConfig.getStatisticsLogInterval() > 0) {
+      OutputCache outputCache = OutputCache.shared(vertx, configuration);
+      statisticsTimerId = CacheStatisticsLogger.start(vertx, LOGGER, "Output cache", outputCache,
+          outputCacheConfig.getStatisticsLogInterval(), outputCache::statistics);
+    }
   }
 
   @Override
   public void stop() throws Exception {
     LOGGER.info("Stopping <{}>", this.getClass().getSimpleName());
+    if (statisticsTimerId != -1) {
+      vertx.cancelTimer(statisticsTimerId);
+    }
     serviceBinder.unregister(consumer);
   }
 
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.templating;
+
+import io.vertx.core.json.JsonObject;
+
+public class OutputCacheConfig {
+
+  private static final boolean DEFAULT_ENABLED = false;
+  private static final boolean DEFAULT_CACHE_ALL = false;
+  //Default limit - 16 MB of cached markup
+  private static final long DEFAULT_MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+  private static final long DEFAULT_STATISTICS_LOG_INTERVAL = 0;
+
+  private final boolean enabled;
+  private final boolean cacheAll;
+  private final long maximumWeight;
+  private final long statisticsLogInterval;
+
+  public OutputCacheConfig(JsonObject config) {
+    enabled = config.getBoolean("enabled", DEFAULT_ENABLED);
+    cacheAll = config.getBoolean("cacheAll", DEFAULT_CACHE_ALL);
+    maximumWeight = config.getLong("maximumWeight", DEFAULT_MAXIMUM_WEIGHT);
+    statisticsLogInterval = config
+        .getLong("statisticsLogInterval", DEFAULT_STATISTICS_LOG_INTERVAL);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return <tt>true</tt> if output of all snippets is cached unless a snippet opts out, otherwise
+   * only snippets that opt in are cached.
+   */
+  public boolean isCacheAll() {
+    return cacheAll;
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  public long getStatisticsLogInterval() {
+    return statisticsLogInterval;
+  }
+}
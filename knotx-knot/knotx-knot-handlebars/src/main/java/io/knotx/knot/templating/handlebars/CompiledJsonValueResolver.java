@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.templating.handlebars;
+
+import com.github.jknack.handlebars.Context;
+import com.github.jknack.handlebars.TagType;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.ValueResolver;
+import com.github.jknack.handlebars.context.JavaBeanValueResolver;
+import com.github.jknack.handlebars.context.MapValueResolver;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link JsonObject} and {@link JsonArray} value resolver compiled together with a single
+ * template. Array indexes of the template variable paths (e.g. <tt>0</tt> of
+ * <tt>{{items.0.name}}</tt>) are parsed once, when the template is compiled. Contexts created by
+ * {@link #context(Object)} ask this resolver first, so JSON values are not looked up by the
+ * default Handlebars resolvers (map keys, Java bean getters) before.
+ */
+public final class CompiledJsonValueResolver implements ValueResolver {
+
+  private static final Pattern PATH_SEPARATOR = Pattern.compile("[./]");
+
+  private final Map<String, Integer> indexes;
+
+  private final ValueResolver[] resolvers;
+
+  private CompiledJsonValueResolver(Map<String, Integer> indexes) {
+    this.indexes = indexes;
+    this.resolvers = new ValueResolver[]{this, MapValueResolver.INSTANCE,
+        JavaBeanValueResolver.INSTANCE};
+  }
+
+  /**
+   * @param template - compiled template.
+   * @return the resolver of the template variable paths.
+   */
+  public static CompiledJsonValueResolver compile(Template template) {
+    Map<String, Integer> indexes = new HashMap<>();
+    template.collect(TagType.values()).stream()
+        .flatMap(PATH_SEPARATOR::splitAsStream)
+        .filter(segment -> !segment.isEmpty())
+        .forEach(segment -> indexes
+            .computeIfAbsent(segment, JsonObjectValueResolver::parseIndex));
+    return new CompiledJsonValueResolver(Collections.unmodifiableMap(indexes));
+  }
+
+  /**
+   * @param model - the model the template is applied to, e.g. the Fragment Context.
+   * @return context of the model resolved with this resolver first and the default Handlebars
+   * resolvers next.
+   */
+  public Context context(Object model) {
+    return Context.newBuilder(model).resolver(resolvers).build();
+  }
+
+  @Override
+  public Object resolve(Object context, String name) {
+    Object value = null;
+    if (context instanceof JsonObject) {
+      value = ((JsonObject) context).getValue(name);
+    } else if (context instanceof JsonArray) {
+      Integer index = indexes.get(name);
+      value = JsonObjectValueResolver.element((JsonArray) context,
+          index != null ? index : JsonObjectValueResolver.parseIndex(name));
+    }
+    return value == null ? UNRESOLVED : value;
+  }
+
+  @Override
+  public Object resolve(Object context) {
+    return JsonObjectValueResolver.INSTANCE.resolve(context);
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> propertySet(Object context) {
+    return JsonObjectValueResolver.INSTANCE.propertySet(context);
+  }
+}
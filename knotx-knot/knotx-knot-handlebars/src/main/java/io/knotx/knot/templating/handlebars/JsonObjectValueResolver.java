@@ -16,13 +16,16 @@
 package io.knotx.knot.templating.handlebars;
 
 import com.github.jknack.handlebars.ValueResolver;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * A {@link JsonObject} value resolver.
+ * A {@link JsonObject} and {@link JsonArray} value resolver. Array elements are resolved by their
+ * index, e.g. <tt>{{items.0.name}}</tt> or <tt>{{items.[0].name}}</tt>. JSON objects are resolved
+ * with a single key lookup, the index is parsed only when the context is an array.
  */
 public enum JsonObjectValueResolver implements ValueResolver {
   /**
@@ -30,12 +33,15 @@ public enum JsonObjectValueResolver implements ValueResolver {
    */
   INSTANCE;
 
-  @SuppressWarnings({"rawtypes", "unchecked"})
+  static final int NO_INDEX = -1;
+
   @Override
   public Object resolve(Object context, String name) {
     Object value = null;
     if (context instanceof JsonObject) {
       value = ((JsonObject) context).getValue(name);
+    } else if (context instanceof JsonArray) {
+      value = element((JsonArray) context, parseIndex(name));
     }
     return value == null ? UNRESOLVED : value;
   }
@@ -56,4 +62,36 @@ public enum JsonObjectValueResolver implements ValueResolver {
     }
     return Collections.emptySet();
   }
+
+  /**
+   * @return the array index of a path segment (<tt>0</tt> or <tt>[0]</tt>), {@link #NO_INDEX} if
+   * the segment is not a number.
+   */
+  static int parseIndex(String name) {
+    int start = 0;
+    int end = name.length();
+    if (end > 2 && name.charAt(0) == '[' && name.charAt(end - 1) == ']') {
+      start++;
+      end--;
+    }
+    if (start == end || end - start > 9) {
+      return NO_INDEX;
+    }
+    int index = 0;
+    for (int i = start; i < end; i++) {
+      char digit = name.charAt(i);
+      if (digit < '0' || digit > '9') {
+        return NO_INDEX;
+      }
+      index = index * 10 + (digit - '0');
+    }
+    return index;
+  }
+
+  /**
+   * @return the array element, <tt>null</tt> if there is no element with the index.
+   */
+  static Object element(JsonArray array, int index) {
+    return index != NO_INDEX && index < array.size() ? array.getValue(index) : null;
+  }
 }
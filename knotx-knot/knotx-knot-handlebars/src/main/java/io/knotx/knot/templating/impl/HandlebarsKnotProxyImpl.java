@@ -16,35 +16,23 @@
 package io.knotx.knot.templating.impl;
 
 import static io.knotx.fragments.FragmentContentExtractor.abbreviate;
-import static io.knotx.fragments.FragmentContentExtractor.unwrapContent;
 
-import com.github.jknack.handlebars.Context;
-import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import io.knotx.dataobjects.ClientResponse;
 import io.knotx.dataobjects.Fragment;
 import io.knotx.dataobjects.KnotContext;
-import io.knotx.fragments.FragmentContentExtractor;
 import io.knotx.knot.AbstractKnotProxy;
 import io.knotx.knot.templating.HandlebarsKnotConfiguration;
-import io.knotx.knot.templating.handlebars.CustomHandlebarsHelper;
-import io.knotx.knot.templating.handlebars.JsonObjectValueResolver;
-import io.knotx.knot.templating.helpers.DefaultHandlebarsHelpers;
+import io.knotx.knot.templating.impl.TemplateRegistry.CompiledSnippet;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.reactivex.Single;
+import io.vertx.core.Vertx;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
-import java.util.ServiceLoader;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 
 public class HandlebarsKnotProxyImpl extends AbstractKnotProxy {
 
@@ -52,25 +40,15 @@ public class HandlebarsKnotProxyImpl extends AbstractKnotProxy {
 
   private static final String SUPPORTED_FRAGMENT_KNOT = "handlebars";
 
-  private Handlebars handlebars;
+  private final TemplateRegistry templates;
 
-  private Cache<String, Template> cache;
+  private final OutputCache outputCache;
 
-  private MessageDigest digest;
-
-  public HandlebarsKnotProxyImpl(HandlebarsKnotConfiguration configuration) {
-    this.handlebars = createHandlebars();
-    this.cache = CacheBuilder.newBuilder()
-        .maximumSize(configuration.getCacheSize())
-        .removalListener(listener -> LOGGER.warn(
-            "Cache limit exceeded. If this information occurs frequently, check 'cacheSize' configuration option because your cache is too small"))
-        .build();
-    try {
-      this.digest = MessageDigest.getInstance(configuration.getCacheKeyAlgorithm());
-    } catch (NoSuchAlgorithmException e) {
-      LOGGER.error("Could not initialize fragment hashing algorithm!", e);
-      throw new IllegalArgumentException(e);
-    }
+  public HandlebarsKnotProxyImpl(Vertx vertx, HandlebarsKnotConfiguration configuration) {
+    this.templates = TemplateRegistry.shared(vertx, configuration);
+    this.outputCache = configuration.getOutputCache().isEnabled()
+        ? OutputCache.shared(vertx, configuration)
+        : null;
   }
 
   @Override
@@ -107,55 +85,26 @@ public class HandlebarsKnotProxyImpl extends AbstractKnotProxy {
   }
 
   private String evaluate(Fragment fragment) {
-    Template template = template(fragment);
+    CompiledSnippet snippet = templates.compiled(fragment);
+    return outputCache != null
+        ? outputCache.render(snippet, fragment, () -> evaluate(fragment, snippet))
+        : evaluate(fragment, snippet);
+  }
+
+  private String evaluate(Fragment fragment, CompiledSnippet snippet) {
+    Template template = snippet.template();
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("Applying context [{}] to template [{}]!", fragment.context(),
           abbreviate(template.text()));
     }
     try {
-      return template.apply(
-          Context.newBuilder(fragment.context())
-              .push(JsonObjectValueResolver.INSTANCE)
-              .build());
+      RenderWriter writer = RenderWriter.acquire();
+      template.apply(snippet.resolver().context(fragment.context()), writer);
+      return writer.toString();
     } catch (IOException e) {
       LOGGER.error("Could not apply context [{}] to template [{}]", fragment.context(),
           abbreviate(template.text()), e);
       throw new IllegalStateException(e);
     }
   }
-
-  private Template template(Fragment fragment) {
-    try {
-      String cacheKey = getCacheKey(fragment);
-
-      return cache.get(cacheKey, () -> {
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("Compiles Handlebars fragment [{}]", abbreviate(fragment.content()));
-        }
-        return handlebars.compileInline(unwrapContent(fragment));
-      });
-    } catch (ExecutionException e) {
-      FragmentContentExtractor.abbreviate(fragment.content());
-      LOGGER.error("Could not compile fragment [{}]", abbreviate(fragment.content()), e);
-      throw new IllegalStateException(e);
-    }
-  }
-
-  private String getCacheKey(Fragment fragment) {
-    byte[] cacheKeyBytes = digest.digest(fragment.content().getBytes(StandardCharsets.UTF_8));
-    return new String(cacheKeyBytes);
-  }
-
-  private Handlebars createHandlebars() {
-    Handlebars newHandlebars = new Handlebars();
-    DefaultHandlebarsHelpers.registerFor(newHandlebars);
-
-    ServiceLoader.load(CustomHandlebarsHelper.class)
-        .iterator().forEachRemaining(helper -> {
-      newHandlebars.registerHelper(helper.getName(), helper);
-      LOGGER.info("Registered custom Handlebars helper: {}", helper.getName());
-    });
-
-    return newHandlebars;
-  }
 }
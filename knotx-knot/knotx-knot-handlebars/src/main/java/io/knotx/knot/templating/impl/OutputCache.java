@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.templating.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.knot.templating.HandlebarsKnotConfiguration;
+import io.knotx.knot.templating.OutputCacheConfig;
+import io.knotx.knot.templating.impl.TemplateRegistry.CompiledSnippet;
+import io.knotx.util.CacheStatsConverter;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Markup rendered by Handlebars snippets, keyed by the snippet and a hash of the fragment context
+ * it was rendered with. A template always renders the same markup for the same context, so cached
+ * markup never gets stale. Shared by all Handlebars Knot verticles listening on the same address
+ * in a Vert.x instance and bounded by the total size of the cached markup.
+ */
+public class OutputCache implements Shareable {
+
+  /**
+   * Snippet attribute enabling (<tt>"true"</tt>) or disabling (<tt>"false"</tt>) the output cache
+   * for the snippet.
+   */
+  static final String OUTPUT_CACHE_ATTRIBUTE_NAME = "data-knotx-output-cache";
+
+  private static final String SHARED_MAP_NAME = "knotx.knot.handlebars.outputCache";
+
+  private static final HashFunction CONTEXT_HASH = Hashing.murmur3_128();
+
+  private final boolean cacheAll;
+
+  private final Cache<String, String> outputs;
+
+  OutputCache(OutputCacheConfig config) {
+    this.cacheAll = config.isCacheAll();
+    this.outputs = CacheBuilder.newBuilder()
+        .maximumWeight(config.getMaximumWeight())
+        .weigher((String key, String output) -> 2 * (key.length() + output.length()))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * @return the cache shared by all Handlebars Knot verticles with the address of the given
+   * configuration, created with the configuration of the first verticle that asked for it.
+   */
+  public static OutputCache shared(Vertx vertx, HandlebarsKnotConfiguration configuration) {
+    LocalMap<String, OutputCache> map = vertx.sharedData().getLocalMap(SHARED_MAP_NAME);
+    OutputCache created = new OutputCache(configuration.getOutputCache());
+    OutputCache existing = map.putIfAbsent(configuration.address(), created);
+    return existing == null ? created : existing;
+  }
+
+  /**
+   * Returns the cached markup of the snippet rendered with the fragment context, or renders and
+   * caches it. Snippets not using the cache are always rendered.
+   *
+   * @param snippet - compiled snippet of the fragment.
+   * @param fragment - the fragment to render.
+   * @param renderer - renders the fragment.
+   * @return rendered markup.
+   */
+  String render(CompiledSnippet snippet, Fragment fragment, Supplier<String> renderer) {
+    if (!isCached(snippet)) {
+      return renderer.get();
+    }
+    String key = snippet.key() + ':' + CONTEXT_HASH
+        .hashString(fragment.context().encode(), StandardCharsets.UTF_8);
+    String output = outputs.getIfPresent(key);
+    if (output == null) {
+      output = renderer.get();
+      outputs.put(key, output);
+    }
+    return output;
+  }
+
+  /**
+   * @return hits, misses and evictions of the cache.
+   */
+  public JsonObject statistics() {
+    return CacheStatsConverter.toJsonObject(outputs.stats())
+        .put("size", outputs.size());
+  }
+
+  private boolean isCached(CompiledSnippet snippet) {
+    return snippet.outputCache() != null ? snippet.outputCache() : cacheAll;
+  }
+}
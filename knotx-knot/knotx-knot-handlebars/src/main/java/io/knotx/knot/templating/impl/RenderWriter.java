@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.templating.impl;
+
+import java.io.Writer;
+
+/**
+ * An unsynchronized {@link Writer} collecting rendered markup in a {@link StringBuilder} reused by
+ * all fragments rendered on the same thread, so the builder does not grow from scratch for each
+ * fragment. Builders that grew above {@link #MAX_RETAINED_CAPACITY} are dropped after use.
+ */
+final class RenderWriter extends Writer {
+
+  private static final int INITIAL_CAPACITY = 4 * 1024;
+
+  private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+  private static final ThreadLocal<RenderWriter> WRITERS = ThreadLocal
+      .withInitial(RenderWriter::new);
+
+  private StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+
+  private RenderWriter() {
+    //reused, see acquire()
+  }
+
+  /**
+   * @return an empty writer of the current thread.
+   */
+  static RenderWriter acquire() {
+    RenderWriter writer = WRITERS.get();
+    writer.reset();
+    return writer;
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) {
+    builder.append(cbuf, off, len);
+  }
+
+  @Override
+  public void write(int c) {
+    builder.append((char) c);
+  }
+
+  @Override
+  public void write(String str, int off, int len) {
+    builder.append(str, off, off + len);
+  }
+
+  @Override
+  public Writer append(CharSequence csq) {
+    builder.append(csq);
+    return this;
+  }
+
+  @Override
+  public void flush() {
+    //nothing to flush
+  }
+
+  @Override
+  public void close() {
+    //nothing to close
+  }
+
+  /**
+   * @return the rendered markup.
+   */
+  @Override
+  public String toString() {
+    return builder.toString();
+  }
+
+  private void reset() {
+    if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+      builder = new StringBuilder(INITIAL_CAPACITY);
+    } else {
+      builder.setLength(0);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.templating.impl;
+
+import static io.knotx.fragments.FragmentContentExtractor.abbreviate;
+import static io.knotx.fragments.FragmentContentExtractor.unwrapContent;
+import static io.knotx.knot.templating.impl.OutputCache.OUTPUT_CACHE_ATTRIBUTE_NAME;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.knot.templating.HandlebarsKnotConfiguration;
+import io.knotx.knot.templating.handlebars.CompiledJsonValueResolver;
+import io.knotx.knot.templating.handlebars.CustomHandlebarsHelper;
+import io.knotx.knot.templating.helpers.DefaultHandlebarsHelpers;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.nio.charset.StandardCharsets;
+import java.util.ServiceLoader;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled Handlebars templates shared by all Handlebars Knot verticles listening on the same
+ * address in a Vert.x instance. Templates are keyed by the fragment fingerprint assigned by the
+ * Splitter, so a snippet is compiled once per JVM, no matter how many verticle instances render
+ * it. Concurrent requests for a template being compiled wait for it instead of compiling it again.
+ * Together with the template, the registry keeps the output cache setting of the snippet.
+ */
+class TemplateRegistry implements Shareable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemplateRegistry.class);
+
+  private static final String SHARED_MAP_NAME = "knotx.knot.handlebars.templates";
+
+  private static final HashFunction FINGERPRINT = Hashing.murmur3_128();
+
+  private static final Pattern OUTPUT_CACHE_ATTRIBUTE = Pattern
+      .compile("\\s" + OUTPUT_CACHE_ATTRIBUTE_NAME + "\\s*=\\s*\"(true|false)\"");
+
+  private final Handlebars handlebars;
+
+  private final Cache<String, CompiledSnippet> templates;
+
+  TemplateRegistry(HandlebarsKnotConfiguration configuration) {
+    this.handlebars = createHandlebars();
+    this.templates = CacheBuilder.newBuilder()
+        .maximumSize(configuration.getCacheSize())
+        .removalListener(listener -> LOGGER.warn(
+            "Cache limit exceeded. If this information occurs frequently, check 'cacheSize' configuration option because your cache is too small"))
+        .build();
+  }
+
+  /**
+   * @return the registry shared by all Handlebars Knot verticles with the address of the given
+   * configuration, created with the configuration of the first verticle that asked for it.
+   */
+  static TemplateRegistry shared(Vertx vertx, HandlebarsKnotConfiguration configuration) {
+    LocalMap<String, TemplateRegistry> map = vertx.sharedData().getLocalMap(SHARED_MAP_NAME);
+    // Handlebars and its helpers are set up only by the first verticle
+    synchronized (TemplateRegistry.class) {
+      TemplateRegistry registry = map.get(configuration.address());
+      if (registry == null) {
+        registry = new TemplateRegistry(configuration);
+        map.put(configuration.address(), registry);
+      }
+      return registry;
+    }
+  }
+
+  /**
+   * @return compiled snippet of the fragment.
+   */
+  CompiledSnippet compiled(Fragment fragment) {
+    String key = key(fragment);
+    try {
+      return templates.get(key, () -> {
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Compiles Handlebars fragment [{}]", abbreviate(fragment.content()));
+        }
+        Template template = handlebars.compileInline(unwrapContent(fragment));
+        return new CompiledSnippet(key, template, CompiledJsonValueResolver.compile(template),
+            outputCacheAttribute(fragment.content()));
+      });
+    } catch (ExecutionException e) {
+      LOGGER.error("Could not compile fragment [{}]", abbreviate(fragment.content()), e);
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Fragments restored without a fingerprint (e.g. created by a custom Splitter) are keyed by a
+   * hash of their content.
+   */
+  static String key(Fragment fragment) {
+    return fragment.fingerprint() != null
+        ? fragment.fingerprint()
+        : FINGERPRINT.hashString(fragment.content(), StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * @return value of the output cache attribute of the snippet tag, <tt>null</tt> if not set.
+   */
+  private static Boolean outputCacheAttribute(String content) {
+    int tagEnd = content.indexOf('>');
+    Matcher matcher = OUTPUT_CACHE_ATTRIBUTE
+        .matcher(tagEnd < 0 ? content : content.substring(0, tagEnd));
+    return matcher.find() ? Boolean.valueOf(matcher.group(1)) : null;
+  }
+
+  private Handlebars createHandlebars() {
+    Handlebars newHandlebars = new Handlebars();
+    DefaultHandlebarsHelpers.registerFor(newHandlebars);
+
+    ServiceLoader.load(CustomHandlebarsHelper.class)
+        .iterator().forEachRemaining(helper -> {
+      newHandlebars.registerHelper(helper.getName(), helper);
+      LOGGER.info("Registered custom Handlebars helper: {}", helper.getName());
+    });
+
+    return newHandlebars;
+  }
+
+  static final class CompiledSnippet {
+
+    private final String key;
+    private final Template template;
+    private final CompiledJsonValueResolver resolver;
+    private final Boolean outputCache;
+
+    private CompiledSnippet(String key, Template template, CompiledJsonValueResolver resolver,
+        Boolean outputCache) {
+      this.key = key;
+      this.template = template;
+      this.resolver = resolver;
+      this.outputCache = outputCache;
+    }
+
+    /**
+     * @return the registry key of the snippet.
+     */
+    String key() {
+      return key;
+    }
+
+    Template template() {
+      return template;
+    }
+
+    /**
+     * @return resolver of the JSON values used by the template.
+     */
+    CompiledJsonValueResolver resolver() {
+      return resolver;
+    }
+
+    /**
+     * @return <tt>true</tt> if the snippet opted in for the output cache, <tt>false</tt> if it opted
+     * out, <tt>null</tt> if it does not declare it.
+     */
+    Boolean outputCache() {
+      return outputCache;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.handlebars;
+
+import com.github.jknack.handlebars.Context;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import io.knotx.knot.templating.handlebars.CompiledJsonValueResolver;
+import io.knotx.knot.templating.handlebars.JsonObjectValueResolver;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares rendering the people list of the performance tests with the resolver added after the
+ * default Handlebars resolvers (as the Handlebars Knot did before) and with the resolver compiled
+ * for the template. Run from the module directory with
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=io.knotx.handlebars.JsonObjectValueResolverBenchmark
+ * </pre>
+ * The data is read from the file set with the <tt>people</tt> system property,
+ * <tt>knotx-performance-tests/mocks-knotx/services/people-50.json</tt> by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JsonObjectValueResolverBenchmark {
+
+  private static final String PEOPLE = System.getProperty("people",
+      "../../knotx-performance-tests/mocks-knotx/services/people-50.json");
+
+  private static final String TEMPLATE = "<h2>{{_result.[0].firstName}} {{_result.0.lastName}}</h2>"
+      + "<ul>{{#each _result}}<li>{{this.firstName}} {{this.lastName}}, {{this.email}} "
+      + "[{{this.gender}}] {{this.language}}<p>{{this.slogan}}</p><p>{{this.bio}}</p>"
+      + "<ul>{{#each this.friends}}<li>{{this.firstName}} {{this.lastName}}</li>{{/each}}</ul>"
+      + "</li>{{/each}}</ul>";
+
+  private Template template;
+
+  private CompiledJsonValueResolver compiled;
+
+  private JsonObject model;
+
+  @Setup
+  public void setUp() throws IOException {
+    template = new Handlebars().compileInline(TEMPLATE);
+    compiled = CompiledJsonValueResolver.compile(template);
+    model = new JsonObject().put("_result",
+        new JsonArray(new String(Files.readAllBytes(Paths.get(PEOPLE)), StandardCharsets.UTF_8)));
+  }
+
+  @Benchmark
+  public String pushedResolver() throws IOException {
+    return template.apply(Context.newBuilder(model).push(JsonObjectValueResolver.INSTANCE).build());
+  }
+
+  @Benchmark
+  public String compiledResolver() throws IOException {
+    return template.apply(compiled.context(model));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(JsonObjectValueResolverBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
@@ -21,8 +21,10 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import com.github.jknack.handlebars.Context;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.ValueResolver;
 import com.google.common.io.CharStreams;
 import com.google.common.io.Resources;
+import io.knotx.knot.templating.handlebars.CompiledJsonValueResolver;
 import io.knotx.knot.templating.handlebars.JsonObjectValueResolver;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -61,6 +63,73 @@ public class JsonObjectValueResolverTest {
     assertThat(compiled, equalTo(expected));
   }
 
+  @Test
+  public void JsonObjectResolver_whenArrayIndex_expectElementResolved() throws Exception {
+    JsonArray arr = filebasedModel().getJsonObject("sample").getJsonArray("arr");
+
+    assertThat(JsonObjectValueResolver.INSTANCE.resolve(arr, "3"), equalTo("foo"));
+    assertThat(JsonObjectValueResolver.INSTANCE.resolve(arr, "[5]"), equalTo(true));
+    assertThat(JsonObjectValueResolver.INSTANCE.resolve(arr, "6"),
+        equalTo(ValueResolver.UNRESOLVED));
+    assertThat(JsonObjectValueResolver.INSTANCE.resolve(arr, "foo"),
+        equalTo(ValueResolver.UNRESOLVED));
+    assertThat(JsonObjectValueResolver.INSTANCE.resolve(arr, "[]"),
+        equalTo(ValueResolver.UNRESOLVED));
+    assertThat(JsonObjectValueResolver.INSTANCE.resolve(arr, "-1"),
+        equalTo(ValueResolver.UNRESOLVED));
+  }
+
+  @Test
+  public void JsonObjectResolver_whenNestedObject_expectJsonObjectResolved() throws Exception {
+    Object result = JsonObjectValueResolver.INSTANCE.resolve(filebasedModel(), "sample");
+
+    assertThat(((JsonObject) result).getJsonObject("result").getString("first"),
+        equalTo("First Message"));
+  }
+
+  @Test
+  public void CompiledJsonValueResolver_whenApplyingFileBasedObject_expectVariablesResolved()
+      throws Exception {
+    String compiled = template.apply(CompiledJsonValueResolver.compile(template)
+        .context(filebasedModel())).trim();
+
+    assertThat(compiled, equalTo(expected));
+  }
+
+  @Test
+  public void CompiledJsonValueResolver_whenArrayIndexInPath_expectElementResolved()
+      throws Exception {
+    JsonArray arr = filebasedModel().getJsonObject("sample").getJsonArray("arr");
+    CompiledJsonValueResolver resolver = CompiledJsonValueResolver.compile(new Handlebars()
+        .compileInline("{{sample.arr.3}} {{sample.arr.[5]}} {{sample.arr.6}}"));
+
+    assertThat(resolver.resolve(arr, "3"), equalTo("foo"));
+    assertThat(resolver.resolve(arr, "[5]"), equalTo(true));
+    assertThat(resolver.resolve(arr, "6"), equalTo(ValueResolver.UNRESOLVED));
+  }
+
+  @Test
+  public void CompiledJsonValueResolver_whenIndexNotKnownAtCompileTime_expectElementResolved()
+      throws Exception {
+    JsonArray arr = filebasedModel().getJsonObject("sample").getJsonArray("arr");
+    CompiledJsonValueResolver resolver = CompiledJsonValueResolver
+        .compile(new Handlebars().compileInline("{{message}}"));
+
+    assertThat(resolver.resolve(arr, "[3]"), equalTo("foo"));
+    assertThat(resolver.resolve(arr, "message"), equalTo(ValueResolver.UNRESOLVED));
+  }
+
+  @Test
+  public void CompiledJsonValueResolver_whenKeyNamedAsJsonObjectGetter_expectJsonValue()
+      throws Exception {
+    Template getter = new Handlebars().compileInline("{{empty}}");
+
+    String compiled = getter.apply(CompiledJsonValueResolver.compile(getter)
+        .context(new JsonObject().put("empty", "no")));
+
+    assertThat(compiled, equalTo("no"));
+  }
+
   private String readFile(String path) throws Exception {
     return CharStreams
         .toString(new InputStreamReader(Resources.getResource(path).openStream(), "UTF-8"));
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.templating.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+import io.knotx.dataobjects.Fragment;
+import io.knotx.knot.templating.HandlebarsKnotConfiguration;
+import io.knotx.knot.templating.OutputCacheConfig;
+import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class OutputCacheTest {
+
+  private static final String OPT_IN_SNIPPET = "<script data-knotx-knots=\"handlebars\" "
+      + "data-knotx-output-cache=\"true\" type=\"text/knotx-snippet\">{{message}}</script>";
+
+  private static final String OPT_OUT_SNIPPET = "<script data-knotx-knots=\"handlebars\" "
+      + "data-knotx-output-cache=\"false\" type=\"text/knotx-snippet\">{{message}}</script>";
+
+  private static final String PLAIN_SNIPPET = "<script data-knotx-knots=\"handlebars\" "
+      + "type=\"text/knotx-snippet\">{{message}}</script>";
+
+  private final TemplateRegistry registry = new TemplateRegistry(
+      new HandlebarsKnotConfiguration(new JsonObject().put("address", "handlebars")));
+
+  private final AtomicInteger renders = new AtomicInteger();
+
+  @Test
+  public void render_whenSnippetOptedInAndSameContext_expectRenderedOnce() {
+    OutputCache tested = cache(false);
+
+    render(tested, OPT_IN_SNIPPET, "hello");
+    String output = render(tested, OPT_IN_SNIPPET, "hello");
+
+    assertThat(output, equalTo("hello"));
+    assertThat(renders.get(), equalTo(1));
+    assertThat(tested.statistics().getLong("hits"), equalTo(1L));
+  }
+
+  @Test
+  public void render_whenDifferentContext_expectRenderedAgain() {
+    OutputCache tested = cache(false);
+
+    render(tested, OPT_IN_SNIPPET, "hello");
+    String output = render(tested, OPT_IN_SNIPPET, "bye");
+
+    assertThat(output, equalTo("bye"));
+    assertThat(renders.get(), equalTo(2));
+  }
+
+  @Test
+  public void render_whenSnippetDoesNotDeclareCache_expectCachedOnlyWhenCacheAll() {
+    render(cache(false), PLAIN_SNIPPET, "hello");
+    render(cache(false), PLAIN_SNIPPET, "hello");
+    assertThat(renders.getAndSet(0), equalTo(2));
+
+    OutputCache cacheAll = cache(true);
+    render(cacheAll, PLAIN_SNIPPET, "hello");
+    render(cacheAll, PLAIN_SNIPPET, "hello");
+    assertThat(renders.get(), equalTo(1));
+  }
+
+  @Test
+  public void render_whenSnippetOptedOut_expectAlwaysRendered() {
+    OutputCache tested = cache(true);
+
+    render(tested, OPT_OUT_SNIPPET, "hello");
+    render(tested, OPT_OUT_SNIPPET, "hello");
+
+    assertThat(renders.get(), equalTo(2));
+  }
+
+  private OutputCache cache(boolean cacheAll) {
+    return new OutputCache(new OutputCacheConfig(
+        new JsonObject().put("enabled", true).put("cacheAll", cacheAll)));
+  }
+
+  private String render(OutputCache cache, String content, String message) {
+    Fragment fragment = Fragment.snippet(Collections.singletonList("handlebars"), content);
+    fragment.context().put("message", message);
+    return cache.render(registry.compiled(fragment), fragment, () -> {
+      renders.incrementAndGet();
+      return message;
+    });
+  }
+}
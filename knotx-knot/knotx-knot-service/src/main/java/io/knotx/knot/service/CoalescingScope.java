@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service;
+
+/**
+ * Defines which identical Adapter calls, sent while the first one is still in flight, wait for its
+ * response instead of calling the Adapter again.
+ */
+public enum CoalescingScope {
+
+  /**
+   * Every service call is sent to the Adapter.
+   */
+  NONE,
+
+  /**
+   * Identical calls of a single Service Knot verticle instance are coalesced.
+   */
+  VERTICLE,
+
+  /**
+   * Identical calls of all Service Knot verticle instances with the same address deployed in the
+   * Vert.x instance are coalesced.
+   */
+  JVM
+}
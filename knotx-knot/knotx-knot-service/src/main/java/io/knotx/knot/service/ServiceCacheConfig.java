@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service;
+
+import io.vertx.core.json.JsonObject;
+
+public class ServiceCacheConfig {
+
+  //Default limit - 16 MB of cached service responses
+  private static final long DEFAULT_MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+  private static final long DEFAULT_STATISTICS_LOG_INTERVAL = 0;
+
+  private final long maximumWeight;
+  private final long statisticsLogInterval;
+
+  public ServiceCacheConfig(JsonObject config) {
+    maximumWeight = config.getLong("maximumWeight", DEFAULT_MAXIMUM_WEIGHT);
+    statisticsLogInterval = config
+        .getLong("statisticsLogInterval", DEFAULT_STATISTICS_LOG_INTERVAL);
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  public long getStatisticsLogInterval() {
+    return statisticsLogInterval;
+  }
+}
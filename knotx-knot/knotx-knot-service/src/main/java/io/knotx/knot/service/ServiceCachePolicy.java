@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Defines how long responses of a single configured service are shared between requests and which
+ * attributes of the client request the response depends on.
+ */
+public class ServiceCachePolicy {
+
+  private static final long DEFAULT_TTL = 0;
+  private static final boolean DEFAULT_VARY_PATH = false;
+
+  private final long ttl;
+  private final boolean varyPath;
+  private final List<String> varyHeaders;
+  private final List<String> varyParams;
+
+  public ServiceCachePolicy(JsonObject config) {
+    ttl = config.getLong("ttl", DEFAULT_TTL);
+    varyPath = config.getBoolean("varyPath", DEFAULT_VARY_PATH);
+    varyHeaders = strings(config.getJsonArray("varyHeaders", new JsonArray()));
+    varyParams = strings(config.getJsonArray("varyParams", new JsonArray()));
+  }
+
+  /**
+   * @return <tt>true</tt> if responses of the service are cached.
+   */
+  public boolean isEnabled() {
+    return ttl > 0;
+  }
+
+  public long getTtl() {
+    return ttl;
+  }
+
+  public boolean isVaryPath() {
+    return varyPath;
+  }
+
+  public List<String> getVaryHeaders() {
+    return varyHeaders;
+  }
+
+  public List<String> getVaryParams() {
+    return varyParams;
+  }
+
+  private static List<String> strings(JsonArray array) {
+    return array.stream().map(String::valueOf).collect(Collectors.toList());
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.knotx.knot.service;
 
+import io.knotx.codec.EventBusCodec;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.json.JsonObject;
 import java.util.List;
@@ -27,7 +28,9 @@ public class ServiceKnotConfiguration {
   private final String address;
   private List<ServiceMetadata> services;
   private DeliveryOptions deliveryOptions;
-
+  private EventBusCodec eventBusCodec;
+  private ServiceCacheConfig serviceCache;
+  private CoalescingScope coalescingScope;
 
   public ServiceKnotConfiguration(JsonObject config) {
     address = config.getString("address");
@@ -39,11 +42,17 @@ public class ServiceKnotConfiguration {
           metadata.address = item.getString("address");
           metadata.params = item.getJsonObject("params");
           metadata.cacheKey = item.getString("cacheKey");
+          metadata.cachePolicy = new ServiceCachePolicy(
+              item.getJsonObject("cache", new JsonObject()));
           return metadata;
         }).collect(Collectors.toList());
     deliveryOptions =
         config.containsKey("deliveryOptions") ? new DeliveryOptions(config.getJsonObject("deliveryOptions"))
             : new DeliveryOptions();
+    eventBusCodec = EventBusCodec.from(config);
+    serviceCache = new ServiceCacheConfig(config.getJsonObject("serviceCache", new JsonObject()));
+    coalescingScope = CoalescingScope
+        .valueOf(config.getString("coalescingScope", CoalescingScope.NONE.name()).toUpperCase());
   }
 
   public List<ServiceMetadata> getServices() {
@@ -58,12 +67,25 @@ public class ServiceKnotConfiguration {
     return deliveryOptions;
   }
 
+  public EventBusCodec getEventBusCodec() {
+    return eventBusCodec;
+  }
+
+  public ServiceCacheConfig getServiceCache() {
+    return serviceCache;
+  }
+
+  public CoalescingScope getCoalescingScope() {
+    return coalescingScope;
+  }
+
   public static class ServiceMetadata {
 
     private String name;
     private String address;
     private JsonObject params;
     private String cacheKey;
+    private ServiceCachePolicy cachePolicy = new ServiceCachePolicy(new JsonObject());
 
     @Override
     public boolean equals(Object obj) {
@@ -120,5 +142,13 @@ public class ServiceKnotConfiguration {
     void setCacheKey(String cacheKey) {
       this.cacheKey = cacheKey;
     }
+
+    public ServiceCachePolicy getCachePolicy() {
+      return cachePolicy;
+    }
+
+    void setCachePolicy(ServiceCachePolicy cachePolicy) {
+      this.cachePolicy = cachePolicy;
+    }
   }
 }
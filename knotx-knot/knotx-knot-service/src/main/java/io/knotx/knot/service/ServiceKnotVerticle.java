@@ -15,16 +15,17 @@
  */
 package io.knotx.knot.service;
 
+import io.knotx.codec.CodecServiceBinder;
 import io.knotx.knot.service.impl.ServiceKnotProxyImpl;
+import io.knotx.knot.service.service.ServiceResponseCache;
 import io.knotx.proxy.KnotProxy;
+import io.knotx.util.CacheStatisticsLogger;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.AbstractVerticle;
-import io.vertx.serviceproxy.ServiceBinder;
 
 public class ServiceKnotVerticle extends AbstractVerticle {
 
@@ -32,9 +33,11 @@ public class ServiceKnotVerticle extends AbstractVerticle {
 
   private ServiceKnotConfiguration configuration;
 
-  private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<Object> consumer;
 
-  private ServiceBinder serviceBinder;
+  private CodecServiceBinder serviceBinder;
+
+  private long statisticsTimerId = -1;
 
   @Override
   public void init(Vertx vertx, Context context) {
@@ -47,14 +50,24 @@ public class ServiceKnotVerticle extends AbstractVerticle {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
 
     //register the service proxy on event bus
-    serviceBinder = new ServiceBinder(getVertx());
+    serviceBinder = new CodecServiceBinder(getVertx());
     consumer = serviceBinder
         .setAddress(configuration.getAddress())
         .register(KnotProxy.class, new ServiceKnotProxyImpl(vertx, configuration));
+
+    long interval = configuration.getServiceCache().getStatisticsLogInterval();
+    if (interval > 0) {
+      ServiceResponseCache responseCache = ServiceResponseCache.shared(vertx, configuration);
+      statisticsTimerId = CacheStatisticsLogger.start(vertx.getDelegate(), LOGGER,
+          "Service response cache", responseCache, interval, responseCache::statistics);
+    }
   }
 
   @Override
   public void stop() throws Exception {
+    if (statisticsTimerId != -1) {
+      vertx.cancelTimer(statisticsTimerId);
+    }
     serviceBinder.unregister(consumer);
   }
 }
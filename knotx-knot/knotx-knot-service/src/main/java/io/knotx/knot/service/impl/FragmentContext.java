@@ -15,24 +15,33 @@
  */
 package io.knotx.knot.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.knotx.dataobjects.Fragment;
 import io.knotx.knot.service.service.ServiceAttributeUtil;
 import io.knotx.knot.service.service.ServiceEntry;
 import io.reactivex.Observable;
-import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Attribute;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 
 class FragmentContext {
 
-  private static final String DATA_SERVICE = "data-knotx-service.*";
-  private static final String DATA_PARAMS = "data-knotx-params.*";
+  private static final String DATA_SERVICE = "data-knotx-service";
+  private static final String DATA_PARAMS = "data-knotx-params";
+
+  private static final long MAX_CACHED_SNIPPETS = 10_000;
+
+  /**
+   * Services defined by snippets, keyed by the fragment fingerprint. Entries are never modified,
+   * {@link io.knotx.knot.service.service.ServiceEngine#mergeWithConfiguration(ServiceEntry)}
+   * returns new ones.
+   */
+  private static final Cache<String, List<ServiceEntry>> DEFINITIONS = CacheBuilder.newBuilder()
+      .maximumSize(MAX_CACHED_SNIPPETS)
+      .build();
 
   private Fragment fragment;
   List<ServiceEntry> services;
@@ -43,37 +52,45 @@ class FragmentContext {
 
   /**
    * Factory method that creates context from the {@link Fragment}. All services and params are
-   * extracted to separate entries.
+   * extracted to separate entries. Services of a fragment with a fingerprint are parsed once and
+   * shared afterwards.
    *
    * @param fragment - fragment from which the context will be created.
    * @return a FragmentContext that wraps given fragment.
    */
   public static FragmentContext from(Fragment fragment) {
-    Document document = Jsoup.parseBodyFragment(fragment.content());
-    Element scriptTag = document.body().child(0);
+    List<ServiceEntry> definitions = fragment.fingerprint() == null
+        ? null : DEFINITIONS.getIfPresent(fragment.fingerprint());
+    if (definitions == null) {
+      definitions = parse(fragment.content());
+      if (fragment.fingerprint() != null) {
+        DEFINITIONS.put(fragment.fingerprint(), definitions);
+      }
+    }
 
-    List<Attribute> attributes = scriptTag.attributes().asList();
+    return new FragmentContext()
+        .fragment(fragment)
+        .services(definitions);
+  }
 
-    Map<String, Attribute> serviceAttributes = attributes.stream()
-        .filter(attribute -> attribute.getKey().matches(DATA_SERVICE))
-        .collect(Collectors
-            .toMap(attribute -> ServiceAttributeUtil.extractNamespace(attribute.getKey()),
-                Function.identity()));
+  private static List<ServiceEntry> parse(String content) {
+    Map<String, String> attributes = SnippetTagScanner.attributes(content);
 
-    Map<String, Attribute> paramsAttributes = attributes.stream()
-        .filter(attribute -> attribute.getKey().matches(DATA_PARAMS))
-        .collect(Collectors
-            .toMap(attribute -> ServiceAttributeUtil.extractNamespace(attribute.getKey()),
-                Function.identity()));
+    Map<String, String> paramsAttributes = new HashMap<>();
+    attributes.forEach((name, value) -> {
+      if (name.startsWith(DATA_PARAMS)) {
+        paramsAttributes.put(ServiceAttributeUtil.extractNamespace(name), value);
+      }
+    });
 
-    return new FragmentContext()
-        .fragment(fragment)
-        .services(
-            serviceAttributes.entrySet().stream()
-                .map(entry -> new ServiceEntry(entry.getValue(),
-                    paramsAttributes.get(entry.getKey())))
-                .collect(Collectors.toList())
-        );
+    List<ServiceEntry> services = new ArrayList<>();
+    attributes.forEach((name, value) -> {
+      if (name.startsWith(DATA_SERVICE)) {
+        services.add(new ServiceEntry(name, value,
+            paramsAttributes.get(ServiceAttributeUtil.extractNamespace(name))));
+      }
+    });
+    return Collections.unmodifiableList(services);
   }
 
   /**
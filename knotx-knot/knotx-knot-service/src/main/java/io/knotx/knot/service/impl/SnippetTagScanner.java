@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads attributes of the opening tag of a snippet in a single pass, without building a document
+ * for the whole snippet. Attribute names are lower cased and values are unquoted and have basic
+ * character references decoded, the same way an HTML parser reads them. The first of repeated
+ * attributes wins.
+ */
+final class SnippetTagScanner {
+
+  private SnippetTagScanner() {
+    //util class
+  }
+
+  /**
+   * @param content - snippet markup.
+   * @return attributes of the first tag in the markup, in the order of their appearance.
+   */
+  static Map<String, String> attributes(String content) {
+    Map<String, String> attributes = new LinkedHashMap<>();
+    int length = content.length();
+    int pos = content.indexOf('<');
+    if (pos < 0) {
+      return attributes;
+    }
+    pos++;
+    while (pos < length && !isNameEnd(content.charAt(pos))) {
+      pos++;
+    }
+    while (true) {
+      while (pos < length && (isWhitespace(content.charAt(pos)) || content.charAt(pos) == '/')) {
+        pos++;
+      }
+      if (pos >= length || content.charAt(pos) == '>') {
+        return attributes;
+      }
+      int nameStart = pos;
+      while (pos < length && !isNameEnd(content.charAt(pos)) && content.charAt(pos) != '=') {
+        pos++;
+      }
+      if (pos == nameStart) {
+        // a stray '=', skip it
+        pos++;
+        continue;
+      }
+      String name = content.substring(nameStart, pos).toLowerCase(Locale.ENGLISH);
+      pos = skipWhitespaces(content, pos);
+
+      String value = "";
+      if (pos < length && content.charAt(pos) == '=') {
+        pos = skipWhitespaces(content, pos + 1);
+        if (pos < length && (content.charAt(pos) == '"' || content.charAt(pos) == '\'')) {
+          int closing = content.indexOf(content.charAt(pos), pos + 1);
+          int valueEnd = closing < 0 ? length : closing;
+          value = content.substring(pos + 1, valueEnd);
+          pos = valueEnd + 1;
+        } else {
+          int valueStart = pos;
+          while (pos < length && !isWhitespace(content.charAt(pos))
+              && content.charAt(pos) != '>') {
+            pos++;
+          }
+          value = content.substring(valueStart, pos);
+        }
+      }
+      attributes.putIfAbsent(name, decode(value));
+    }
+  }
+
+  /**
+   * Decodes the <tt>&amp;amp;</tt>, <tt>&amp;lt;</tt>, <tt>&amp;gt;</tt>, <tt>&amp;quot;</tt>,
+   * <tt>&amp;apos;</tt> and numeric character references. Other references are left untouched.
+   */
+  static String decode(String value) {
+    int amp = value.indexOf('&');
+    if (amp < 0) {
+      return value;
+    }
+    StringBuilder decoded = new StringBuilder(value.length());
+    decoded.append(value, 0, amp);
+    int pos = amp;
+    while (pos < value.length()) {
+      char c = value.charAt(pos);
+      int semicolon = c == '&' ? value.indexOf(';', pos) : -1;
+      String replacement = semicolon < 0 ? null : reference(value.substring(pos + 1, semicolon));
+      if (replacement == null) {
+        decoded.append(c);
+        pos++;
+      } else {
+        decoded.append(replacement);
+        pos = semicolon + 1;
+      }
+    }
+    return decoded.toString();
+  }
+
+  private static String reference(String name) {
+    switch (name) {
+      case "amp":
+        return "&";
+      case "lt":
+        return "<";
+      case "gt":
+        return ">";
+      case "quot":
+        return "\"";
+      case "apos":
+        return "'";
+      default:
+        return numericReference(name);
+    }
+  }
+
+  private static String numericReference(String name) {
+    if (name.length() < 2 || name.charAt(0) != '#') {
+      return null;
+    }
+    boolean hex = name.charAt(1) == 'x' || name.charAt(1) == 'X';
+    try {
+      int codePoint = Integer.parseInt(name.substring(hex ? 2 : 1), hex ? 16 : 10);
+      return Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint))
+          : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static int skipWhitespaces(String content, int position) {
+    int pos = position;
+    while (pos < content.length() && isWhitespace(content.charAt(pos))) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static boolean isNameEnd(char c) {
+    return isWhitespace(c) || c == '>' || c == '/';
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service.service;
+
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.reactivex.core.Vertx;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service calls that are currently waiting for the Adapter response. An identical call subscribed
+ * before the response comes joins the one in flight, so the Adapter is called only once and the
+ * result is delivered to all callers.
+ */
+public class InFlightServiceCalls implements Shareable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(InFlightServiceCalls.class);
+
+  private static final String SHARED_MAP_NAME = "knotx.knot.service.inFlightCalls";
+
+  private final Map<String, Single<JsonObject>> calls = new ConcurrentHashMap<>();
+
+  InFlightServiceCalls() {
+    //calls of a single verticle instance
+  }
+
+  /**
+   * @return calls shared by all Service Knot verticles listening on the given address.
+   */
+  static InFlightServiceCalls shared(Vertx vertx, String address) {
+    LocalMap<String, InFlightServiceCalls> map = vertx.getDelegate().sharedData()
+        .getLocalMap(SHARED_MAP_NAME);
+    InFlightServiceCalls created = new InFlightServiceCalls();
+    InFlightServiceCalls existing = map.putIfAbsent(address, created);
+    return existing == null ? created : existing;
+  }
+
+  /**
+   * @param key - identifies identical calls.
+   * @param call - the Adapter call, subscribed only if there is no identical call in flight.
+   * @return result of the call in flight, the same object is delivered to all callers.
+   */
+  Single<JsonObject> join(String key, Single<JsonObject> call) {
+    return Single.defer(() -> {
+      Single<JsonObject> created = call
+          .doFinally(() -> calls.remove(key))
+          .cache();
+      Single<JsonObject> inFlight = calls.putIfAbsent(key, created);
+      if (inFlight != null) {
+        LOGGER.debug("Joined the call in flight {}", key);
+        return inFlight;
+      }
+      return created;
+    });
+  }
+
+  int size() {
+    return calls.size();
+  }
+}
@@ -17,18 +17,22 @@ package io.knotx.knot.service.service;
 
 import io.knotx.dataobjects.AdapterRequest;
 import io.knotx.dataobjects.AdapterResponse;
+import io.knotx.dataobjects.ClientRequest;
 import io.knotx.dataobjects.KnotContext;
 import io.knotx.knot.service.ServiceKnotConfiguration;
 import io.knotx.reactivex.proxy.AdapterProxy;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.reactivex.Scheduler;
 import io.reactivex.Single;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.RxHelper;
 import io.vertx.reactivex.core.Vertx;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.StringUtils;
 
 public class ServiceEngine {
@@ -38,19 +42,47 @@ public class ServiceEngine {
   private static final String RESULT_NAMESPACE_KEY = "_result";
   private static final String RESPONSE_NAMESPACE_KEY = "_response";
 
+  private static final int MAX_MERGED_ENTRIES = 10_000;
+
   private final ServiceKnotConfiguration configuration;
 
+  private final ServiceRegistry registry;
+
+  private final Map<ServiceEntry, ServiceEntry> mergedEntries = new ConcurrentHashMap<>();
+
   private final Map<String, AdapterProxy> adapters;
 
+  private final ServiceResponseCache responseCache;
+
+  private final InFlightServiceCalls inFlightCalls;
+
+  private final Scheduler scheduler;
+
   public ServiceEngine(Vertx vertx, ServiceKnotConfiguration serviceConfiguration) {
     this.configuration = serviceConfiguration;
+    this.registry = new ServiceRegistry(serviceConfiguration.getServices());
+    this.responseCache = ServiceResponseCache.shared(vertx, serviceConfiguration);
+    switch (serviceConfiguration.getCoalescingScope()) {
+      case VERTICLE:
+        this.inFlightCalls = new InFlightServiceCalls();
+        this.scheduler = null;
+        break;
+      case JVM:
+        this.inFlightCalls = InFlightServiceCalls.shared(vertx, serviceConfiguration.getAddress());
+        // results of calls started by other verticles come on their event loops
+        this.scheduler = RxHelper.scheduler(vertx.getOrCreateContext());
+        break;
+      default:
+        this.inFlightCalls = null;
+        this.scheduler = null;
+    }
     this.adapters = new HashMap<>();
     this.configuration.getServices().stream().forEach(
         service -> adapters.put(service.getAddress(),
-            AdapterProxy.createProxyWithOptions(
-                vertx,
+            AdapterProxy.newInstance(configuration.getEventBusCodec().adapterProxy(
+                vertx.getDelegate(),
                 service.getAddress(),
-                configuration.getDeliveryOptions())
+                configuration.getDeliveryOptions()))
         )
     );
   }
@@ -60,22 +92,86 @@ public class ServiceEngine {
         .setRequest(knotContext.getClientRequest())
         .setParams(serviceEntry.getParams());
 
-    return adapters.get(serviceEntry.getAddress()).rxProcess(adapterRequest)
-        .map(resp -> buildResultObject(adapterRequest, resp));
+    final String cacheKey;
+    if (serviceEntry.getCachePolicy().isEnabled()) {
+      cacheKey = responseCache.key(serviceEntry, knotContext.getClientRequest());
+      JsonObject cached = responseCache.get(serviceEntry, cacheKey);
+      if (cached != null) {
+        LOGGER.debug("Service {} response taken from cache", serviceEntry.getName());
+        return Single.just(cached);
+      }
+    } else {
+      cacheKey = null;
+    }
+
+    Single<JsonObject> call = adapters.get(serviceEntry.getAddress()).rxProcess(adapterRequest)
+        .map(resp -> {
+          JsonObject result = buildResultObject(adapterRequest, resp);
+          // error responses are not shared, the next request asks the service again
+          if (cacheKey != null
+              && resp.getResponse().getStatusCode() == HttpResponseStatus.OK.code()) {
+            responseCache.put(serviceEntry, cacheKey, result, resp.getResponse().getBody().length());
+          }
+          return result;
+        });
+    return coalesce(serviceEntry, adapterRequest, cacheKey, call);
+  }
+
+  /**
+   * Joins the identical call in flight, if there is one. Calls of services with a cache policy are
+   * identical when their response cache keys are equal, other calls when the whole Adapter requests
+   * are equal.
+   */
+  private Single<JsonObject> coalesce(ServiceEntry serviceEntry, AdapterRequest adapterRequest,
+      String cacheKey, Single<JsonObject> call) {
+    if (inFlightCalls == null) {
+      return call;
+    }
+    String key = cacheKey != null ? cacheKey : adapterRequestKey(serviceEntry, adapterRequest);
+    // every caller gets its own copy, as results are merged into Fragment contexts
+    Single<JsonObject> result = inFlightCalls.join(key, call).map(JsonObject::copy);
+    return scheduler == null ? result : result.observeOn(scheduler);
   }
 
+  private String adapterRequestKey(ServiceEntry serviceEntry, AdapterRequest adapterRequest) {
+    ClientRequest request = adapterRequest.getRequest();
+    StringBuilder key = new StringBuilder(serviceEntry.getAddress())
+        .append('|').append(adapterRequest.getParams().encode())
+        .append('|').append(request.getMethod())
+        .append('|').append(request.getPath());
+    request.getHeaders().getDelegate().entries().forEach(
+        entry -> key.append("|h:").append(entry.getKey()).append('=').append(entry.getValue()));
+    request.getParams().getDelegate().entries().forEach(
+        entry -> key.append("|q:").append(entry.getKey()).append('=').append(entry.getValue()));
+    return key.toString();
+  }
+
+  /**
+   * Merges the service defined in a snippet with its configuration. Merged entries are memoized per
+   * snippet definition, so each request gets a copy of the entry merged once.
+   *
+   * @param serviceEntry - service defined in a snippet, not modified.
+   * @return a new entry with the configured address, default params and cache settings.
+   */
   public ServiceEntry mergeWithConfiguration(final ServiceEntry serviceEntry) {
-    Optional<ServiceKnotConfiguration.ServiceMetadata> serviceMetadata = configuration.getServices()
-        .stream()
-        .filter(service -> serviceEntry.getName().matches(service.getName()))
-        .findFirst();
+    ServiceEntry merged = mergedEntries.get(serviceEntry);
+    if (merged == null) {
+      merged = merge(serviceEntry);
+      if (mergedEntries.size() < MAX_MERGED_ENTRIES) {
+        mergedEntries.put(new ServiceEntry(serviceEntry), merged);
+      }
+    }
+    return new ServiceEntry(merged);
+  }
 
-    return serviceMetadata.map(
+  private ServiceEntry merge(ServiceEntry serviceEntry) {
+    return registry.resolve(serviceEntry.getName()).map(
         metadata ->
             new ServiceEntry(serviceEntry)
                 .setAddress(metadata.getAddress())
                 .mergeParams(metadata.getParams())
-                .setCacheKey(metadata.getCacheKey()))
+                .setCacheKey(metadata.getCacheKey())
+                .setCachePolicy(metadata.getCachePolicy()))
         .orElseThrow(() -> {
           LOGGER.error("Missing service configuration for: {}", serviceEntry.getName());
           return new IllegalStateException("Missing service configuration");
@@ -16,6 +16,7 @@
 package io.knotx.knot.service.service;
 
 
+import io.knotx.knot.service.ServiceCachePolicy;
 import io.vertx.core.json.JsonObject;
 import java.util.Objects;
 import org.apache.commons.lang3.StringUtils;
@@ -24,11 +25,14 @@ import org.jsoup.nodes.Attribute;
 
 public class ServiceEntry {
 
+  private static final ServiceCachePolicy NO_CACHE = new ServiceCachePolicy(new JsonObject());
+
   private String namespace;
   private String name;
   private String address;
   private String cacheKey;
   private JsonObject params;
+  private ServiceCachePolicy cachePolicy = NO_CACHE;
 
   public ServiceEntry(ServiceEntry serviceEntry) {
     this.namespace = serviceEntry.namespace;
@@ -36,12 +40,24 @@ public class ServiceEntry {
     this.address = serviceEntry.address;
     this.cacheKey = serviceEntry.cacheKey;
     this.params = serviceEntry.params.copy();
+    this.cachePolicy = serviceEntry.cachePolicy;
   }
 
   public ServiceEntry(Attribute serviceAttribute, Attribute paramsAttribute) {
-    this.namespace = ServiceAttributeUtil.extractNamespace(serviceAttribute.getKey());
-    this.name = serviceAttribute.getValue();
-    this.params = getParams(paramsAttribute);
+    this(serviceAttribute.getKey(), serviceAttribute.getValue(),
+        paramsAttribute == null ? null : paramsAttribute.getValue());
+  }
+
+  /**
+   * @param serviceAttributeName - name of the snippet attribute defining the service, e.g.
+   * <tt>data-knotx-service-first</tt>.
+   * @param serviceName - value of the attribute, the name of the service.
+   * @param params - value of the matching params attribute, <tt>null</tt> if not defined.
+   */
+  public ServiceEntry(String serviceAttributeName, String serviceName, String params) {
+    this.namespace = ServiceAttributeUtil.extractNamespace(serviceAttributeName);
+    this.name = serviceName;
+    this.params = StringUtils.isEmpty(params) ? new JsonObject() : new JsonObject(params);
     this.cacheKey = String.format("%s|%s", getName(), getParams());
   }
 
@@ -84,6 +100,19 @@ public class ServiceEntry {
     return params;
   }
 
+  /**
+   * @return policy of sharing the service responses between requests, taken from the service
+   * configuration.
+   */
+  public ServiceCachePolicy getCachePolicy() {
+    return cachePolicy;
+  }
+
+  ServiceEntry setCachePolicy(ServiceCachePolicy cachePolicy) {
+    this.cachePolicy = cachePolicy;
+    return this;
+  }
+
   public JsonObject getResultWithNamespaceAsKey(JsonObject result) {
     if (StringUtils.isNotEmpty(namespace)) {
       return new JsonObject().put(namespace, result);
@@ -113,14 +142,4 @@ public class ServiceEntry {
     return Objects.hash(namespace, name, cacheKey, params);
   }
 
-  private JsonObject getParams(Attribute paramsAttribute) {
-    final JsonObject result;
-    if (paramsAttribute == null || StringUtils.isEmpty(paramsAttribute.getValue())) {
-      result = new JsonObject();
-    } else {
-      result = new JsonObject(paramsAttribute.getValue());
-    }
-    return result;
-  }
-
 }
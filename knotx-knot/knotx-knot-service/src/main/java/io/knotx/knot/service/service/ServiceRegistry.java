@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service.service;
+
+import io.knotx.knot.service.ServiceKnotConfiguration.ServiceMetadata;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves service names used in snippets to the configured services. Configured names are
+ * compiled once: literal names are looked up in a hash map and only names containing regular
+ * expression constructs are matched as patterns. As before, the first configured service whose
+ * name matches wins. Resolved names are memoized, so each distinct name is matched once.
+ */
+class ServiceRegistry {
+
+  private static final int MAX_RESOLVED_NAMES = 10_000;
+
+  private static final Pattern REGEX_CONSTRUCT = Pattern.compile("[\\\\.\\[\\]{}()*+?^$|]");
+
+  private final Map<String, Integer> literals = new HashMap<>();
+
+  private final List<CompiledService> patterns = new ArrayList<>();
+
+  private final List<ServiceMetadata> services;
+
+  private final Map<String, Optional<ServiceMetadata>> resolved = new ConcurrentHashMap<>();
+
+  ServiceRegistry(List<ServiceMetadata> services) {
+    this.services = services;
+    for (int i = 0; i < services.size(); i++) {
+      String name = services.get(i).getName();
+      if (REGEX_CONSTRUCT.matcher(name).find()) {
+        patterns.add(new CompiledService(i, Pattern.compile(name)));
+      } else {
+        literals.putIfAbsent(name, i);
+      }
+    }
+  }
+
+  /**
+   * @param name - name of the service used in a snippet.
+   * @return the first configured service whose name matches, empty if there is none.
+   */
+  Optional<ServiceMetadata> resolve(String name) {
+    Optional<ServiceMetadata> metadata = resolved.get(name);
+    if (metadata == null) {
+      metadata = lookup(name);
+      if (resolved.size() < MAX_RESOLVED_NAMES) {
+        resolved.put(name, metadata);
+      }
+    }
+    return metadata;
+  }
+
+  private Optional<ServiceMetadata> lookup(String name) {
+    int first = literals.getOrDefault(name, services.size());
+    for (CompiledService service : patterns) {
+      if (service.index > first) {
+        break;
+      }
+      if (service.pattern.matcher(name).matches()) {
+        first = service.index;
+        break;
+      }
+    }
+    return first < services.size() ? Optional.of(services.get(first)) : Optional.empty();
+  }
+
+  private static class CompiledService {
+
+    private final int index;
+    private final Pattern pattern;
+
+    CompiledService(int index, Pattern pattern) {
+      this.index = index;
+      this.pattern = pattern;
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.knot.service.ServiceCachePolicy;
+import io.knotx.knot.service.ServiceKnotConfiguration;
+import io.knotx.util.CacheStatsConverter;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.reactivex.core.MultiMap;
+import io.vertx.reactivex.core.Vertx;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service responses shared between requests by all Service Knot verticles listening on the same
+ * address in a Vert.x instance. Each configured service has its own TTL, the whole cache is
+ * bounded by the total size of the cached response payloads.
+ */
+public class ServiceResponseCache implements Shareable {
+
+  private static final String SHARED_MAP_NAME = "knotx.knot.service.responseCache";
+
+  private final Cache<String, CachedResponse> responses;
+
+  private final Map<String, ServiceStatistics> statistics = new ConcurrentHashMap<>();
+
+  ServiceResponseCache(ServiceKnotConfiguration configuration) {
+    long maximumTtl = configuration.getServices().stream()
+        .mapToLong(service -> service.getCachePolicy().getTtl())
+        .max()
+        .orElse(0);
+    this.responses = CacheBuilder.newBuilder()
+        .maximumWeight(configuration.getServiceCache().getMaximumWeight())
+        .weigher((String key, CachedResponse response) -> key.length() + response.weight)
+        .expireAfterWrite(Math.max(maximumTtl, 1), TimeUnit.MILLISECONDS)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * @return the cache shared by all Service Knot verticles with the address of the given
+   * configuration, created with the configuration of the first verticle that asked for it.
+   */
+  public static ServiceResponseCache shared(Vertx vertx, ServiceKnotConfiguration configuration) {
+    LocalMap<String, ServiceResponseCache> map = vertx.getDelegate().sharedData()
+        .getLocalMap(SHARED_MAP_NAME);
+    ServiceResponseCache created = new ServiceResponseCache(configuration);
+    ServiceResponseCache existing = map.putIfAbsent(configuration.getAddress(), created);
+    return existing == null ? created : existing;
+  }
+
+  /**
+   * Response key consists of the service cache key and the client request attributes listed in the
+   * service cache policy.
+   */
+  String key(ServiceEntry serviceEntry, ClientRequest clientRequest) {
+    ServiceCachePolicy policy = serviceEntry.getCachePolicy();
+    StringBuilder key = new StringBuilder(serviceEntry.getAddress())
+        .append('|').append(serviceEntry.getCacheKey());
+    if (policy.isVaryPath()) {
+      key.append("|p:").append(clientRequest.getPath());
+    }
+    if (!policy.getVaryHeaders().isEmpty()) {
+      MultiMap headers = clientRequest.getHeaders();
+      policy.getVaryHeaders().forEach(name -> key.append("|h:").append(name).append('=')
+          .append(String.join(",", headers.getAll(name))));
+    }
+    if (!policy.getVaryParams().isEmpty()) {
+      MultiMap params = clientRequest.getParams();
+      policy.getVaryParams().forEach(name -> key.append("|q:").append(name).append('=')
+          .append(String.join(",", params.getAll(name))));
+    }
+    return key.toString();
+  }
+
+  /**
+   * @return a copy of the cached service result or <tt>null</tt> if there is no fresh one.
+   */
+  JsonObject get(ServiceEntry serviceEntry, String key) {
+    CachedResponse response = responses.getIfPresent(key);
+    if (response != null && response.expiresAt <= System.currentTimeMillis()) {
+      responses.invalidate(key);
+      response = null;
+    }
+    ServiceStatistics serviceStatistics = statistics(serviceEntry);
+    if (response == null) {
+      serviceStatistics.misses.increment();
+      return null;
+    }
+    serviceStatistics.hits.increment();
+    return response.result.copy();
+  }
+
+  void put(ServiceEntry serviceEntry, String key, JsonObject result, int payloadSize) {
+    responses.put(key, new CachedResponse(result.copy(), payloadSize,
+        System.currentTimeMillis() + serviceEntry.getCachePolicy().getTtl()));
+  }
+
+  /**
+   * @return overall cache statistics with hits and misses per service.
+   */
+  public JsonObject statistics() {
+    JsonObject services = new JsonObject();
+    statistics.forEach((name, serviceStatistics) -> services.put(name, serviceStatistics.toJson()));
+    return CacheStatsConverter.toJsonObject(responses.stats())
+        .put("size", responses.size())
+        .put("services", services);
+  }
+
+  private ServiceStatistics statistics(ServiceEntry serviceEntry) {
+    return statistics.computeIfAbsent(serviceEntry.getName(), name -> new ServiceStatistics());
+  }
+
+  private static class CachedResponse {
+
+    private final JsonObject result;
+    private final int weight;
+    private final long expiresAt;
+
+    private CachedResponse(JsonObject result, int weight, long expiresAt) {
+      this.result = result;
+      this.weight = weight;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private static class ServiceStatistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private JsonObject toJson() {
+      long requests = hits.sum() + misses.sum();
+      return new JsonObject()
+          .put("requests", requests)
+          .put("hits", hits.sum())
+          .put("misses", misses.sum())
+          .put("hitRate", requests == 0 ? 1.0 : (double) hits.sum() / requests);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service.impl;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Map;
+import org.junit.Test;
+
+public class SnippetTagScannerTest {
+
+  @Test
+  public void attributes_whenMixedQuotes_expectUnquotedValues() {
+    Map<String, String> attributes = SnippetTagScanner.attributes(
+        "<script data-knotx-knots=\"services\"\n  data-knotx-params='{\"path\":\"/path\"}'"
+            + " type=text/knotx-snippet><h2 class=\"title\">{{message}}</h2></script>");
+
+    assertThat(attributes.size(), equalTo(3));
+    assertThat(attributes.get("data-knotx-knots"), equalTo("services"));
+    assertThat(attributes.get("data-knotx-params"), equalTo("{\"path\":\"/path\"}"));
+    assertThat(attributes.get("type"), equalTo("text/knotx-snippet"));
+  }
+
+  @Test
+  public void attributes_whenUpperCaseNameAndRepeatedAttribute_expectFirstLowerCased() {
+    Map<String, String> attributes = SnippetTagScanner.attributes(
+        "<script DATA-KNOTX-SERVICE=\"first\" data-knotx-service=\"second\"></script>");
+
+    assertThat(attributes.size(), equalTo(1));
+    assertThat(attributes.get("data-knotx-service"), equalTo("first"));
+  }
+
+  @Test
+  public void attributes_whenCharacterReferences_expectDecodedValue() {
+    Map<String, String> attributes = SnippetTagScanner.attributes(
+        "<script data-knotx-params=\"{&quot;a&quot;:&#34;b&#x26;c&quot;} &unknown;\"></script>");
+
+    assertThat(attributes.get("data-knotx-params"), equalTo("{\"a\":\"b&c\"} &unknown;"));
+  }
+
+  @Test
+  public void attributes_whenAttributeWithoutValue_expectEmptyValue() {
+    Map<String, String> attributes = SnippetTagScanner.attributes("<script async></script>");
+
+    assertThat(attributes.get("async"), equalTo(""));
+  }
+}
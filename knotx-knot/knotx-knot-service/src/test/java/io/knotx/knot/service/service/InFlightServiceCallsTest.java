@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service.service;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.SingleSubject;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InFlightServiceCallsTest {
+
+  private InFlightServiceCalls tested;
+
+  private AtomicInteger adapterCalls;
+
+  private SingleSubject<JsonObject> response;
+
+  @Before
+  public void setUp() {
+    tested = new InFlightServiceCalls();
+    adapterCalls = new AtomicInteger();
+    response = SingleSubject.create();
+  }
+
+  @Test
+  public void join_whenIdenticalCallInFlight_expectSingleAdapterCall() {
+    TestObserver<JsonObject> first = tested.join("key", adapterCall()).test();
+    TestObserver<JsonObject> second = tested.join("key", adapterCall()).test();
+
+    response.onSuccess(new JsonObject().put("result", "ok"));
+
+    assertThat(adapterCalls.get(), equalTo(1));
+    first.assertValue(new JsonObject().put("result", "ok"));
+    second.assertValue(new JsonObject().put("result", "ok"));
+    assertThat(tested.size(), equalTo(0));
+  }
+
+  @Test
+  public void join_whenDifferentKeys_expectSeparateAdapterCalls() {
+    tested.join("first", adapterCall()).test();
+    tested.join("second", adapterCall()).test();
+
+    assertThat(adapterCalls.get(), equalTo(2));
+  }
+
+  @Test
+  public void join_whenCallFinished_expectNextCallSentToAdapter() {
+    tested.join("key", adapterCall()).test();
+    response.onError(new IllegalStateException("Adapter failure"));
+    response = SingleSubject.create();
+    tested.join("key", adapterCall()).test();
+
+    assertThat(adapterCalls.get(), equalTo(2));
+  }
+
+  private Single<JsonObject> adapterCall() {
+    SingleSubject<JsonObject> current = response;
+    return Single.defer(() -> {
+      adapterCalls.incrementAndGet();
+      return current;
+    });
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service.service;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.knotx.knot.service.ServiceKnotConfiguration;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ServiceRegistryTest {
+
+  private ServiceRegistry tested;
+
+  @Before
+  public void setUp() {
+    ServiceKnotConfiguration configuration = new ServiceKnotConfiguration(new JsonObject()
+        .put("services", new JsonArray()
+            .add(service("search", "search-address"))
+            .add(service("product.*", "product-address"))
+            .add(service("product-list", "product-list-address"))
+            .add(service("search", "second-search-address"))));
+    tested = new ServiceRegistry(configuration.getServices());
+  }
+
+  @Test
+  public void resolve_whenLiteralNameConfigured_expectFirstConfiguredService() {
+    assertThat(tested.resolve("search").get().getAddress(), equalTo("search-address"));
+  }
+
+  @Test
+  public void resolve_whenNameMatchesEarlierPattern_expectPatternService() {
+    assertThat(tested.resolve("product-list").get().getAddress(), equalTo("product-address"));
+    assertThat(tested.resolve("product-details").get().getAddress(), equalTo("product-address"));
+  }
+
+  @Test
+  public void resolve_whenNameNotConfigured_expectEmpty() {
+    assertThat(tested.resolve("searches").isPresent(), is(false));
+    assertThat(tested.resolve("searches").isPresent(), is(false));
+  }
+
+  private static JsonObject service(String name, String address) {
+    return new JsonObject().put("name", name).put("address", address);
+  }
+}
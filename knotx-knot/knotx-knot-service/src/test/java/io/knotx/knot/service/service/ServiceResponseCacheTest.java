@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.knot.service.service;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.junit.util.FileReader;
+import io.knotx.knot.service.ServiceKnotConfiguration;
+import io.knotx.knot.service.ServiceKnotConfiguration.ServiceMetadata;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.MultiMap;
+import org.jsoup.nodes.Attribute;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ServiceResponseCacheTest {
+
+  private ServiceResponseCache tested;
+
+  private ServiceEntry serviceEntry;
+
+  @Before
+  public void setUp() throws Exception {
+    ServiceKnotConfiguration configuration = new ServiceKnotConfiguration(
+        new JsonObject(FileReader.readText("service-cached.json")));
+    ServiceMetadata metadata = configuration.getServices().get(0);
+    tested = new ServiceResponseCache(configuration);
+    serviceEntry = new ServiceEntry(
+        new Attribute("data-knotx-service-first", "first-service"), null)
+        .setAddress(metadata.getAddress())
+        .setCachePolicy(metadata.getCachePolicy());
+  }
+
+  @Test
+  public void key_whenVaryAttributesDiffer_expectDifferentKeys() {
+    String key = tested.key(serviceEntry, request("en", "1", "/a.html"));
+
+    assertThat(key, equalTo(tested.key(serviceEntry, request("en", "1", "/b.html"))));
+    assertThat(key, not(equalTo(tested.key(serviceEntry, request("pl", "1", "/a.html")))));
+    assertThat(key, not(equalTo(tested.key(serviceEntry, request("en", "2", "/a.html")))));
+  }
+
+  @Test
+  public void get_whenResponseCached_expectCopyOfResult() {
+    JsonObject result = new JsonObject().put("_result", new JsonObject().put("message", "hello"));
+    tested.put(serviceEntry, "key", result, 20);
+
+    JsonObject cached = tested.get(serviceEntry, "key");
+    assertThat(cached, equalTo(result));
+    cached.getJsonObject("_result").put("message", "changed");
+    assertThat(tested.get(serviceEntry, "key"), equalTo(result));
+  }
+
+  @Test
+  public void get_whenTtlPassed_expectMiss() throws Exception {
+    tested.put(serviceEntry, "key", new JsonObject(), 2);
+    Thread.sleep(150);
+
+    assertThat(tested.get(serviceEntry, "key"), nullValue());
+  }
+
+  @Test
+  public void statistics_expectHitsAndMissesPerService() {
+    tested.get(serviceEntry, "key");
+    tested.put(serviceEntry, "key", new JsonObject(), 2);
+    tested.get(serviceEntry, "key");
+
+    JsonObject serviceStatistics = tested.statistics().getJsonObject("services")
+        .getJsonObject("first-service");
+    assertThat(serviceStatistics.getLong("hits"), equalTo(1L));
+    assertThat(serviceStatistics.getLong("misses"), equalTo(1L));
+  }
+
+  private ClientRequest request(String language, String id, String path) {
+    return new ClientRequest()
+        .setPath(path)
+        .setHeaders(MultiMap.caseInsensitiveMultiMap().add("Accept-Language", language))
+        .setParams(MultiMap.caseInsensitiveMultiMap().add("id", id));
+  }
+}
@@ -15,8 +15,11 @@
  */
 package io.knotx.repository;
 
+import io.knotx.codec.CodecServiceBinder;
 import io.knotx.proxy.RepositoryConnectorProxy;
+import io.knotx.repository.impl.FileCache;
 import io.knotx.repository.impl.FilesystemRepositoryConnectorProxyImpl;
+import io.knotx.util.CacheStatisticsLogger;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
@@ -24,7 +27,6 @@ import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import io.vertx.serviceproxy.ServiceBinder;
 
 public class FilesystemRepositoryConnectorVerticle extends AbstractVerticle {
 
@@ -33,9 +35,13 @@ public class FilesystemRepositoryConnectorVerticle extends AbstractVerticle {
 
   private String address;
 
-  private MessageConsumer<JsonObject> consumer;
+  private MessageConsumer<Object> consumer;
 
-  private ServiceBinder serviceBinder;
+  private CodecServiceBinder serviceBinder;
+
+  private FileCache fileCache;
+
+  private long statisticsTimerId = -1;
 
   @Override
   public void init(Vertx vertx, Context context) {
@@ -47,17 +53,35 @@ public class FilesystemRepositoryConnectorVerticle extends AbstractVerticle {
   public void start() throws Exception {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
 
+    FilesystemCacheConfig cacheConfig = new FilesystemCacheConfig(
+        config().getJsonObject("cache", new JsonObject()));
+    if (cacheConfig.isEnabled()) {
+      fileCache = FileCache.shared(vertx, address, config().getString("catalogue"), cacheConfig);
+    }
+
     //register the service proxy on event bus
-    serviceBinder = new ServiceBinder(getVertx());
+    serviceBinder = new CodecServiceBinder(getVertx());
     consumer = serviceBinder
         .setAddress(address)
         .register(RepositoryConnectorProxy.class,
-            new FilesystemRepositoryConnectorProxyImpl(vertx, config()));
+            new FilesystemRepositoryConnectorProxyImpl(vertx, config(), fileCache));
+
+    long interval = cacheConfig.getStatisticsLogInterval();
+    if (fileCache != null && interval > 0) {
+      statisticsTimerId = CacheStatisticsLogger.start(vertx, LOGGER, "Template cache", fileCache,
+          interval, fileCache::statistics);
+    }
   }
 
   @Override
   public void stop() throws Exception {
+    if (statisticsTimerId != -1) {
+      vertx.cancelTimer(statisticsTimerId);
+    }
     serviceBinder.unregister(consumer);
+    if (fileCache != null) {
+      FileCache.release(vertx, address);
+    }
   }
 
 }
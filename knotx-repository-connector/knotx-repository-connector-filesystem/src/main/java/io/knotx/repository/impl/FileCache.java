@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.repository.impl;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.knotx.repository.FilesystemCacheConfig;
+import io.knotx.util.CacheStatsConverter;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.impl.MimeMapping;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Templates read from the filesystem repository, shared by all connector verticles listening on
+ * the same address in a Vert.x instance and bounded by the total size of the cached files.
+ * <p>
+ * When the catalogue is a directory, it is watched with a {@link WatchService} and changed files
+ * are evicted. Otherwise templates come from the classpath and are cached until evicted by size.
+ * The watcher is closed when the last verticle using the cache {@link #release(Vertx, String)
+ * releases} it.
+ */
+public class FileCache implements Shareable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileCache.class);
+
+  private static final String SHARED_MAP_NAME = "knotx.repository.filesystem.fileCache";
+
+  private final FilesystemCacheConfig config;
+
+  private final Path root;
+
+  private final Cache<String, CachedFile> files;
+
+  /**
+   * Incremented with every eviction, so a file read before a change is not cached after it.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  private volatile boolean enabled = true;
+
+  private WatchService watchService;
+
+  private Thread watcher;
+
+  /**
+   * Number of verticles using the cache, guarded by the {@link FileCache} class lock.
+   */
+  private int references;
+
+  FileCache(String catalogue, FilesystemCacheConfig config) {
+    this.config = config;
+    this.root = StringUtils.isNotBlank(catalogue) && Files.isDirectory(Paths.get(catalogue))
+        ? Paths.get(catalogue).toAbsolutePath().normalize()
+        : null;
+    this.files = CacheBuilder.newBuilder()
+        .maximumWeight(config.getMaximumWeight())
+        .weigher((String key, CachedFile file) -> key.length() + file.weight())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * @return the cache shared by all filesystem repository connectors with the given address,
+   * created with the configuration of the first verticle that asked for it.
+   */
+  public static FileCache shared(Vertx vertx, String address, String catalogue,
+      FilesystemCacheConfig config) {
+    LocalMap<String, FileCache> map = vertx.sharedData().getLocalMap(SHARED_MAP_NAME);
+    synchronized (FileCache.class) {
+      FileCache cache = map.get(address);
+      if (cache == null) {
+        cache = new FileCache(catalogue, config);
+        map.put(address, cache);
+        cache.start(vertx);
+      }
+      cache.references++;
+      return cache;
+    }
+  }
+
+  /**
+   * Releases the cache obtained with {@link #shared(Vertx, String, String, FilesystemCacheConfig)}.
+   * When no verticle uses it anymore, it is removed from the shared map and the catalogue is not
+   * watched anymore.
+   */
+  public static void release(Vertx vertx, String address) {
+    LocalMap<String, FileCache> map = vertx.sharedData().getLocalMap(SHARED_MAP_NAME);
+    synchronized (FileCache.class) {
+      FileCache cache = map.get(address);
+      if (cache != null && --cache.references == 0) {
+        map.remove(address);
+        cache.close();
+      }
+    }
+  }
+
+  CachedFile get(String localFilePath) {
+    return files.getIfPresent(key(localFilePath));
+  }
+
+  /**
+   * @return the current generation, to be passed to {@link #put(String, byte[], long)} after the
+   * file is read.
+   */
+  long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Caches the file content unless any file changed since the given generation.
+   */
+  CachedFile put(String localFilePath, byte[] content, long readGeneration) {
+    CachedFile file = new CachedFile(content,
+        MimeMapping.getMimeTypeForFilename(localFilePath));
+    if (enabled && generation.get() == readGeneration) {
+      files.put(key(localFilePath), file);
+    }
+    return file;
+  }
+
+  /**
+   * @return overall cache statistics.
+   */
+  public JsonObject statistics() {
+    return CacheStatsConverter.toJsonObject(files.stats())
+        .put("size", files.size())
+        .put("watching", root != null);
+  }
+
+  private String key(String localFilePath) {
+    return root == null
+        ? localFilePath
+        : Paths.get(localFilePath).toAbsolutePath().normalize().toString();
+  }
+
+  private void start(Vertx vertx) {
+    if (root == null) {
+      LOGGER.info("Catalogue is not a directory, templates are cached until evicted");
+      return;
+    }
+    try {
+      watchService = root.getFileSystem().newWatchService();
+      register(watchService, root);
+    } catch (IOException e) {
+      LOGGER.error("Unable to watch catalogue [{}], templates are not cached", e, root);
+      enabled = false;
+      closeWatchService();
+      return;
+    }
+    WatchService watched = watchService;
+    watcher = new Thread(() -> watch(watched), "knotx-filesystem-repository-watcher");
+    watcher.setDaemon(true);
+    watcher.start();
+
+    if (config.isPreload()) {
+      vertx.<Long>executeBlocking(future -> {
+        try {
+          future.complete(preload());
+        } catch (IOException e) {
+          future.fail(e);
+        }
+      }, false, result -> {
+        if (result.succeeded()) {
+          LOGGER.info("Preloaded {} templates from [{}]", result.result(), root);
+        } else {
+          LOGGER.error("Unable to preload templates from [{}]", result.cause(), root);
+        }
+      });
+    }
+  }
+
+  private void close() {
+    enabled = false;
+    closeWatchService();
+    if (watcher != null) {
+      watcher.interrupt();
+    }
+    files.invalidateAll();
+  }
+
+  private void closeWatchService() {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        LOGGER.warn("Unable to close the watcher of catalogue [{}]", root);
+      }
+    }
+  }
+
+  private long preload() throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      return paths
+          .filter(path -> Files.isRegularFile(path))
+          .filter(path -> {
+            long readGeneration = generation.get();
+            try {
+              put(path.toString(), Files.readAllBytes(path), readGeneration);
+              return true;
+            } catch (IOException e) {
+              LOGGER.warn("Unable to preload template [{}]", path);
+              return false;
+            }
+          })
+          .count();
+    }
+  }
+
+  private void register(WatchService watchService, Path directory) throws IOException {
+    Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+          throws IOException {
+        dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private void watch(WatchService watchService) {
+    while (true) {
+      WatchKey key;
+      try {
+        key = watchService.take();
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        return;
+      }
+      Path directory = (Path) key.watchable();
+      for (WatchEvent<?> event : key.pollEvents()) {
+        generation.incrementAndGet();
+        if (event.kind() == OVERFLOW) {
+          files.invalidateAll();
+          continue;
+        }
+        Path changed = directory.resolve((Path) event.context());
+        String changedKey = changed.toString();
+        files.invalidate(changedKey);
+        if (event.kind() == ENTRY_DELETE) {
+          // a removed directory takes all its files along
+          files.asMap().keySet().removeIf(cached -> cached.startsWith(changedKey + File.separator));
+        } else if (event.kind() == ENTRY_CREATE
+            && Files.isDirectory(changed, LinkOption.NOFOLLOW_LINKS)) {
+          try {
+            register(watchService, changed);
+          } catch (IOException e) {
+            LOGGER.error("Unable to watch directory [{}]", e, changed);
+          } catch (ClosedWatchServiceException e) {
+            return;
+          }
+        }
+      }
+      key.reset();
+    }
+  }
+
+  static class CachedFile {
+
+    private final byte[] content;
+    private final String contentType;
+
+    private CachedFile(byte[] content, String contentType) {
+      this.content = content;
+      this.contentType = contentType;
+    }
+
+    byte[] content() {
+      return content;
+    }
+
+    /**
+     * @return a read-only buffer backed by the cached content, without copying it.
+     */
+    Buffer body() {
+      return Buffer.buffer(Unpooled.wrappedBuffer(content).asReadOnly());
+    }
+
+    String contentType() {
+      return contentType;
+    }
+
+    private int weight() {
+      return content.length;
+    }
+  }
+}
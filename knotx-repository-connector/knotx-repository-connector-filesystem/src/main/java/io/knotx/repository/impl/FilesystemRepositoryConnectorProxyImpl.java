@@ -18,11 +18,13 @@ package io.knotx.repository.impl;
 import io.knotx.dataobjects.ClientRequest;
 import io.knotx.dataobjects.ClientResponse;
 import io.knotx.proxy.RepositoryConnectorProxy;
+import io.knotx.repository.impl.FileCache.CachedFile;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.impl.MimeMapping;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
@@ -42,15 +44,25 @@ public class FilesystemRepositoryConnectorProxyImpl implements RepositoryConnect
 
   private final String catalogue;
   private final FileSystem fileSystem;
+  private final FileCache fileCache;
 
-  public FilesystemRepositoryConnectorProxyImpl(Vertx vertx, JsonObject configuration) {
+  /**
+   * @param fileCache - cache of the read templates, <tt>null</tt> if the cache is disabled.
+   */
+  public FilesystemRepositoryConnectorProxyImpl(Vertx vertx, JsonObject configuration,
+      FileCache fileCache) {
     this.fileSystem = FileSystem.newInstance(vertx.fileSystem());
     this.catalogue = configuration.getString("catalogue");
+    this.fileCache = fileCache;
   }
 
   @Override
   public void process(ClientRequest request, Handler<AsyncResult<ClientResponse>> result) {
     final String localFilePath = catalogue + StringUtils.stripStart(request.getPath(), "/");
+    if (fileCache != null) {
+      processCached(localFilePath, result);
+      return;
+    }
     final Optional<String> contentType = Optional
         .ofNullable(MimeMapping.getMimeTypeForFilename(localFilePath));
 
@@ -68,6 +80,36 @@ public class FilesystemRepositoryConnectorProxyImpl implements RepositoryConnect
         );
   }
 
+  private void processCached(String localFilePath, Handler<AsyncResult<ClientResponse>> result) {
+    CachedFile cached = fileCache.get(localFilePath);
+    if (cached != null) {
+      LOGGER.debug("File `{}` taken from cache.", localFilePath);
+      result.handle(Future.succeededFuture(toResponse(cached, cached.body())));
+      return;
+    }
+
+    LOGGER.debug("Fetching file `{}` from local repository.", localFilePath);
+    final long generation = fileCache.generation();
+    fileSystem.rxReadFile(localFilePath)
+        .map(buffer -> {
+          CachedFile file = fileCache.put(localFilePath, buffer.getDelegate().getBytes(),
+              generation);
+          return toResponse(file, file.body());
+        })
+        .subscribe(
+            response -> result.handle(Future.succeededFuture(response)),
+            error -> {
+              LOGGER.error(ERROR_MESSAGE, error);
+              result.handle(Future.succeededFuture(processError(error)));
+            }
+        );
+  }
+
+  private ClientResponse toResponse(CachedFile file, Buffer body) {
+    return new ClientResponse().setStatusCode(HttpResponseStatus.OK.code())
+        .setHeaders(headers(Optional.ofNullable(file.contentType()))).setBody(body);
+  }
+
   private MultiMap headers(Optional<String> contentType) {
     MultiMap headers = MultiMap.caseInsensitiveMultiMap();
     contentType.ifPresent(s -> headers.add("Content-Type", s));
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.repository.impl;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import io.knotx.repository.FilesystemCacheConfig;
+import io.knotx.repository.impl.FileCache.CachedFile;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileCacheTest {
+
+  private static final String ADDRESS = "knotx.repository.filesystem.test";
+
+  private static final String WATCHER_THREAD = "knotx-filesystem-repository-watcher";
+
+  @Rule
+  public TemporaryFolder catalogue = new TemporaryFolder();
+
+  private FileCache tested;
+
+  private String path;
+
+  @Before
+  public void setUp() {
+    tested = new FileCache(catalogue.getRoot().getPath() + "/",
+        new FilesystemCacheConfig(new JsonObject().put("enabled", true)));
+    path = catalogue.getRoot().getPath() + "/content/page.html";
+  }
+
+  @Test
+  public void get_whenFileCached_expectContentAndContentType() {
+    tested.put(path, bytes("<html/>"), tested.generation());
+
+    CachedFile cached = tested.get(catalogue.getRoot().getPath() + "/content/../content/page.html");
+
+    assertThat(cached, notNullValue());
+    assertThat(new String(cached.content(), StandardCharsets.UTF_8), equalTo("<html/>"));
+    assertThat(cached.contentType(), equalTo("text/html"));
+  }
+
+  @Test
+  public void put_whenReadBeforeOlderGeneration_expectFileNotCached() {
+    tested.put(path, bytes("<html/>"), tested.generation() - 1);
+
+    assertThat(tested.get(path), nullValue());
+  }
+
+  @Test
+  public void body_whenFileCached_expectBufferWithContent() {
+    CachedFile cached = tested.put(path, bytes("<html/>"), tested.generation());
+
+    assertThat(cached.body().toString(), equalTo("<html/>"));
+  }
+
+  @Test(expected = ReadOnlyBufferException.class)
+  public void body_whenModified_expectCachedContentProtected() {
+    tested.put(path, bytes("<html/>"), tested.generation()).body().setByte(0, (byte) 'x');
+  }
+
+  @Test
+  public void release_whenLastVerticleReleasesCache_expectWatcherStoppedAndCacheRemoved()
+      throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      FilesystemCacheConfig config = new FilesystemCacheConfig(
+          new JsonObject().put("enabled", true));
+      String directory = catalogue.getRoot().getPath() + "/";
+      FileCache first = FileCache.shared(vertx, ADDRESS, directory, config);
+      FileCache second = FileCache.shared(vertx, ADDRESS, directory, config);
+      assertThat(second, sameInstance(first));
+      assertThat(watcherRunning(), equalTo(true));
+
+      FileCache.release(vertx, ADDRESS);
+      assertThat(watcherRunning(), equalTo(true));
+      assertThat(FileCache.shared(vertx, ADDRESS, directory, config), sameInstance(first));
+      FileCache.release(vertx, ADDRESS);
+
+      FileCache.release(vertx, ADDRESS);
+      assertThat(watcherStopped(), equalTo(true));
+      assertThat(FileCache.shared(vertx, ADDRESS, directory, config), not(sameInstance(first)));
+      FileCache.release(vertx, ADDRESS);
+    } finally {
+      vertx.close();
+    }
+  }
+
+  private static boolean watcherRunning() {
+    return Thread.getAllStackTraces().keySet().stream()
+        .anyMatch(thread -> WATCHER_THREAD.equals(thread.getName()) && thread.isAlive());
+  }
+
+  private static boolean watcherStopped() throws InterruptedException {
+    for (int i = 0; i < 50 && watcherRunning(); i++) {
+      Thread.sleep(20);
+    }
+    return !watcherRunning();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
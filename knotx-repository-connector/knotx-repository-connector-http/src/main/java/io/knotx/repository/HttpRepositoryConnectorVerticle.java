@@ -15,8 +15,11 @@
  */
 package io.knotx.repository;
 
+import io.knotx.codec.CodecServiceBinder;
 import io.knotx.proxy.RepositoryConnectorProxy;
 import io.knotx.repository.impl.HttpRepositoryConnectorProxyImpl;
+import io.knotx.repository.impl.TemplateCache;
+import io.knotx.util.CacheStatisticsLogger;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Context;
 import io.vertx.core.Vertx;
@@ -24,7 +27,6 @@ import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import io.vertx.serviceproxy.ServiceBinder;
 
 public class HttpRepositoryConnectorVerticle extends AbstractVerticle {
 
@@ -32,9 +34,9 @@ public class HttpRepositoryConnectorVerticle extends AbstractVerticle {
       .getLogger(HttpRepositoryConnectorVerticle.class);
 
   private String address;
-  private MessageConsumer<JsonObject> consumer;
-  private ServiceBinder serviceBinder;
-
+  private MessageConsumer<Object> consumer;
+  private CodecServiceBinder serviceBinder;
+  private long statisticsTimerId = -1;
 
   @Override
   public void init(Vertx vertx, Context context) {
@@ -47,15 +49,27 @@ public class HttpRepositoryConnectorVerticle extends AbstractVerticle {
     LOGGER.info("Starting <{}>", this.getClass().getSimpleName());
 
     //register the service proxy on event bus
-    serviceBinder = new ServiceBinder(getVertx());
+    serviceBinder = new CodecServiceBinder(getVertx());
     consumer = serviceBinder
         .setAddress(address)
         .register(RepositoryConnectorProxy.class,
             new HttpRepositoryConnectorProxyImpl(vertx, config()));
+
+    TemplateCacheConfig templateCacheConfig = new TemplateCacheConfig(
+        config().getJsonObject("templateCache", new JsonObject()));
+    long interval = templateCacheConfig.getStatisticsLogInterval();
+    if (templateCacheConfig.isEnabled() && interval > 0) {
+      TemplateCache templateCache = TemplateCache.shared(vertx, address, templateCacheConfig);
+      statisticsTimerId = CacheStatisticsLogger.start(vertx, LOGGER, "Template cache",
+          templateCache, interval, templateCache::statistics);
+    }
   }
 
   @Override
   public void stop() throws Exception {
+    if (statisticsTimerId != -1) {
+      vertx.cancelTimer(statisticsTimerId);
+    }
     serviceBinder.unregister(consumer);
   }
 
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.repository;
+
+import io.vertx.core.json.JsonObject;
+
+public class TemplateCacheConfig {
+
+  private static final boolean DEFAULT_ENABLED = false;
+  //Default limit - 16 MB of cached templates
+  private static final long DEFAULT_MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+  private static final long DEFAULT_FRESHNESS = 60_000;
+  private static final long DEFAULT_STATISTICS_LOG_INTERVAL = 0;
+
+  private final boolean enabled;
+  private final long maximumWeight;
+  private final long freshness;
+  private final long statisticsLogInterval;
+
+  public TemplateCacheConfig(JsonObject config) {
+    enabled = config.getBoolean("enabled", DEFAULT_ENABLED);
+    maximumWeight = config.getLong("maximumWeight", DEFAULT_MAXIMUM_WEIGHT);
+    freshness = config.getLong("freshness", DEFAULT_FRESHNESS);
+    statisticsLogInterval = config
+        .getLong("statisticsLogInterval", DEFAULT_STATISTICS_LOG_INTERVAL);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  /**
+   * @return time (in milliseconds) a cached template is served without asking the repository, when
+   * the repository response does not define its own <tt>max-age</tt>.
+   */
+  public long getFreshness() {
+    return freshness;
+  }
+
+  public long getStatisticsLogInterval() {
+    return statisticsLogInterval;
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.repository.impl;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Directives of a repository response <tt>Cache-Control</tt> header that matter for a shared
+ * template cache.
+ */
+class CacheControl {
+
+  private static final long NOT_DEFINED = -1;
+
+  private final boolean noStore;
+  private final boolean noCache;
+  private final boolean isPublic;
+  private final long maxAge;
+
+  private CacheControl(boolean noStore, boolean noCache, boolean isPublic, long maxAge) {
+    this.noStore = noStore;
+    this.noCache = noCache;
+    this.isPublic = isPublic;
+    this.maxAge = maxAge;
+  }
+
+  static CacheControl parse(String header) {
+    boolean noStore = false;
+    boolean noCache = false;
+    boolean isPublic = false;
+    long maxAge = NOT_DEFINED;
+    long sharedMaxAge = NOT_DEFINED;
+    if (header != null) {
+      for (String directive : header.split(",")) {
+        String[] parts = directive.trim().split("=", 2);
+        String name = parts[0].trim().toLowerCase();
+        String value = parts.length > 1 ? StringUtils.strip(parts[1].trim(), "\"") : null;
+        switch (name) {
+          case "no-store":
+          case "private":
+            noStore = true;
+            break;
+          case "no-cache":
+            noCache = true;
+            break;
+          case "public":
+            isPublic = true;
+            break;
+          case "max-age":
+            maxAge = seconds(value);
+            break;
+          case "s-maxage":
+            sharedMaxAge = seconds(value);
+            isPublic = true;
+            break;
+          default:
+            // not relevant
+        }
+      }
+    }
+    return new CacheControl(noStore, noCache, isPublic,
+        sharedMaxAge != NOT_DEFINED ? sharedMaxAge : maxAge);
+  }
+
+  /**
+   * @param authorized - <tt>true</tt> if the repository request carried credentials.
+   * @return <tt>true</tt> if the response can be shared between requests.
+   */
+  boolean isStorable(boolean authorized) {
+    return !noStore && (!authorized || isPublic);
+  }
+
+  /**
+   * @param defaultFreshness - freshness used when the response does not define <tt>max-age</tt>.
+   * @return time (in milliseconds) the response is served without revalidation.
+   */
+  long freshness(long defaultFreshness) {
+    if (noCache) {
+      return 0;
+    }
+    return maxAge == NOT_DEFINED ? defaultFreshness : maxAge * 1000;
+  }
+
+  private static long seconds(String value) {
+    try {
+      return value == null ? NOT_DEFINED : Math.max(Long.parseLong(value), 0);
+    } catch (NumberFormatException e) {
+      return NOT_DEFINED;
+    }
+  }
+}
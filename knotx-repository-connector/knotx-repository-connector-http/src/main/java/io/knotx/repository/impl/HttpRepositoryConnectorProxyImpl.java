@@ -21,6 +21,8 @@ import io.knotx.http.AllowedHeadersFilter;
 import io.knotx.http.MultiMapCollector;
 import io.knotx.http.StringToPatternFunction;
 import io.knotx.proxy.RepositoryConnectorProxy;
+import io.knotx.repository.TemplateCacheConfig;
+import io.knotx.repository.impl.TemplateCache.CachedTemplate;
 import io.knotx.util.DataObjectsUtil;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -47,6 +49,7 @@ import java.util.List;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 public class HttpRepositoryConnectorProxyImpl implements RepositoryConnectorProxy {
 
@@ -60,7 +63,7 @@ public class HttpRepositoryConnectorProxyImpl implements RepositoryConnectorProx
   private final List<Pattern> allowedRequestHeaders;
   private final HttpClient httpClient;
   private final JsonObject customRequestHeader;
-
+  private final TemplateCache templateCache;
 
   public HttpRepositoryConnectorProxyImpl(Vertx vertx, JsonObject configuration) {
     clientOptions = configuration.getJsonObject("clientOptions", new JsonObject());
@@ -72,6 +75,11 @@ public class HttpRepositoryConnectorProxyImpl implements RepositoryConnectorProx
         .map(new StringToPatternFunction())
         .collect(Collectors.toList());
     httpClient = createHttpClient(vertx);
+    TemplateCacheConfig templateCacheConfig = new TemplateCacheConfig(
+        configuration.getJsonObject("templateCache", new JsonObject()));
+    templateCache = templateCacheConfig.isEnabled()
+        ? TemplateCache.shared(vertx, configuration.getString("address"), templateCacheConfig)
+        : null;
   }
 
   @Override
@@ -91,9 +99,11 @@ public class HttpRepositoryConnectorProxyImpl implements RepositoryConnectorProx
       );
     }
 
-    get(httpClient, httpRequestData, requestHeaders)
-        .doOnNext(this::traceHttpResponse)
-        .flatMap(this::processResponse)
+    Observable<ClientResponse> repositoryResponse =
+        templateCache != null && TemplateCache.isCacheable(requestHeaders)
+            ? getCached(httpRequestData, requestHeaders)
+            : fetch(httpRequestData, requestHeaders);
+    repositoryResponse
         .subscribe(
             response -> result.handle(Future.succeededFuture(response)),
             error -> {
@@ -103,6 +113,36 @@ public class HttpRepositoryConnectorProxyImpl implements RepositoryConnectorProx
         );
   }
 
+  private Observable<ClientResponse> fetch(RequestOptions requestOptions, MultiMap headers) {
+    return get(httpClient, requestOptions, headers)
+        .doOnNext(this::traceHttpResponse)
+        .flatMap(this::processResponse);
+  }
+
+  /**
+   * Serves a fresh template from the cache. A stale one is revalidated with the repository, which
+   * answers with <tt>304 Not Modified</tt> if the cached template can still be used.
+   */
+  private Observable<ClientResponse> getCached(RequestOptions requestOptions, MultiMap headers) {
+    String key = TemplateCache.key(requestOptions.getURI(), headers);
+    CachedTemplate cached = templateCache.get(key, headers);
+    if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+      LOGGER.trace("Template [{}] taken from cache", key);
+      templateCache.hit();
+      return Observable.just(cached.toResponse());
+    }
+    return fetch(requestOptions, cached == null ? headers : cached.conditional(headers))
+        .map(response -> {
+          if (cached != null
+              && response.getStatusCode() == HttpResponseStatus.NOT_MODIFIED.code()) {
+            LOGGER.trace("Template [{}] revalidated", key);
+            return templateCache.revalidated(key, cached, response.getHeaders()).toResponse();
+          }
+          templateCache.store(key, headers, response);
+          return response;
+        });
+  }
+
   private RequestOptions buildRequestData(ClientRequest request) {
     return new RequestOptions()
         .setSsl(clientDestination.getString("scheme", "http").equals("https"))
@@ -157,9 +197,10 @@ public class HttpRepositoryConnectorProxyImpl implements RepositoryConnectorProx
   }
 
   private Observable<ClientResponse> processResponse(final HttpClientResponse response) {
-    return Observable.just(Buffer.buffer())
-        .mergeWith(response.toObservable())
-        .reduce(Buffer::appendBuffer)
+    int contentLength = NumberUtils
+        .toInt(response.getHeader(HttpHeaderNames.CONTENT_LENGTH.toString()), 0);
+    return response.toObservable()
+        .collect(() -> Buffer.buffer(contentLength), Buffer::appendBuffer)
         .toObservable()
         .map(buffer -> toResponse(buffer, response));
   }
@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.repository.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.repository.TemplateCacheConfig;
+import io.knotx.util.CacheStatsConverter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.reactivex.core.MultiMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Templates fetched from the HTTP repository, shared by all connector verticles listening on the
+ * same address in a Vert.x instance. A template is served from the cache while it is fresh and
+ * revalidated with the repository afterwards, using its <tt>ETag</tt> and <tt>Last-Modified</tt>
+ * validators. The whole cache is bounded by the total size of the cached templates.
+ */
+public class TemplateCache implements Shareable {
+
+  private static final String SHARED_MAP_NAME = "knotx.repository.http.templateCache";
+
+  /**
+   * Headers of a <tt>304 Not Modified</tt> response that replace the cached ones.
+   */
+  private static final List<String> REVALIDATED_HEADERS = Arrays.asList(
+      HttpHeaderNames.CACHE_CONTROL.toString(),
+      HttpHeaderNames.DATE.toString(),
+      HttpHeaderNames.ETAG.toString(),
+      HttpHeaderNames.EXPIRES.toString(),
+      HttpHeaderNames.LAST_MODIFIED.toString());
+
+  /**
+   * Headers of the repository response that are never cached: cookies set for the client that
+   * requested the template, and hop-by-hop headers that describe a single connection.
+   */
+  private static final List<String> NOT_CACHED_HEADERS = Arrays.asList(
+      HttpHeaderNames.SET_COOKIE.toString(),
+      HttpHeaderNames.CONTENT_LENGTH.toString(),
+      HttpHeaderNames.TRANSFER_ENCODING.toString(),
+      HttpHeaderNames.CONNECTION.toString(),
+      HttpHeaderNames.KEEP_ALIVE.toString(),
+      HttpHeaderNames.PROXY_AUTHENTICATE.toString(),
+      HttpHeaderNames.PROXY_AUTHORIZATION.toString(),
+      HttpHeaderNames.TE.toString(),
+      HttpHeaderNames.TRAILER.toString(),
+      HttpHeaderNames.UPGRADE.toString());
+
+  private final TemplateCacheConfig config;
+
+  private final Cache<String, CachedTemplate> templates;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder revalidations = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  TemplateCache(TemplateCacheConfig config) {
+    this.config = config;
+    this.templates = CacheBuilder.newBuilder()
+        .maximumWeight(config.getMaximumWeight())
+        .weigher((String key, CachedTemplate template) -> key.length() + template.weight())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * @return the cache shared by all HTTP repository connectors with the given address, created
+   * with the configuration of the first verticle that asked for it.
+   */
+  public static TemplateCache shared(Vertx vertx, String address, TemplateCacheConfig config) {
+    LocalMap<String, TemplateCache> map = vertx.sharedData().getLocalMap(SHARED_MAP_NAME);
+    synchronized (TemplateCache.class) {
+      TemplateCache cache = map.get(address);
+      if (cache == null) {
+        cache = new TemplateCache(config);
+        map.put(address, cache);
+      }
+      return cache;
+    }
+  }
+
+  /**
+   * Requests with their own conditional headers are passed to the repository as they are, so
+   * its <tt>304</tt> responses reach the client.
+   */
+  static boolean isCacheable(MultiMap requestHeaders) {
+    return requestHeaders.names().stream()
+        .noneMatch(name -> StringUtils.startsWithIgnoreCase(name, "If-"));
+  }
+
+  static String key(String uri, MultiMap requestHeaders) {
+    return StringUtils.defaultString(requestHeaders.get(HttpHeaderNames.HOST.toString())) + uri;
+  }
+
+  /**
+   * @return the cached template for the given request headers, <tt>null</tt> if there is none or
+   * it was fetched for a request with other values of the <tt>Vary</tt> headers.
+   */
+  CachedTemplate get(String key, MultiMap requestHeaders) {
+    CachedTemplate template = templates.getIfPresent(key);
+    return template != null && template.matches(requestHeaders) ? template : null;
+  }
+
+  /**
+   * Caches the repository response if it is a successful one and the repository allows it.
+   */
+  void store(String key, MultiMap requestHeaders, ClientResponse response) {
+    misses.increment();
+    if (response.getStatusCode() != HttpResponseStatus.OK.code()) {
+      return;
+    }
+    MultiMap headers = response.getHeaders();
+    CacheControl cacheControl = CacheControl
+        .parse(headers.get(HttpHeaderNames.CACHE_CONTROL.toString()));
+    boolean authorized = requestHeaders.contains(HttpHeaderNames.AUTHORIZATION.toString())
+        || requestHeaders.contains(HttpHeaderNames.PROXY_AUTHORIZATION.toString());
+    List<String> vary = varyHeaders(headers);
+    if (!cacheControl.isStorable(authorized) || vary.contains("*")) {
+      templates.invalidate(key);
+      return;
+    }
+    templates.put(key, new CachedTemplate(cachedHeaders(headers), response.getBody().getBytes(),
+        vary.stream()
+            .map(name -> new SimpleImmutableEntry<>(name, requestHeaders.getAll(name)))
+            .collect(Collectors.toList()),
+        System.currentTimeMillis() + cacheControl.freshness(config.getFreshness())));
+  }
+
+  /**
+   * Marks the template as fresh again after the repository answered with <tt>304 Not
+   * Modified</tt>.
+   *
+   * @return the revalidated template.
+   */
+  CachedTemplate revalidated(String key, CachedTemplate template, MultiMap notModifiedHeaders) {
+    revalidations.increment();
+    MultiMap headers = template.headers();
+    REVALIDATED_HEADERS.stream()
+        .filter(notModifiedHeaders::contains)
+        .forEach(name -> headers.set(name, notModifiedHeaders.getAll(name)));
+    CacheControl cacheControl = CacheControl
+        .parse(headers.get(HttpHeaderNames.CACHE_CONTROL.toString()));
+    CachedTemplate revalidated = new CachedTemplate(headers, template.body, template.vary,
+        System.currentTimeMillis() + cacheControl.freshness(config.getFreshness()));
+    templates.put(key, revalidated);
+    return revalidated;
+  }
+
+  void hit() {
+    hits.increment();
+  }
+
+  /**
+   * @return overall cache statistics with the number of templates served from the cache, the
+   * number of templates revalidated with the repository and the number of templates fetched.
+   */
+  public JsonObject statistics() {
+    return CacheStatsConverter.toJsonObject(templates.stats())
+        .put("size", templates.size())
+        .put("hits", hits.sum())
+        .put("revalidations", revalidations.sum())
+        .put("misses", misses.sum());
+  }
+
+  /**
+   * @return a copy of the response headers without the {@link #NOT_CACHED_HEADERS} and the headers
+   * listed in <tt>Connection</tt>.
+   */
+  private static MultiMap cachedHeaders(MultiMap headers) {
+    MultiMap cached = MultiMap.caseInsensitiveMultiMap().addAll(headers);
+    headers.getAll(HttpHeaderNames.CONNECTION.toString()).stream()
+        .flatMap(value -> Arrays.stream(value.split(",")))
+        .map(String::trim)
+        .filter(StringUtils::isNotEmpty)
+        .forEach(cached::remove);
+    NOT_CACHED_HEADERS.forEach(cached::remove);
+    return cached;
+  }
+
+  private static List<String> varyHeaders(MultiMap headers) {
+    return headers.getAll(HttpHeaderNames.VARY.toString()).stream()
+        .flatMap(value -> Arrays.stream(value.split(",")))
+        .map(String::trim)
+        .filter(StringUtils::isNotEmpty)
+        .collect(Collectors.toList());
+  }
+
+  static class CachedTemplate {
+
+    private final List<Map.Entry<String, String>> headers;
+    private final byte[] body;
+    private final List<Map.Entry<String, List<String>>> vary;
+    private final long freshUntil;
+
+    private CachedTemplate(MultiMap headers, byte[] body,
+        List<? extends Map.Entry<String, List<String>>> vary, long freshUntil) {
+      this.headers = headers.getDelegate().entries().stream()
+          .map(entry -> new SimpleImmutableEntry<>(entry.getKey(), entry.getValue()))
+          .collect(Collectors.toList());
+      this.body = body;
+      this.vary = Collections.unmodifiableList(vary);
+      this.freshUntil = freshUntil;
+    }
+
+    boolean isFresh(long now) {
+      return now < freshUntil;
+    }
+
+    /**
+     * @return the given request headers with the validators of this template.
+     */
+    MultiMap conditional(MultiMap requestHeaders) {
+      MultiMap conditional = MultiMap.caseInsensitiveMultiMap().addAll(requestHeaders);
+      MultiMap headers = headers();
+      String etag = headers.get(HttpHeaderNames.ETAG.toString());
+      if (etag != null) {
+        conditional.set(HttpHeaderNames.IF_NONE_MATCH.toString(), etag);
+      }
+      String lastModified = headers.get(HttpHeaderNames.LAST_MODIFIED.toString());
+      if (lastModified != null) {
+        conditional.set(HttpHeaderNames.IF_MODIFIED_SINCE.toString(), lastModified);
+      }
+      return conditional;
+    }
+
+    /**
+     * @return a new response with the cached template, callers are free to modify it.
+     */
+    ClientResponse toResponse() {
+      return new ClientResponse()
+          .setStatusCode(HttpResponseStatus.OK.code())
+          .setHeaders(headers())
+          .setBody(Buffer.buffer(body));
+    }
+
+    private boolean matches(MultiMap requestHeaders) {
+      return vary.stream()
+          .allMatch(entry -> Objects.equals(entry.getValue(), requestHeaders.getAll(entry.getKey())));
+    }
+
+    private MultiMap headers() {
+      MultiMap result = MultiMap.caseInsensitiveMultiMap();
+      headers.forEach(entry -> result.add(entry.getKey(), entry.getValue()));
+      return result;
+    }
+
+    private int weight() {
+      return body.length + headers.stream()
+          .mapToInt(entry -> entry.getKey().length() + entry.getValue().length())
+          .sum();
+    }
+  }
+}
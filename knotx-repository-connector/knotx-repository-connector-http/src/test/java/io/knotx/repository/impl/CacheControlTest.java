@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.repository.impl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class CacheControlTest {
+
+  private static final long DEFAULT_FRESHNESS = 60_000;
+
+  @Test
+  public void parse_whenNoHeader_expectStorableWithDefaultFreshness() {
+    CacheControl tested = CacheControl.parse(null);
+
+    assertThat(tested.isStorable(false), is(true));
+    assertThat(tested.isStorable(true), is(false));
+    assertThat(tested.freshness(DEFAULT_FRESHNESS), is(DEFAULT_FRESHNESS));
+  }
+
+  @Test
+  public void parse_whenMaxAgeDefined_expectFreshnessFromHeader() {
+    assertThat(CacheControl.parse("public, max-age=300").freshness(DEFAULT_FRESHNESS),
+        is(300_000L));
+    assertThat(CacheControl.parse("max-age=300, s-maxage=\"10\"").freshness(DEFAULT_FRESHNESS),
+        is(10_000L));
+  }
+
+  @Test
+  public void parse_whenNoCache_expectRevalidationEveryTime() {
+    assertThat(CacheControl.parse("No-Cache, max-age=300").freshness(DEFAULT_FRESHNESS), is(0L));
+  }
+
+  @Test
+  public void parse_whenPrivateOrNoStore_expectNotStorable() {
+    assertThat(CacheControl.parse("private, max-age=300").isStorable(false), is(false));
+    assertThat(CacheControl.parse("no-store").isStorable(false), is(false));
+  }
+
+  @Test
+  public void parse_whenPublic_expectStorableForAuthorizedRequests() {
+    assertThat(CacheControl.parse("public").isStorable(true), is(true));
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.repository.impl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.repository.TemplateCacheConfig;
+import io.knotx.repository.impl.TemplateCache.CachedTemplate;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.MultiMap;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TemplateCacheTest {
+
+  private static final String KEY = "localhost/content/page.html";
+
+  private static final String BODY = "<html><body>Hello</body></html>";
+
+  private TemplateCache tested;
+
+  @Before
+  public void setUp() {
+    tested = new TemplateCache(new TemplateCacheConfig(new JsonObject().put("enabled", true)));
+  }
+
+  @Test
+  public void store_whenSuccessfulResponse_expectTemplateServedFromCache() {
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap(), response(headers()));
+
+    CachedTemplate cached = tested.get(KEY, MultiMap.caseInsensitiveMultiMap());
+
+    assertThat(cached, notNullValue());
+    assertThat(cached.isFresh(System.currentTimeMillis()), is(true));
+    ClientResponse hit = cached.toResponse();
+    assertThat(hit.getStatusCode(), is(200));
+    assertThat(hit.getBody().toString(), is(BODY));
+    assertThat(hit.getHeaders().get("Content-Type"), is("text/html"));
+  }
+
+  @Test
+  public void store_whenNotSuccessfulResponse_expectNotCached() {
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap(), response(headers()).setStatusCode(404));
+
+    assertThat(tested.get(KEY, MultiMap.caseInsensitiveMultiMap()), nullValue());
+  }
+
+  @Test
+  public void store_whenClientSpecificAndHopByHopHeaders_expectTheyAreNotCached() {
+    MultiMap headers = headers()
+        .add("Set-Cookie", "JSESSIONID=visitor-1")
+        .add("Content-Length", "31")
+        .add("Transfer-Encoding", "chunked")
+        .add("Connection", "X-Connection-Option")
+        .add("X-Connection-Option", "value")
+        .add("Keep-Alive", "timeout=5");
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap(), response(headers));
+
+    MultiMap cachedHeaders = tested.get(KEY, MultiMap.caseInsensitiveMultiMap()).toResponse()
+        .getHeaders();
+
+    assertThat(cachedHeaders.contains("Set-Cookie"), is(false));
+    assertThat(cachedHeaders.contains("Content-Length"), is(false));
+    assertThat(cachedHeaders.contains("Transfer-Encoding"), is(false));
+    assertThat(cachedHeaders.contains("Connection"), is(false));
+    assertThat(cachedHeaders.contains("X-Connection-Option"), is(false));
+    assertThat(cachedHeaders.contains("Keep-Alive"), is(false));
+    assertThat(cachedHeaders.get("Content-Type"), is("text/html"));
+    assertThat(headers.get("Set-Cookie"), is("JSESSIONID=visitor-1"));
+  }
+
+  @Test
+  public void get_whenVaryHeadersDoNotMatch_expectNoTemplate() {
+    MultiMap requestHeaders = MultiMap.caseInsensitiveMultiMap().add("Accept-Language", "en");
+    tested.store(KEY, requestHeaders, response(headers().add("Vary", "Accept-Language")));
+
+    assertThat(tested.get(KEY, requestHeaders), notNullValue());
+    assertThat(tested.get(KEY, MultiMap.caseInsensitiveMultiMap().add("Accept-Language", "pl")),
+        nullValue());
+    assertThat(tested.get(KEY, MultiMap.caseInsensitiveMultiMap()), nullValue());
+  }
+
+  @Test
+  public void store_whenVaryAsterisk_expectNotCached() {
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap(), response(headers().add("Vary", "*")));
+
+    assertThat(tested.get(KEY, MultiMap.caseInsensitiveMultiMap()), nullValue());
+  }
+
+  @Test
+  public void revalidated_whenNotModified_expectValidatorsUpdatedAndTemplateFresh() {
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap(),
+        response(headers().add("Cache-Control", "no-cache").add("ETag", "\"v1\"")));
+    CachedTemplate stale = tested.get(KEY, MultiMap.caseInsensitiveMultiMap());
+    assertThat(stale.isFresh(System.currentTimeMillis()), is(false));
+    assertThat(stale.conditional(MultiMap.caseInsensitiveMultiMap()).get("If-None-Match"),
+        is("\"v1\""));
+
+    CachedTemplate revalidated = tested.revalidated(KEY, stale, MultiMap.caseInsensitiveMultiMap()
+        .add("Cache-Control", "max-age=300")
+        .add("ETag", "\"v2\"")
+        .add("Set-Cookie", "JSESSIONID=visitor-2"));
+
+    assertThat(revalidated.isFresh(System.currentTimeMillis()), is(true));
+    ClientResponse hit = tested.get(KEY, MultiMap.caseInsensitiveMultiMap()).toResponse();
+    assertThat(hit.getHeaders().get("ETag"), is("\"v2\""));
+    assertThat(hit.getHeaders().contains("Set-Cookie"), is(false));
+    assertThat(hit.getBody().toString(), is(BODY));
+  }
+
+  @Test
+  public void store_whenNoStore_expectNotCached() {
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap(),
+        response(headers().add("Cache-Control", "no-store")));
+
+    assertThat(tested.get(KEY, MultiMap.caseInsensitiveMultiMap()), nullValue());
+  }
+
+  @Test
+  public void store_whenNoStoreAfterCachedResponse_expectCachedTemplateRemoved() {
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap(), response(headers()));
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap(),
+        response(headers().add("Cache-Control", "private")));
+
+    assertThat(tested.get(KEY, MultiMap.caseInsensitiveMultiMap()), nullValue());
+  }
+
+  @Test
+  public void store_whenAuthorizedRequest_expectNotCached() {
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap().add("Authorization", "Basic dXNlcg=="),
+        response(headers()));
+    tested.store("proxy" + KEY,
+        MultiMap.caseInsensitiveMultiMap().add("Proxy-Authorization", "Basic dXNlcg=="),
+        response(headers()));
+
+    assertThat(tested.get(KEY, MultiMap.caseInsensitiveMultiMap()), nullValue());
+    assertThat(tested.get("proxy" + KEY, MultiMap.caseInsensitiveMultiMap()), nullValue());
+  }
+
+  @Test
+  public void store_whenAuthorizedRequestAndPublicResponse_expectCached() {
+    tested.store(KEY, MultiMap.caseInsensitiveMultiMap().add("Authorization", "Basic dXNlcg=="),
+        response(headers().add("Cache-Control", "public")));
+
+    assertThat(tested.get(KEY, MultiMap.caseInsensitiveMultiMap()), notNullValue());
+  }
+
+  private MultiMap headers() {
+    return MultiMap.caseInsensitiveMultiMap().add("Content-Type", "text/html");
+  }
+
+  private ClientResponse response(MultiMap headers) {
+    return new ClientResponse()
+        .setStatusCode(200)
+        .setHeaders(headers)
+        .setBody(Buffer.buffer(BODY));
+  }
+}
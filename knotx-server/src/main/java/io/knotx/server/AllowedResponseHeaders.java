@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.knotx.dataobjects.ClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.reactivex.core.MultiMap;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import java.util.Set;
+
+/**
+ * Copies the headers of a rendered page to the client response, filtered with the Server
+ * <tt>allowedResponseHeaders</tt>. Used by every handler that starts a page response, so they all
+ * send the same headers.
+ */
+final class AllowedResponseHeaders {
+
+  private final Set<String> allowed;
+
+  AllowedResponseHeaders(Set<String> allowed) {
+    this.allowed = allowed;
+  }
+
+  /**
+   * Writes the allowed headers of the client response. <tt>Content-Length</tt> of the Template is
+   * never sent, the rendered page has its own length.
+   */
+  void write(HttpServerResponse response, ClientResponse clientResponse) {
+    MultiMap headers = clientResponse.getHeaders();
+    headers.names().stream()
+        .filter(this::isAllowed)
+        .forEach(name -> headers.getAll(name).forEach(value -> response.headers().add(name, value)));
+
+    response.headers().remove(HttpHeaders.CONTENT_LENGTH.toString());
+  }
+
+  boolean isAllowed(String name) {
+    return allowed.contains(name.toLowerCase());
+  }
+}
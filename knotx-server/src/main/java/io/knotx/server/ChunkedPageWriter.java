@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes a page made of separate parts to the client using chunked transfer encoding, one part per
+ * chunk. Writing is suspended while the connection write queue is full and resumed from its drain
+ * handler, so a slow client does not make the Server queue the whole page at once.
+ */
+class ChunkedPageWriter {
+
+  private final HttpServerResponse response;
+
+  private final Iterator<String> parts;
+
+  private ChunkedPageWriter(HttpServerResponse response, Iterator<String> parts) {
+    this.response = response;
+    this.parts = parts;
+  }
+
+  /**
+   * Writes the parts and ends the response. The response must already be chunked.
+   */
+  static void write(HttpServerResponse response, List<String> parts) {
+    new ChunkedPageWriter(response, parts.iterator()).writeNext();
+  }
+
+  private void writeNext() {
+    while (parts.hasNext()) {
+      response.write(parts.next());
+      if (parts.hasNext() && response.writeQueueFull()) {
+        response.drainHandler(drained -> {
+          response.drainHandler(null);
+          writeNext();
+        });
+        return;
+      }
+    }
+    response.end();
+  }
+}
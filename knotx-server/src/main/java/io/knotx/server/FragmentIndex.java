@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.knotx.dataobjects.Fragment;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Knot identifiers of all snippets of a split Template. Computed once by
+ * {@link KnotxSplitterHandler}, so the Server knows which Knots have anything to process without
+ * sending them the context.
+ */
+class FragmentIndex {
+
+  static final String KEY = "knotx.fragmentIndex";
+
+  private final Set<String> knots;
+
+  private FragmentIndex(Set<String> knots) {
+    this.knots = Collections.unmodifiableSet(knots);
+  }
+
+  static FragmentIndex of(List<Fragment> fragments) {
+    Set<String> knots = new HashSet<>();
+    Optional.ofNullable(fragments).ifPresent(list -> list.stream()
+        .filter(fragment -> !fragment.isRaw())
+        .forEach(fragment -> knots.addAll(fragment.knots())));
+    return new FragmentIndex(knots);
+  }
+
+  static Optional<FragmentIndex> of(RoutingContext context) {
+    return Optional.ofNullable(context.get(KEY));
+  }
+
+  /**
+   * @return Knot identifiers of all snippets.
+   */
+  Set<String> knots() {
+    return knots;
+  }
+
+  /**
+   * @return <tt>true</tt> if the Template has at least one snippet.
+   */
+  boolean hasSnippets() {
+    return !knots.isEmpty();
+  }
+}
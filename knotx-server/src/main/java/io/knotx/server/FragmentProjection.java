@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import com.google.common.collect.Lists;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.server.configuration.RoutingEntry;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A view of {@link KnotContext} containing only the fragments processed by a single Knot, so
+ * static markup and snippets of other Knots are not sent over the event bus. Fragments returned
+ * by the Knot are merged back into the original context by their index.
+ */
+class FragmentProjection {
+
+  private final KnotContext original;
+
+  private final List<Integer> indexes;
+
+  private final BitSet included;
+
+  private final KnotContext projected;
+
+  private FragmentProjection(KnotContext original, RoutingEntry routingEntry) {
+    this.original = original;
+    this.indexes = new ArrayList<>();
+    List<Fragment> fragments = original.getFragments();
+    for (int i = 0; i < fragments.size(); i++) {
+      if (routingEntry.processes(fragments.get(i))) {
+        indexes.add(i);
+      }
+    }
+    this.included = toBitSet(indexes);
+    this.projected = project(original.getClientResponse());
+  }
+
+  private FragmentProjection(KnotContext original, List<Integer> indexes) {
+    this.original = original;
+    this.indexes = indexes;
+    this.included = toBitSet(indexes);
+    this.projected = project(new ClientResponse(original.getClientResponse().toJson()));
+  }
+
+  private KnotContext project(ClientResponse clientResponse) {
+    return new KnotContext()
+        .setTransition(original.getTransition())
+        .setClientRequest(original.getClientRequest())
+        .setClientResponse(clientResponse)
+        .setFragments(indexes.stream().map(original.getFragments()::get)
+            .collect(Collectors.toList()));
+  }
+
+  private static BitSet toBitSet(List<Integer> indexes) {
+    BitSet bitSet = new BitSet();
+    indexes.forEach(bitSet::set);
+    return bitSet;
+  }
+
+  /**
+   * @param knotContext - the context of the request.
+   * @param routingEntry - routing entry of the Knot.
+   * @return a projection of the context if the routing entry declares the Knots it processes,
+   * empty otherwise.
+   */
+  static Optional<FragmentProjection> of(KnotContext knotContext, RoutingEntry routingEntry) {
+    return knotContext.getFragments() != null && routingEntry.hasKnots()
+        ? Optional.of(new FragmentProjection(knotContext, routingEntry))
+        : Optional.empty();
+  }
+
+  /**
+   * @return the context to be sent to the Knot.
+   */
+  KnotContext projected() {
+    return projected;
+  }
+
+  /**
+   * @return number of the projected fragments.
+   */
+  int size() {
+    return indexes.size();
+  }
+
+  /**
+   * @param index - index of a fragment in the original context.
+   * @return <tt>true</tt> if the fragment is a part of the projection.
+   */
+  boolean includes(int index) {
+    return index >= 0 && included.get(index);
+  }
+
+  /**
+   * Splits the projection into batches of fragments, which can be processed at the same time.
+   * Each batch has its own copy of the response metadata.
+   *
+   * @param batchSize - maximum number of fragments in a batch.
+   * @return projections of consecutive fragments, in the original order.
+   */
+  List<FragmentProjection> batches(int batchSize) {
+    return Lists.partition(indexes, batchSize).stream()
+        .map(batch -> new FragmentProjection(original, batch))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Puts fragments processed by the Knot back in place of the projected ones.
+   *
+   * @param processed - the context returned by the Knot.
+   * @return the context returned by the Knot, with all fragments of the request.
+   * @throws IllegalStateException if the Knot returned a different number of fragments than it
+   * got.
+   */
+  KnotContext merge(KnotContext processed) {
+    List<Fragment> fragments = processed.getFragments();
+    if (fragments == null) {
+      // e.g. a redirect or an error response, no markup to render
+      return processed;
+    }
+    if (fragments.size() != indexes.size()) {
+      throw new IllegalStateException(
+          "Knot returned " + fragments.size() + " fragments, " + indexes.size() + " expected");
+    }
+    List<Fragment> merged = new ArrayList<>(original.getFragments());
+    for (int i = 0; i < indexes.size(); i++) {
+      merged.set(indexes.get(i), fragments.get(i));
+    }
+    return processed.setFragments(merged);
+  }
+}
@@ -16,18 +16,22 @@
 package io.knotx.server;
 
 import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
 import io.knotx.dataobjects.KnotContext;
 import io.knotx.reactivex.proxy.KnotProxy;
 import io.knotx.server.configuration.KnotxServerConfiguration;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Handler;
-import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.core.http.HttpServerResponse;
 import io.vertx.reactivex.ext.web.RoutingContext;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 
 public class KnotxAssemblerHandler implements Handler<RoutingContext> {
 
@@ -37,10 +41,14 @@ public class KnotxAssemblerHandler implements Handler<RoutingContext> {
 
   private KnotxServerConfiguration configuration;
 
+  private AllowedResponseHeaders allowedHeaders;
+
   private KnotxAssemblerHandler(Vertx vertx, KnotxServerConfiguration configuration) {
     this.configuration = configuration;
-    this.assembler = KnotProxy.createProxyWithOptions(vertx, configuration.getDefaultFlow().assemblerAddress(),
-        configuration.getDeliveryOptions());
+    this.allowedHeaders = new AllowedResponseHeaders(configuration.getAllowedResponseHeaders());
+    this.assembler = KnotProxy.newInstance(configuration.getEventBusCodec()
+        .knotProxy(vertx.getDelegate(), configuration.getDefaultFlow().assemblerAddress(),
+            configuration.getDeliveryOptions()));
   }
 
   static KnotxAssemblerHandler create(Vertx vertx, KnotxServerConfiguration configuration) {
@@ -51,61 +59,124 @@ public class KnotxAssemblerHandler implements Handler<RoutingContext> {
   public void handle(RoutingContext context) {
     KnotContext knotContext = context.get(KnotContext.KEY);
 
-    if (isOkClientResponse(knotContext.getClientResponse())) {
+    if (isOkClientResponse(knotContext.getClientResponse()) && hasOnlyRawFragments(context,
+        knotContext)) {
+      LOGGER.debug("No snippets in {}, skipping the assembler",
+          knotContext.getClientRequest().getPath());
+      onAssembled(context, joinRawFragments(knotContext));
+    } else if (isOkClientResponse(knotContext.getClientResponse())) {
       assembler.rxProcess(knotContext)
           .doOnSuccess(this::traceMessage)
           .subscribe(
-              ctx -> {
-                if (isOkClientResponse(ctx.getClientResponse())) {
-                  sendResponse(context, ctx.getClientResponse());
-                } else {
-                  context.fail(ctx.getClientResponse().getStatusCode());
-                }
-              },
+              ctx -> onAssembled(context, ctx),
               error -> {
                 LOGGER.error("Error happened while communicating with {} engine", error,
                     configuration.getDefaultFlow().splitterAddress());
                 context.fail(error);
               }
           );
+    } else if (isFlushed(context)) {
+      // status of an already started response can not be changed
+      context.fail(knotContext.getClientResponse().getStatusCode());
     } else {
       sendResponse(context, knotContext.getClientResponse());
     }
   }
 
+  private void onAssembled(RoutingContext context, KnotContext ctx) {
+    if (isOkClientResponse(ctx.getClientResponse()) && ctx.getFragments() != null) {
+      sendChunkedResponse(context, ctx.getClientResponse(), ctx.getFragments());
+    } else if (isOkClientResponse(ctx.getClientResponse())) {
+      sendResponse(context, ctx.getClientResponse());
+    } else if (isFlushed(context) && ctx.getClientResponse().getStatusCode()
+        == HttpResponseStatus.NO_CONTENT.code()) {
+      // nothing more to add to the flushed page head
+      context.response().end();
+    } else {
+      context.fail(ctx.getClientResponse().getStatusCode());
+    }
+  }
+
+  /**
+   * @return <tt>true</tt> if the split Template had no snippets, so there is nothing to assemble
+   * but joining the static fragments.
+   */
+  private boolean hasOnlyRawFragments(RoutingContext context, KnotContext knotContext) {
+    return knotContext.getFragments() != null && !knotContext.getFragments().isEmpty()
+        && FragmentIndex.of(context).map(index -> !index.hasSnippets()).orElse(false);
+  }
+
+  /**
+   * Joins raw fragments the same way the Fragment Assembler does.
+   */
+  private KnotContext joinRawFragments(KnotContext knotContext) {
+    ClientResponse clientResponse = knotContext.getClientResponse();
+    List<Fragment> fragments = knotContext.getFragments();
+    if (fragments.stream().map(Fragment::content).allMatch(StringUtils::isBlank)) {
+      clientResponse.setStatusCode(HttpResponseStatus.NO_CONTENT.code());
+    } else {
+      int length = fragments.stream().mapToInt(fragment -> fragment.content().length()).sum();
+      Buffer body = Buffer.buffer(length + length / 8);
+      fragments.forEach(
+          fragment -> body.appendString(fragment.content(), StandardCharsets.UTF_8.name()));
+      clientResponse.setBody(body.getDelegate());
+    }
+    return new KnotContext()
+        .setClientRequest(knotContext.getClientRequest())
+        .setClientResponse(clientResponse);
+  }
+
   private boolean isOkClientResponse(ClientResponse clientResponse) {
     return clientResponse.getStatusCode() == HttpResponseStatus.OK.code();
   }
 
+  /**
+   * @return <tt>true</tt> if the beginning of the page was already sent by
+   * {@link KnotxEarlyFlushHandler}.
+   */
+  private boolean isFlushed(RoutingContext context) {
+    return context.response().headWritten();
+  }
+
   private void sendResponse(final RoutingContext context, final ClientResponse clientResponse) {
     HttpServerResponse httpResponse = context.response();
-    writeHeaders(context.response(), clientResponse);
-
-    httpResponse.setStatusCode(clientResponse.getStatusCode());
+    if (!isFlushed(context)) {
+      allowedHeaders.write(httpResponse, clientResponse);
+      httpResponse.setStatusCode(clientResponse.getStatusCode());
+    }
 
     if (isOkClientResponse(clientResponse)) {
+      if (KnotxPageCacheHandler.isCapturing(context)) {
+        KnotxPageCacheHandler.capture(context, httpResponse.headers().getDelegate(),
+            clientResponse.getBody().getBytes());
+      }
       httpResponse.end(Buffer.newInstance(clientResponse.getBody()));
     } else {
       httpResponse.end();
     }
   }
 
-  private void writeHeaders(final HttpServerResponse response,
-      final ClientResponse clientResponse) {
-    clientResponse.getHeaders().names().stream()
-        .filter(this::headerFilter)
-        .forEach(
-            name ->
-                clientResponse.getHeaders()
-                    .getAll(name)
-                    .forEach(value -> response.headers().add(name, value))
-        );
-
-    response.headers().remove(HttpHeaders.CONTENT_LENGTH.toString());
-  }
-
-  private Boolean headerFilter(String name) {
-    return configuration.getAllowedResponseHeaders().contains(name.toLowerCase());
+  /**
+   * Writes fragments assembled in the chunked mode one by one, using chunked transfer encoding,
+   * so no single buffer with the whole page is created. The Assembler replies with all fragments
+   * in one message, so writing starts only when the whole page is assembled.
+   */
+  private void sendChunkedResponse(final RoutingContext context, final ClientResponse clientResponse,
+      final List<Fragment> fragments) {
+    HttpServerResponse httpResponse = context.response();
+    if (!isFlushed(context)) {
+      allowedHeaders.write(httpResponse, clientResponse);
+      httpResponse.setStatusCode(clientResponse.getStatusCode()).setChunked(true);
+    }
+    List<String> contents = fragments.stream()
+        .map(Fragment::content)
+        .filter(StringUtils::isNotEmpty)
+        .collect(Collectors.toList());
+    if (KnotxPageCacheHandler.isCapturing(context)) {
+      KnotxPageCacheHandler.capture(context, httpResponse.headers().getDelegate(),
+          String.join("", contents).getBytes(StandardCharsets.UTF_8));
+    }
+    ChunkedPageWriter.write(httpResponse, contents);
   }
 
   private void traceMessage(KnotContext ctx) {
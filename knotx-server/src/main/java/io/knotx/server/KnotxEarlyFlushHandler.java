@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.server.configuration.KnotxServerConfiguration;
+import io.vertx.core.Handler;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends the leading raw fragments of a split Template (usually the page head, CSS and the static
+ * navigation) to the client before Knots start processing the snippets. The response is started
+ * with the status and headers known after the Repository call and continued with chunked transfer
+ * encoding, the remaining fragments are written by {@link KnotxAssemblerHandler}.
+ */
+public class KnotxEarlyFlushHandler implements Handler<RoutingContext> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(KnotxEarlyFlushHandler.class);
+
+  private AllowedResponseHeaders allowedHeaders;
+
+  private KnotxEarlyFlushHandler(KnotxServerConfiguration configuration) {
+    this.allowedHeaders = new AllowedResponseHeaders(configuration.getAllowedResponseHeaders());
+  }
+
+  static KnotxEarlyFlushHandler create(KnotxServerConfiguration configuration) {
+    return new KnotxEarlyFlushHandler(configuration);
+  }
+
+  @Override
+  public void handle(RoutingContext context) {
+    KnotContext knotContext = context.get(KnotContext.KEY);
+    List<Fragment> fragments = knotContext.getFragments();
+
+    int leadingRaw = 0;
+    while (leadingRaw < fragments.size() && fragments.get(leadingRaw).isRaw()) {
+      leadingRaw++;
+    }
+
+    // a page without snippets is sent by the Assembler at once, a page that is going to be cached
+    // has to be captured as a whole
+    if (leadingRaw > 0 && leadingRaw < fragments.size()
+        && !KnotxPageCacheHandler.isCapturing(context)) {
+      HttpServerResponse httpResponse = context.response();
+      allowedHeaders.write(httpResponse, knotContext.getClientResponse());
+      httpResponse.setStatusCode(knotContext.getClientResponse().getStatusCode()).setChunked(true);
+      fragments.subList(0, leadingRaw).forEach(fragment -> httpResponse.write(fragment.content()));
+
+      LOGGER.debug("Flushed {} leading raw fragments of {}", leadingRaw,
+          knotContext.getClientRequest().getPath());
+      knotContext.setFragments(new ArrayList<>(fragments.subList(leadingRaw, fragments.size())));
+    }
+    context.next();
+  }
+}
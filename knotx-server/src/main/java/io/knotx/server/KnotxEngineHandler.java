@@ -15,86 +15,245 @@
  */
 package io.knotx.server;
 
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
 import io.knotx.dataobjects.KnotContext;
 import io.knotx.reactivex.proxy.KnotProxy;
 import io.knotx.server.configuration.KnotxServerConfiguration;
 import io.knotx.server.configuration.RoutingEntry;
 import io.knotx.util.OptionalAction;
+import io.reactivex.Single;
 import io.vertx.core.Handler;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 
 class KnotxEngineHandler implements Handler<RoutingContext> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(KnotxEngineHandler.class);
 
+  private static final String DEFAULT_TRANSITION = "next";
+
   private Vertx vertx;
   private KnotxServerConfiguration configuration;
-  private String address;
-  private Map<String, RoutingEntry> routing;
   private Map<String, KnotProxy> proxies;
 
-  private KnotxEngineHandler(Vertx vertx, KnotxServerConfiguration configuration, String address,
-      Map<String, RoutingEntry> routing) {
+  private KnotxEngineHandler(Vertx vertx, KnotxServerConfiguration configuration) {
     this.vertx = vertx;
     this.configuration = configuration;
-    this.address = address;
-    this.routing = routing;
     this.proxies = new HashMap<>();
   }
 
-  static KnotxEngineHandler create(Vertx vertx, KnotxServerConfiguration configuration, String address,
-      Map<String, RoutingEntry> routing) {
-    return new KnotxEngineHandler(vertx, configuration, address, routing);
+  static KnotxEngineHandler create(Vertx vertx, KnotxServerConfiguration configuration) {
+    return new KnotxEngineHandler(vertx, configuration);
   }
 
   @Override
   public void handle(RoutingContext context) {
     try {
-      handleRoute(context, address, routing);
+      handleRoute(context, context.<ResolvedRoute>get(ResolvedRoute.KEY).routingEntry());
     } catch (Exception ex) {
       LOGGER.error("Something very unexpected happened", ex);
       context.fail(ex);
     }
   }
 
-  private void handleRoute(final RoutingContext context, final String address,
-      final Map<String, RoutingEntry> routing) {
+  private void handleRoute(final RoutingContext context, final RoutingEntry routingEntry) {
     KnotContext knotContext = context.get(KnotContext.KEY);
 
-    proxies.computeIfAbsent(address,
-        adr -> KnotProxy.createProxyWithOptions(vertx, adr, configuration.getDeliveryOptions()))
-        .rxProcess(knotContext)
+    (routingEntry.isParallel()
+        ? processParallel(context, knotContext, routingEntry)
+        : process(context, knotContext, routingEntry))
         .doOnSuccess(ctx -> context.put(KnotContext.KEY, ctx))
         .subscribe(
-            ctx -> OptionalAction.of(Optional.ofNullable(ctx.getTransition()))
-                .ifPresent(on -> {
-                  RoutingEntry entry = routing.get(on);
-                  if (entry != null) {
-                    handleRoute(context, entry.address(), entry.onTransition());
-                  } else {
-                    LOGGER.debug(
-                        "Received transition '{}' from '{}'. No further routing available for the transition. Go to the response generation.",
-                        on, address);
-                    // last knot can return default transition
-                    context.put(KnotContext.KEY, ctx);
-                    context.next();
-                  }
-                })
-                .ifNotPresent(() -> {
-                  LOGGER.debug("Request processing finished by {} Knot. Go to the response generation", address);
-                  context.put(KnotContext.KEY, ctx);
-                  context.next();
-                }),
-            error -> {
-              LOGGER.error("Error happened while communicating with {} engine", error, address);
-              context.fail(error);
-            }
+            ctx -> onProcessed(context, routingEntry, ctx),
+            context::fail
         );
   }
+
+  private Single<KnotContext> process(final RoutingContext context, final KnotContext knotContext,
+      final RoutingEntry routingEntry) {
+    Optional<FragmentIndex> fragmentIndex = FragmentIndex.of(context);
+
+    if (fragmentIndex.isPresent() && !routingEntry.processesAnyOf(fragmentIndex.get().knots())) {
+      // the same what the Knot would answer, without the event bus round trip
+      LOGGER.debug("No fragments to process by {} Knot, skipping it", knots(routingEntry));
+      return Single.just(knotContext.setTransition(incomingTransition(knotContext)));
+    }
+
+    KnotProxy proxy = proxies.computeIfAbsent(routingEntry.address(),
+        adr -> KnotProxy.newInstance(configuration.getEventBusCodec()
+            .knotProxy(vertx.getDelegate(), adr, configuration.getDeliveryOptions())));
+    Optional<FragmentProjection> projection = FragmentProjection.of(knotContext, routingEntry);
+
+    final Single<KnotContext> processed;
+    if (projection.isPresent() && routingEntry.batchSize() > 0
+        && projection.get().size() > routingEntry.batchSize()) {
+      processed = processInBatches(proxy, knotContext,
+          projection.get().batches(routingEntry.batchSize()));
+    } else {
+      processed = proxy
+          .rxProcess(projection.map(FragmentProjection::projected).orElse(knotContext))
+          .map(ctx -> projection.map(p -> p.merge(ctx)).orElse(ctx));
+    }
+    return processed.doOnError(error -> LOGGER.error("Error happened while communicating with {} engine",
+            error, knots(routingEntry)));
+  }
+
+  /**
+   * Sends batches of fragments to the Knot at once, so they are spread over all the Knot
+   * instances listening on its address.
+   */
+  private Single<KnotContext> processInBatches(final KnotProxy proxy,
+      final KnotContext knotContext, final List<FragmentProjection> batches) {
+    List<Single<KnotContext>> calls = batches.stream()
+        .map(batch -> proxy.rxProcess(batch.projected()).map(batch::merge))
+        .collect(Collectors.toList());
+    List<IntPredicate> owners = batches.stream()
+        .map(batch -> (IntPredicate) batch::includes)
+        .collect(Collectors.toList());
+    return Single.zip(calls, results -> join(knotContext, owners, results));
+  }
+
+  /**
+   * Sends the context to all Knots of the parallel entry at once. Each Knot gets its own copy of
+   * the response metadata and only the fragments it processes. When a fragment is processed by
+   * more than one of them, they are called one after another in the configured order instead.
+   */
+  private Single<KnotContext> processParallel(final RoutingContext context,
+      final KnotContext knotContext, final RoutingEntry routingEntry) {
+    List<RoutingEntry> branches = routingEntry.parallel();
+    if (hasSharedFragments(knotContext.getFragments(), branches)) {
+      LOGGER.debug("Knots of the parallel entry share fragments, calling them in sequence");
+      return processInSequence(context, knotContext, branches, 0, DEFAULT_TRANSITION);
+    }
+    List<Single<KnotContext>> calls = branches.stream()
+        .map(branch -> process(context, isolated(knotContext), branch))
+        .collect(Collectors.toList());
+    List<Fragment> fragments = knotContext.getFragments();
+    List<IntPredicate> owners = branches.stream()
+        .map(branch -> (IntPredicate) index -> branch.processes(fragments.get(index)))
+        .collect(Collectors.toList());
+    return Single.zip(calls, results -> join(knotContext, owners, results));
+  }
+
+  private Single<KnotContext> processInSequence(final RoutingContext context,
+      final KnotContext knotContext, final List<RoutingEntry> branches, final int index,
+      final String transition) {
+    if (index == branches.size()) {
+      return Single.just(knotContext.setTransition(transition));
+    }
+    final String incoming = knotContext.getTransition();
+    return process(context, knotContext, branches.get(index))
+        .flatMap(ctx -> endsFlow(ctx)
+            ? Single.just(ctx)
+            : processInSequence(context, ctx.setTransition(incoming), branches, index + 1,
+                DEFAULT_TRANSITION.equals(transition) ? ctx.getTransition() : transition));
+  }
+
+  /**
+   * Joins results of the Knot calls made at the same time, in the order of the calls. The first
+   * call that finished the flow (e.g. with a redirect) decides the response, otherwise the first
+   * transition other than the default one is followed. Response metadata is taken from the last
+   * call that modified it. Each fragment is taken from the call that owns its index.
+   */
+  private KnotContext join(KnotContext knotContext, List<IntPredicate> owners,
+      Object[] results) {
+    List<Fragment> original = knotContext.getFragments();
+    List<Fragment> fragments = original == null ? null : new ArrayList<>(original);
+    ClientResponse clientResponse = knotContext.getClientResponse();
+    String transition = DEFAULT_TRANSITION;
+
+    for (int i = 0; i < results.length; i++) {
+      KnotContext result = (KnotContext) results[i];
+      if (endsFlow(result)) {
+        return result;
+      }
+      if (DEFAULT_TRANSITION.equals(transition)) {
+        transition = result.getTransition();
+      }
+      if (!knotContext.getClientResponse().equals(result.getClientResponse())) {
+        clientResponse = result.getClientResponse();
+      }
+      if (fragments != null) {
+        for (int j = 0; j < original.size(); j++) {
+          if (owners.get(i).test(j)) {
+            fragments.set(j, result.getFragments().get(j));
+          }
+        }
+      }
+    }
+    return new KnotContext()
+        .setTransition(transition)
+        .setClientRequest(knotContext.getClientRequest())
+        .setClientResponse(clientResponse)
+        .setFragments(fragments);
+  }
+
+  private boolean hasSharedFragments(List<Fragment> fragments, List<RoutingEntry> branches) {
+    return fragments != null && fragments.stream()
+        .anyMatch(fragment -> branches.stream().filter(branch -> branch.processes(fragment))
+            .count() > 1);
+  }
+
+  private KnotContext isolated(KnotContext knotContext) {
+    return new KnotContext()
+        .setTransition(knotContext.getTransition())
+        .setClientRequest(knotContext.getClientRequest())
+        .setClientResponse(new ClientResponse(knotContext.getClientResponse().toJson()))
+        .setFragments(knotContext.getFragments() == null
+            ? null : new ArrayList<>(knotContext.getFragments()));
+  }
+
+  private boolean endsFlow(KnotContext ctx) {
+    return ctx.getTransition() == null || ctx.getFragments() == null;
+  }
+
+  private String incomingTransition(KnotContext knotContext) {
+    return StringUtils.isBlank(knotContext.getTransition())
+        ? DEFAULT_TRANSITION : knotContext.getTransition();
+  }
+
+  /**
+   * @return the Knot address of the entry, or the addresses of all its Knots for a parallel entry.
+   */
+  private static String knots(RoutingEntry routingEntry) {
+    return routingEntry.isParallel()
+        ? routingEntry.parallel().stream().map(RoutingEntry::address)
+        .collect(Collectors.joining(", ", "[", "]"))
+        : routingEntry.address();
+  }
+
+  private void onProcessed(final RoutingContext context, final RoutingEntry routingEntry,
+      final KnotContext ctx) {
+    final String address = knots(routingEntry);
+    OptionalAction.of(Optional.ofNullable(ctx.getTransition()))
+        .ifPresent(on -> {
+          RoutingEntry entry = routingEntry.onTransition().get(on);
+          if (entry != null) {
+            handleRoute(context, entry);
+          } else {
+            LOGGER.debug(
+                "Received transition '{}' from '{}'. No further routing available for the transition. Go to the response generation.",
+                on, address);
+            // last knot can return default transition
+            context.put(KnotContext.KEY, ctx);
+            context.next();
+          }
+        })
+        .ifNotPresent(() -> {
+          LOGGER.debug("Request processing finished by {} Knot. Go to the response generation", address);
+          context.put(KnotContext.KEY, ctx);
+          context.next();
+        });
+  }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.vertx.core.Handler;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.ext.web.RoutingContext;
+
+/**
+ * Handles failures of requests whose response was already started, e.g. by
+ * {@link KnotxEarlyFlushHandler}. The status and the error page can not be sent any more, so the
+ * connection is closed and the client sees an incomplete response instead of a broken page.
+ * Other failures are passed to the next failure handler.
+ */
+class KnotxFlushedResponseFailureHandler implements Handler<RoutingContext> {
+
+  private static final Logger LOGGER = LoggerFactory
+      .getLogger(KnotxFlushedResponseFailureHandler.class);
+
+  static KnotxFlushedResponseFailureHandler create() {
+    return new KnotxFlushedResponseFailureHandler();
+  }
+
+  @Override
+  public void handle(RoutingContext context) {
+    if (context.response().headWritten()) {
+      LOGGER.error("Processing of {} failed after the response was started",
+          context.failure(), context.request().path());
+      context.response().close();
+    } else {
+      context.next();
+    }
+  }
+}
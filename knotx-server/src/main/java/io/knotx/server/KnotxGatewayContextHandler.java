@@ -36,25 +36,22 @@ public class KnotxGatewayContextHandler implements Handler<RoutingContext> {
 
   private Vertx vertx;
   private KnotxServerConfiguration configuration;
-  private String address;
   private Map<String, KnotProxy> proxies;
 
-  private KnotxGatewayContextHandler(Vertx vertx, KnotxServerConfiguration configuration,
-      String address) {
+  private KnotxGatewayContextHandler(Vertx vertx, KnotxServerConfiguration configuration) {
     this.vertx = vertx;
     this.configuration = configuration;
-    this.address = address;
     this.proxies = new HashMap<>();
   }
 
-  static KnotxGatewayContextHandler create(Vertx vertx, KnotxServerConfiguration configuration,
-      String address) {
-    return new KnotxGatewayContextHandler(vertx, configuration, address);
+  static KnotxGatewayContextHandler create(Vertx vertx, KnotxServerConfiguration configuration) {
+    return new KnotxGatewayContextHandler(vertx, configuration);
   }
 
   @Override
   public void handle(RoutingContext context) {
     KnotContext knotContext = context.get(KnotContext.KEY);
+    String address = context.<ResolvedRoute>get(ResolvedRoute.KEY).routingEntry().address();
 
     String bodyAsString = context.getBodyAsString();
     if (StringUtils.isNotBlank(bodyAsString)) {
@@ -64,7 +61,8 @@ public class KnotxGatewayContextHandler implements Handler<RoutingContext> {
     LOGGER.debug("CustomFlow: Routing the traffic to '{}'", address);
 
     proxies.computeIfAbsent(address,
-        adr -> KnotProxy.createProxyWithOptions(vertx, adr, configuration.getDeliveryOptions()))
+        adr -> KnotProxy.newInstance(configuration.getEventBusCodec()
+            .knotProxy(vertx.getDelegate(), adr, configuration.getDeliveryOptions())))
         .rxProcess(knotContext)
         .doOnSuccess(ctx -> context.put(KnotContext.KEY, ctx))
         .subscribe(
@@ -39,9 +39,9 @@ public class KnotxGatewayResponseProviderHandler implements Handler<RoutingConte
 
   private KnotxGatewayResponseProviderHandler(Vertx vertx, KnotxServerConfiguration configuration) {
     this.configuration = configuration;
-    this.responseProviderProxy = KnotProxy
-        .createProxyWithOptions(vertx, configuration.getCustomFlow().responseProviderAddress(),
-            configuration.getDeliveryOptions());
+    this.responseProviderProxy = KnotProxy.newInstance(configuration.getEventBusCodec()
+        .knotProxy(vertx.getDelegate(), configuration.getCustomFlow().responseProviderAddress(),
+            configuration.getDeliveryOptions()));
   }
 
   static KnotxGatewayResponseProviderHandler create(Vertx vertx, KnotxServerConfiguration configuration) {
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.knotx.server.PageCache.CachedPage;
+import io.knotx.server.PageCache.RouteStatistics;
+import io.knotx.server.configuration.KnotxServerConfiguration;
+import io.knotx.server.configuration.PageCacheRouteEntry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpClient;
+import io.vertx.reactivex.core.http.HttpClientRequest;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves GET requests from the {@link PageCache} before the Repository is called. Pages that are
+ * not cached yet are captured by {@link KnotxAssemblerHandler} when the default flow completes.
+ * A stale page is served immediately while a single background request, sent by the server to
+ * itself, renders the fresh version.
+ */
+public class KnotxPageCacheHandler implements Handler<RoutingContext> {
+
+  static final String REVALIDATE_HEADER = "X-Knotx-Page-Cache-Revalidate";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(KnotxPageCacheHandler.class);
+
+  private static final String CAPTURE_KEY = "knotx.pageCache.capture";
+
+  private static final List<String> NOT_CACHED_HEADERS = Arrays.asList(
+      HttpHeaders.SET_COOKIE.toString(),
+      HttpHeaders.CONTENT_LENGTH.toString(),
+      HttpHeaders.TRANSFER_ENCODING.toString());
+
+  private final PageCache cache;
+
+  private final HttpClient httpClient;
+
+  private final String serverHost;
+
+  private KnotxPageCacheHandler(Vertx vertx, KnotxServerConfiguration configuration,
+      PageCache cache) {
+    this.cache = cache;
+    JsonObject serverOptions = configuration.getServerOptions();
+    this.serverHost = Optional.ofNullable(serverOptions.getString("host"))
+        .filter(host -> !"0.0.0.0".equals(host))
+        .orElse("localhost");
+    // certificates of the server are verified as for any other client, the trust store has to be
+    // set in the client options when the server uses SSL
+    this.httpClient = vertx.createHttpClient(
+        new HttpClientOptions(cache.getConfig().getClientOptions())
+            .setSsl(serverOptions.getBoolean("ssl", false)));
+  }
+
+  static KnotxPageCacheHandler create(Vertx vertx, KnotxServerConfiguration configuration,
+      PageCache cache) {
+    return new KnotxPageCacheHandler(vertx, configuration, cache);
+  }
+
+  /**
+   * Stores the page rendered for a request that missed the cache. Called when the whole response
+   * body is known, does nothing for requests that are not cached.
+   *
+   * @param context - routing context of the request.
+   * @param headers - headers of the response.
+   * @param body - the rendered page.
+   */
+  static void capture(RoutingContext context, MultiMap headers, byte[] body) {
+    PageCapture capture = context.get(CAPTURE_KEY);
+    if (capture != null && !PageCache.isStorable(headers)) {
+      capture.cache.invalidate(capture.key);
+    } else if (capture != null) {
+      MultiMap cachedHeaders = MultiMap.caseInsensitiveMultiMap().addAll(headers);
+      NOT_CACHED_HEADERS.forEach(cachedHeaders::remove);
+      capture.cache.put(capture.key,
+          new CachedPage(cachedHeaders, body, capture.route, System.currentTimeMillis()));
+    }
+  }
+
+  /**
+   * @return <tt>true</tt> if the response of the request is going to be stored in the cache.
+   */
+  static boolean isCapturing(RoutingContext context) {
+    return context.get(CAPTURE_KEY) != null;
+  }
+
+  @Override
+  public void handle(RoutingContext context) {
+    Optional<PageCacheRouteEntry> route = cache.routeFor(context.request().path());
+    if (!route.isPresent()) {
+      context.next();
+      return;
+    }
+
+    String key = cache.key(route.get(), context);
+    RouteStatistics statistics = cache.statistics(route.get());
+    boolean revalidation = isRevalidation(context.request());
+    // the secret is not passed any further, e.g. to the Repository
+    context.request().headers().remove(REVALIDATE_HEADER);
+    CachedPage page = revalidation ? null : cache.get(key);
+    long now = System.currentTimeMillis();
+
+    if (page != null && page.isFresh(now)) {
+      statistics.hit();
+      send(context.response(), page);
+    } else if (page != null && page.isStale(now)) {
+      statistics.staleHit();
+      send(context.response(), page);
+      if (page.startRevalidation()) {
+        revalidate(context.request(), page);
+      }
+    } else {
+      statistics.miss();
+      context.put(CAPTURE_KEY, new PageCapture(cache, key, route.get()));
+      context.next();
+    }
+  }
+
+  private void send(HttpServerResponse response, CachedPage page) {
+    List<Map.Entry<String, String>> headers = page.headers();
+    headers.forEach(header -> response.headers().remove(header.getKey()));
+    headers.forEach(header -> response.headers().add(header.getKey(), header.getValue()));
+    response.setStatusCode(HttpResponseStatus.OK.code())
+        .end(Buffer.buffer(page.body()));
+  }
+
+  /**
+   * Renders the page again with a request to this server that bypasses the cache. The request
+   * carries the original URI, Vary headers and cookies, so the response is stored under the same
+   * key.
+   */
+  private void revalidate(HttpServerRequest request, CachedPage page) {
+    HttpClientRequest revalidation = httpClient
+        .get(cache.getServerPort(), serverHost, request.uri())
+        .putHeader(REVALIDATE_HEADER, cache.getRevalidationToken())
+        .handler(response -> {
+          if (response.statusCode() != HttpResponseStatus.OK.code()) {
+            LOGGER.warn("Page {} revalidation failed with status {}", request.uri(),
+                response.statusCode());
+            page.revalidationFailed();
+          }
+          response.bodyHandler(body -> LOGGER.debug("Page {} revalidated", request.uri()));
+        })
+        .exceptionHandler(error -> {
+          LOGGER.error("Page {} revalidation failed", error, request.uri());
+          page.revalidationFailed();
+        });
+    cache.getConfig().getVaryHeaders().stream()
+        .filter(name -> request.getHeader(name) != null)
+        .forEach(name -> revalidation.putHeader(name, request.getHeader(name)));
+    Optional.ofNullable(request.getHeader(HttpHeaders.COOKIE.toString()))
+        .ifPresent(cookies -> revalidation.putHeader(HttpHeaders.COOKIE.toString(), cookies));
+    revalidation.end();
+  }
+
+  /**
+   * Only requests sent by this server to itself, with the secret of the cache, may bypass the
+   * cache.
+   */
+  private boolean isRevalidation(HttpServerRequest request) {
+    return cache.isRevalidationToken(request.getHeader(REVALIDATE_HEADER));
+  }
+
+  /**
+   * Closes the client the revalidation requests are sent with.
+   */
+  void close() {
+    httpClient.close();
+  }
+
+  private static class PageCapture {
+
+    private final PageCache cache;
+    private final String key;
+    private final PageCacheRouteEntry route;
+
+    private PageCapture(PageCache cache, String key, PageCacheRouteEntry route) {
+      this.cache = cache;
+      this.key = key;
+      this.route = route;
+    }
+  }
+}
@@ -43,10 +43,17 @@ public class KnotxRepositoryHandler implements Handler<RoutingContext> {
 
   private Map<String, RepositoryConnectorProxy> proxies;
 
+  private StaticFileSender staticFileSender;
+
+  private RepositoryStreamer repositoryStreamer;
+
   private KnotxRepositoryHandler(Vertx vertx, KnotxServerConfiguration configuration) {
     this.vertx = vertx;
     this.configuration = configuration;
     this.proxies = new HashMap<>();
+    this.staticFileSender = new StaticFileSender(vertx);
+    this.repositoryStreamer = new RepositoryStreamer(vertx,
+        configuration.getAllowedResponseHeaders());
   }
 
   static KnotxRepositoryHandler create(Vertx vertx, KnotxServerConfiguration configuration) {
@@ -55,13 +62,20 @@ public class KnotxRepositoryHandler implements Handler<RoutingContext> {
 
   @Override
   public void handle(RoutingContext context) {
-    final Optional<RepositoryEntry> repositoryEntry = configuration
-        .getDefaultFlow().repositoryForPath(context.request().path());
+    final Optional<RepositoryEntry> repositoryEntry = ResolvedRoute.of(context)
+        .flatMap(ResolvedRoute::repositoryEntry);
     final KnotContext knotContext = context.get(KnotContext.KEY);
 
-    if (repositoryEntry.isPresent()) {
+    if (repositoryEntry.isPresent() && repositoryEntry.get().isSendFile()
+        && StaticFileSender.supports(context.request())) {
+      staticFileSender.send(context, repositoryEntry.get().directory());
+    } else if (repositoryEntry.isPresent() && repositoryEntry.get().isStreamed()
+        && StaticFileSender.supports(context.request())) {
+      repositoryStreamer.stream(context, repositoryEntry.get().stream());
+    } else if (repositoryEntry.isPresent()) {
       proxies.computeIfAbsent(repositoryEntry.get().address(), adr -> RepositoryConnectorProxy
-          .createProxyWithOptions(vertx, adr, configuration.getDeliveryOptions()))
+          .newInstance(configuration.getEventBusCodec().repositoryConnectorProxy(
+              vertx.getDelegate(), adr, configuration.getDeliveryOptions())))
           .rxProcess(knotContext.getClientRequest())
           .doOnSuccess(this::traceMessage)
           .subscribe(
@@ -15,12 +15,17 @@
  */
 package io.knotx.server;
 
+import io.knotx.server.ResolvedRoute.Flow;
 import io.knotx.server.configuration.KnotxCSRFConfig;
 import io.knotx.server.configuration.KnotxServerConfiguration;
+import io.knotx.server.configuration.PageCacheConfig;
+import io.knotx.util.CacheStatisticsLogger;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
@@ -28,6 +33,7 @@ import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.AbstractVerticle;
 import io.vertx.reactivex.core.http.HttpServer;
 import io.vertx.reactivex.ext.web.Router;
+import io.vertx.reactivex.ext.web.RoutingContext;
 import io.vertx.reactivex.ext.web.handler.BodyHandler;
 import io.vertx.reactivex.ext.web.handler.CSRFHandler;
 import io.vertx.reactivex.ext.web.handler.CookieHandler;
@@ -42,6 +48,12 @@ public class KnotxServerVerticle extends AbstractVerticle {
 
   private KnotxServerConfiguration configuration;
 
+  private PageCache pageCache;
+
+  private KnotxPageCacheHandler pageCacheHandler;
+
+  private long statisticsTimerId = -1;
+
   @Override
   public void init(Vertx vertx, Context context) {
     super.init(vertx, context);
@@ -72,67 +84,70 @@ public class KnotxServerVerticle extends AbstractVerticle {
 
     router.route().handler(KnotxContextHandler.create());
 
-    configuration.getDefaultFlow().getEngineRouting().forEach((key, value) -> {
-      value.forEach(
-          criteria -> {
-            if (criteria.isCsrfEnabled()) {
-              router.route().method(key)
-                  .pathRegex(criteria.path())
-                  .handler(csrfHandler);
-            }
-            router.route()
-                .method(key)
-                .pathRegex(criteria.path())
-                .handler(KnotxRepositoryHandler.create(vertx, configuration));
-
-            router.route()
-                .method(key)
-                .pathRegex(criteria.path())
-                .handler(KnotxSplitterHandler.create(vertx, configuration));
-
-            router.route()
-                .method(key)
-                .pathRegex(criteria.path())
-                .handler(KnotxEngineHandler
-                    .create(vertx, configuration, criteria.address(), criteria.onTransition()));
-
-            router.route()
-                .method(key)
-                .pathRegex(criteria.path())
-                .handler(KnotxAssemblerHandler.create(vertx, configuration));
-          }
-      );
+    PageCacheConfig pageCacheConfig = configuration.getPageCacheConfig();
+    if (pageCacheConfig.isEnabled()) {
+      pageCache = PageCache.shared(vertx, pageCacheConfig);
+      if (pageCacheConfig.getStatisticsLogInterval() > 0) {
+        statisticsTimerId = CacheStatisticsLogger.start(vertx.getDelegate(), LOGGER, "Page cache",
+            pageCache, pageCacheConfig.getStatisticsLogInterval(), pageCache::statistics);
+      }
+    }
+
+    // the route of a request is resolved once by SupportedMethodsAndPathsHandler, flow handlers
+    // are matched by the method only and skip requests of the other flow
+    configuration.getDefaultFlow().getEngineRouting().keySet().forEach(method -> {
+      router.route().method(method)
+          .handler(inFlow(Flow.DEFAULT, csrfIfEnabled(csrfHandler)));
+
+      // pages protected with CSRF tokens are unique per user
+      if (pageCache != null && method == HttpMethod.GET) {
+        pageCacheHandler = KnotxPageCacheHandler.create(vertx, configuration, pageCache);
+        router.route().method(method)
+            .handler(inFlow(Flow.DEFAULT, context -> {
+              if (context.<ResolvedRoute>get(ResolvedRoute.KEY).routingEntry().isCsrfEnabled()) {
+                context.next();
+              } else {
+                pageCacheHandler.handle(context);
+              }
+            }));
+      }
+
+      router.route().method(method)
+          .handler(inFlow(Flow.DEFAULT, KnotxRepositoryHandler.create(vertx, configuration)));
+
+      router.route().method(method)
+          .handler(inFlow(Flow.DEFAULT, KnotxSplitterHandler.create(vertx, configuration)));
+
+      if (configuration.isEarlyFlush() && method == HttpMethod.GET) {
+        router.route().method(method)
+            .handler(inFlow(Flow.DEFAULT, KnotxEarlyFlushHandler.create(configuration)));
+      }
+
+      router.route().method(method)
+          .handler(inFlow(Flow.DEFAULT, KnotxEngineHandler.create(vertx, configuration)));
+
+      router.route().method(method)
+          .handler(inFlow(Flow.DEFAULT, KnotxAssemblerHandler.create(vertx, configuration)));
     });
 
     if (configuration.getCustomFlow().getEngineRouting() != null) {
-      configuration.getCustomFlow().getEngineRouting().forEach((key, value) -> {
-        value.forEach(
-            criteria -> {
-              if (criteria.isCsrfEnabled()) {
-                router.route().method(key)
-                    .pathRegex(criteria.path())
-                    .handler(csrfHandler);
-              }
-              router.route().method(key)
-                  .pathRegex(criteria.path())
-                  .handler(
-                      KnotxGatewayContextHandler.create(vertx, configuration, criteria.address()));
-
-              router.route()
-                  .method(key)
-                  .pathRegex(criteria.path())
-                  .handler(KnotxEngineHandler
-                      .create(vertx, configuration, criteria.address(), criteria.onTransition()));
-
-              router.route()
-                  .method(key)
-                  .pathRegex(criteria.path())
-                  .handler(KnotxGatewayResponseProviderHandler.create(vertx, configuration));
-            }
-        );
+      configuration.getCustomFlow().getEngineRouting().keySet().forEach(method -> {
+        router.route().method(method)
+            .handler(inFlow(Flow.CUSTOM, csrfIfEnabled(csrfHandler)));
+
+        router.route().method(method)
+            .handler(inFlow(Flow.CUSTOM, KnotxGatewayContextHandler.create(vertx, configuration)));
+
+        router.route().method(method)
+            .handler(inFlow(Flow.CUSTOM, KnotxEngineHandler.create(vertx, configuration)));
+
+        router.route().method(method)
+            .handler(inFlow(Flow.CUSTOM,
+                KnotxGatewayResponseProviderHandler.create(vertx, configuration)));
       });
     }
 
+    router.route().failureHandler(KnotxFlushedResponseFailureHandler.create());
     router.route().failureHandler(ErrorHandler.create(configuration.displayExceptionDetails()));
 
     createHttpServer()
@@ -150,6 +165,9 @@ public class KnotxServerVerticle extends AbstractVerticle {
         })
         .rxListen()
         .subscribe(ok -> {
+              if (pageCache != null) {
+                pageCache.setServerPort(ok.actualPort());
+              }
               LOGGER.info("Knot.x HTTP Server started. Listening on port {}",
                   configuration.getServerOptions().getInteger("port"));
               fut.complete();
@@ -162,6 +180,39 @@ public class KnotxServerVerticle extends AbstractVerticle {
 
   }
 
+  @Override
+  public void stop() throws Exception {
+    if (statisticsTimerId != -1) {
+      vertx.cancelTimer(statisticsTimerId);
+    }
+    if (pageCacheHandler != null) {
+      pageCacheHandler.close();
+    }
+  }
+
+  /**
+   * @return handler applied only to requests resolved to the given flow.
+   */
+  private Handler<RoutingContext> inFlow(Flow flow, Handler<RoutingContext> handler) {
+    return context -> {
+      if (ResolvedRoute.of(context).filter(route -> route.flow() == flow).isPresent()) {
+        handler.handle(context);
+      } else {
+        context.next();
+      }
+    };
+  }
+
+  private Handler<RoutingContext> csrfIfEnabled(CSRFHandler csrfHandler) {
+    return context -> {
+      if (context.<ResolvedRoute>get(ResolvedRoute.KEY).routingEntry().isCsrfEnabled()) {
+        csrfHandler.handle(context);
+      } else {
+        context.next();
+      }
+    };
+  }
+
   private HttpServer createHttpServer() {
     JsonObject serverOptions = configuration.getServerOptions();
 
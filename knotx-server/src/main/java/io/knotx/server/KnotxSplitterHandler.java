@@ -34,8 +34,9 @@ public class KnotxSplitterHandler implements Handler<RoutingContext> {
   private KnotxServerConfiguration configuration;
 
   private KnotxSplitterHandler(Vertx vertx, KnotxServerConfiguration configuration) {
-    this.splitter = KnotProxy.createProxyWithOptions(vertx, configuration.getDefaultFlow().splitterAddress(),
-        configuration.getDeliveryOptions());
+    this.splitter = KnotProxy.newInstance(configuration.getEventBusCodec()
+        .knotProxy(vertx.getDelegate(), configuration.getDefaultFlow().splitterAddress(),
+            configuration.getDeliveryOptions()));
     this.configuration = configuration;
   }
 
@@ -53,6 +54,7 @@ public class KnotxSplitterHandler implements Handler<RoutingContext> {
             ctx -> {
               if (ctx.getClientResponse().getStatusCode() == HttpResponseStatus.OK.code()) {
                 context.put(KnotContext.KEY, ctx);
+                context.put(FragmentIndex.KEY, FragmentIndex.of(ctx.getFragments()));
                 context.next();
               } else {
                 context.fail(ctx.getClientResponse().getStatusCode());
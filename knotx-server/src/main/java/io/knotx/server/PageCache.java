@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.knotx.server.configuration.PageCacheConfig;
+import io.knotx.server.configuration.PageCacheRouteEntry;
+import io.knotx.util.CacheStatsConverter;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.ext.web.Cookie;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Rendered pages cache shared by all {@link KnotxServerVerticle} instances deployed in the same
+ * Vert.x instance. Pages are evicted when their total size exceeds the configured maximum weight
+ * or when they are older than the TTL plus the stale-while-revalidate window of their route.
+ */
+class PageCache implements Shareable {
+
+  private static final String SHARED_MAP_NAME = "knotx.server.pageCache";
+
+  private static final String SHARED_KEY = "pageCache";
+
+  private static final List<String> NOT_STORABLE_DIRECTIVES = Arrays
+      .asList("private", "no-store", "no-cache");
+
+  private final PageCacheConfig config;
+
+  private final Cache<String, CachedPage> pages;
+
+  private final Map<String, RouteStatistics> statistics = new ConcurrentHashMap<>();
+
+  private final String revalidationToken = UUID.randomUUID().toString();
+
+  private volatile int serverPort;
+
+  PageCache(PageCacheConfig config) {
+    this.config = config;
+    this.pages = CacheBuilder.newBuilder()
+        .maximumWeight(config.getMaximumWeight())
+        .weigher((String key, CachedPage page) -> key.length() + page.weight())
+        .expireAfterWrite(Math.max(config.getMaximumLifetime(), 1), TimeUnit.MILLISECONDS)
+        .recordStats()
+        .build();
+    config.getRoutes().forEach(route -> statistics.put(route.getPath(), new RouteStatistics()));
+  }
+
+  /**
+   * @return the cache shared by all server verticles of the Vert.x instance, created with the
+   * configuration of the first verticle that asked for it.
+   */
+  static PageCache shared(Vertx vertx, PageCacheConfig config) {
+    LocalMap<String, PageCache> map = vertx.getDelegate().sharedData().getLocalMap(SHARED_MAP_NAME);
+    PageCache created = new PageCache(config);
+    PageCache existing = map.putIfAbsent(SHARED_KEY, created);
+    return existing == null ? created : existing;
+  }
+
+  PageCacheConfig getConfig() {
+    return config;
+  }
+
+  Optional<PageCacheRouteEntry> routeFor(String path) {
+    return config.routeFor(path);
+  }
+
+  /**
+   * Page key consists of the route, request path, query and the values of configured Vary
+   * headers and cookies.
+   */
+  String key(PageCacheRouteEntry route, RoutingContext context) {
+    HttpServerRequest request = context.request();
+    StringBuilder key = new StringBuilder(route.getPath())
+        .append('|').append(request.path())
+        .append('?').append(Optional.ofNullable(request.query()).orElse(""));
+    config.getVaryHeaders().forEach(name -> key.append("|h:").append(name).append('=')
+        .append(Optional.ofNullable(request.getHeader(name)).orElse("")));
+    config.getVaryCookies().forEach(name -> key.append("|c:").append(name).append('=')
+        .append(Optional.ofNullable(context.getCookie(name)).map(Cookie::getValue).orElse("")));
+    return key.toString();
+  }
+
+  CachedPage get(String key) {
+    return pages.getIfPresent(key);
+  }
+
+  void put(String key, CachedPage page) {
+    pages.put(key, page);
+  }
+
+  void invalidate(String key) {
+    pages.invalidate(key);
+  }
+
+  RouteStatistics statistics(PageCacheRouteEntry route) {
+    return statistics.get(route.getPath());
+  }
+
+  int getServerPort() {
+    return serverPort;
+  }
+
+  void setServerPort(int serverPort) {
+    this.serverPort = serverPort;
+  }
+
+  /**
+   * @return random secret sent with the requests that render stale pages again, known only to
+   * the server verticles sharing this cache.
+   */
+  String getRevalidationToken() {
+    return revalidationToken;
+  }
+
+  /**
+   * @return <tt>true</tt> if the token is the secret of this cache.
+   */
+  boolean isRevalidationToken(String token) {
+    return token != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+        revalidationToken.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return <tt>false</tt> if the <tt>Cache-Control</tt> header of the response does not allow
+   * to store it in a shared cache (<tt>private</tt>, <tt>no-store</tt> or <tt>no-cache</tt>).
+   */
+  static boolean isStorable(MultiMap responseHeaders) {
+    return responseHeaders.getAll(HttpHeaders.CACHE_CONTROL.toString()).stream()
+        .flatMap(value -> Arrays.stream(value.split(",")))
+        .map(directive -> StringUtils.substringBefore(directive, "=").trim()
+            .toLowerCase(Locale.ENGLISH))
+        .noneMatch(NOT_STORABLE_DIRECTIVES::contains);
+  }
+
+  /**
+   * @return overall cache statistics with hits, stale hits and misses per route.
+   */
+  JsonObject statistics() {
+    JsonObject routes = new JsonObject();
+    statistics.forEach((path, routeStatistics) -> routes.put(path, routeStatistics.toJson()));
+    return CacheStatsConverter.toJsonObject(pages.stats())
+        .put("size", pages.size())
+        .put("routes", routes);
+  }
+
+  static class CachedPage {
+
+    private final List<Map.Entry<String, String>> headers;
+    private final byte[] body;
+    private final long freshUntil;
+    private final long staleUntil;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    CachedPage(MultiMap headers, byte[] body, PageCacheRouteEntry route, long now) {
+      this.headers = headers.entries().stream()
+          .map(entry -> new SimpleImmutableEntry<>(entry.getKey(), entry.getValue()))
+          .collect(Collectors.toList());
+      this.body = body;
+      this.freshUntil = now + route.getTtl();
+      this.staleUntil = freshUntil + route.getStaleWhileRevalidate();
+    }
+
+    List<Map.Entry<String, String>> headers() {
+      return headers;
+    }
+
+    byte[] body() {
+      return body;
+    }
+
+    boolean isFresh(long now) {
+      return now < freshUntil;
+    }
+
+    boolean isStale(long now) {
+      return !isFresh(now) && now < staleUntil;
+    }
+
+    /**
+     * @return <tt>true</tt> for the only caller that should refresh the page.
+     */
+    boolean startRevalidation() {
+      return revalidating.compareAndSet(false, true);
+    }
+
+    void revalidationFailed() {
+      revalidating.set(false);
+    }
+
+    int weight() {
+      return body.length + headers.stream()
+          .mapToInt(entry -> entry.getKey().length() + entry.getValue().length())
+          .sum();
+    }
+  }
+
+  static class RouteStatistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    void hit() {
+      hits.increment();
+    }
+
+    void staleHit() {
+      staleHits.increment();
+    }
+
+    void miss() {
+      misses.increment();
+    }
+
+    JsonObject toJson() {
+      long served = hits.sum() + staleHits.sum();
+      long requests = served + misses.sum();
+      return new JsonObject()
+          .put("requests", requests)
+          .put("hits", hits.sum())
+          .put("staleHits", staleHits.sum())
+          .put("misses", misses.sum())
+          .put("hitRate", requests == 0 ? 1.0 : (double) served / requests);
+    }
+  }
+}
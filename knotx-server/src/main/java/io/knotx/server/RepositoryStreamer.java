@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.knotx.http.AllowedHeadersFilter;
+import io.knotx.server.configuration.RepositoryStreamConfig;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.MultiMap;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.http.HttpClient;
+import io.vertx.reactivex.core.http.HttpClientRequest;
+import io.vertx.reactivex.core.http.HttpClientResponse;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.core.streams.Pump;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Streams not processed resources straight from the origin to the client. The origin response
+ * body is pumped chunk by chunk with backpressure (reading is paused while the client connection
+ * is not writable), so it is never aggregated in the heap as it is when the resource goes through
+ * a Repository Connector over the event bus.
+ */
+class RepositoryStreamer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryStreamer.class);
+
+  private final Vertx vertx;
+
+  private final Set<String> allowedResponseHeaders;
+
+  private final Map<RepositoryStreamConfig, HttpClient> clients;
+
+  RepositoryStreamer(Vertx vertx, Set<String> allowedResponseHeaders) {
+    this.vertx = vertx;
+    this.allowedResponseHeaders = allowedResponseHeaders;
+    this.clients = new HashMap<>();
+  }
+
+  void stream(RoutingContext context, RepositoryStreamConfig config) {
+    HttpServerRequest request = context.request();
+    HttpServerResponse response = context.response();
+    LOGGER.debug("Streaming `{}` from {}:{}.", request.uri(), config.getDomain(),
+        config.getPort());
+
+    HttpClientRequest originRequest = client(config)
+        .request(request.method(), new RequestOptions()
+            .setSsl(config.isSsl())
+            .setHost(config.getDomain())
+            .setPort(config.getPort())
+            .setURI(request.uri()));
+    originRequest
+        .handler(originResponse -> pipe(request.method(), originResponse, response))
+        .exceptionHandler(error -> fail(request.uri(), error, response));
+    if (config.getRequestTimeout() > 0) {
+      originRequest.setTimeout(config.getRequestTimeout());
+    }
+    writeRequestHeaders(originRequest, request.headers(), config);
+    // stop reading from the origin when the client is gone before the response is complete
+    response
+        .exceptionHandler(error -> {
+          LOGGER.warn("Streaming `{}` to the client interrupted: {}", request.uri(),
+              error.getMessage());
+          originRequest.reset();
+        })
+        .closeHandler(closed -> {
+          if (!response.ended()) {
+            originRequest.reset();
+          }
+        });
+    originRequest.end();
+  }
+
+  void pipe(HttpMethod method, HttpClientResponse originResponse, HttpServerResponse response) {
+    response.setStatusCode(originResponse.statusCode());
+    MultiMap headers = originResponse.headers();
+    headers.names().stream()
+        .filter(name -> allowedResponseHeaders.contains(name.toLowerCase()))
+        .forEach(name -> headers.getAll(name).forEach(value -> response.putHeader(name, value)));
+    if (hasBody(method, originResponse.statusCode())
+        && response.headers().get(HttpHeaderNames.CONTENT_LENGTH.toString()) == null) {
+      response.setChunked(true);
+    }
+
+    originResponse
+        .endHandler(done -> response.end())
+        .exceptionHandler(error -> {
+          LOGGER.error("Streaming from the origin interrupted", error);
+          response.close();
+        });
+    Pump.pump(originResponse, response).start();
+  }
+
+  /**
+   * Responses to <tt>HEAD</tt> requests and <tt>1xx</tt>, <tt>204</tt> and <tt>304</tt>
+   * responses never have a body, so they must not be sent with chunked transfer encoding.
+   */
+  private static boolean hasBody(HttpMethod method, int statusCode) {
+    return method != HttpMethod.HEAD
+        && statusCode >= HttpResponseStatus.OK.code()
+        && statusCode != HttpResponseStatus.NO_CONTENT.code()
+        && statusCode != HttpResponseStatus.NOT_MODIFIED.code();
+  }
+
+  private void fail(String uri, Throwable error, HttpServerResponse response) {
+    LOGGER.error("Error occurred while streaming `{}` from the origin", error, uri);
+    if (response.ended()) {
+      return;
+    }
+    if (response.headWritten()) {
+      response.close();
+    } else if (error instanceof TimeoutException) {
+      response.setStatusCode(HttpResponseStatus.GATEWAY_TIMEOUT.code()).end();
+    } else {
+      response.setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).end();
+    }
+  }
+
+  private void writeRequestHeaders(HttpClientRequest originRequest, MultiMap headers,
+      RepositoryStreamConfig config) {
+    headers.names().stream()
+        .filter(AllowedHeadersFilter.create(config.getAllowedRequestHeaders()))
+        .forEach(name -> headers.getAll(name)
+            .forEach(value -> originRequest.headers().add(name, value)));
+
+    //Overide host header if provided in client destination
+    if (StringUtils.isNotBlank(config.getHostHeader())) {
+      originRequest.headers().set(HttpHeaderNames.HOST.toString(), config.getHostHeader());
+    }
+    if (originRequest.headers().get(HttpHeaderNames.HOST.toString()) != null) {
+      originRequest.setHost(originRequest.headers().get(HttpHeaderNames.HOST.toString()));
+    }
+  }
+
+  private HttpClient client(RepositoryStreamConfig config) {
+    return clients.computeIfAbsent(config,
+        key -> vertx.createHttpClient(new HttpClientOptions(key.getClientOptions())));
+  }
+}
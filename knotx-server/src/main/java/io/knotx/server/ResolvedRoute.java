@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.knotx.server.configuration.RepositoryEntry;
+import io.knotx.server.configuration.RoutingEntry;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.Optional;
+
+/**
+ * The flow, routing entry and repository of a request, resolved once by
+ * {@link SupportedMethodsAndPathsHandler} and read by the flow handlers from the routing context.
+ */
+class ResolvedRoute {
+
+  static final String KEY = "knotx.resolvedRoute";
+
+  enum Flow {
+    DEFAULT,
+    CUSTOM
+  }
+
+  private final Flow flow;
+
+  private final RoutingEntry routingEntry;
+
+  private final RepositoryEntry repositoryEntry;
+
+  ResolvedRoute(Flow flow, RoutingEntry routingEntry, RepositoryEntry repositoryEntry) {
+    this.flow = flow;
+    this.routingEntry = routingEntry;
+    this.repositoryEntry = repositoryEntry;
+  }
+
+  static Optional<ResolvedRoute> of(RoutingContext context) {
+    return Optional.ofNullable(context.get(KEY));
+  }
+
+  Flow flow() {
+    return flow;
+  }
+
+  RoutingEntry routingEntry() {
+    return routingEntry;
+  }
+
+  Optional<RepositoryEntry> repositoryEntry() {
+    return Optional.ofNullable(repositoryEntry);
+  }
+}
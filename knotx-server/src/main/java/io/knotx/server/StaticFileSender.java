@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.impl.MimeMapping;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.file.FileProps;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Sends not processed resources straight from a local directory with
+ * {@link HttpServerResponse#sendFile(String, long, long)}, so the file content is not read into
+ * the heap (it is transferred with zero-copy when the connection allows it). Supports conditional
+ * requests (<tt>If-None-Match</tt>, <tt>If-Modified-Since</tt>) and single byte ranges.
+ */
+class StaticFileSender {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StaticFileSender.class);
+
+  private static final Pattern BYTE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+  private static final String WEAK_PREFIX = "W/";
+
+  private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter
+      .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+      .withZone(ZoneOffset.UTC);
+
+  private final Vertx vertx;
+
+  StaticFileSender(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  /**
+   * @return <tt>true</tt> if the request can be answered with a file.
+   */
+  static boolean supports(HttpServerRequest request) {
+    return request.method() == HttpMethod.GET || request.method() == HttpMethod.HEAD;
+  }
+
+  void send(RoutingContext context, String directory) {
+    Path resolved = resolve(directory, context.normalisedPath());
+    if (resolved == null) {
+      end(context.response(), HttpResponseStatus.NOT_FOUND);
+      return;
+    }
+    String file = resolved.toString();
+    LOGGER.debug("Sending file `{}` from local directory.", file);
+
+    vertx.fileSystem().rxProps(file).subscribe(
+        props -> {
+          if (props.isRegularFile()) {
+            send(context.request(), context.response(), file, props);
+          } else {
+            end(context.response(), HttpResponseStatus.NOT_FOUND);
+          }
+        },
+        error -> end(context.response(), HttpResponseStatus.NOT_FOUND)
+    );
+  }
+
+  private void send(HttpServerRequest request, HttpServerResponse response, String file,
+      FileProps props) {
+    String etag = etag(props);
+    String lastModified = httpDate(props.lastModifiedTime());
+    response.putHeader(HttpHeaderNames.ETAG.toString(), etag)
+        .putHeader(HttpHeaderNames.LAST_MODIFIED.toString(), lastModified)
+        .putHeader(HttpHeaderNames.ACCEPT_RANGES.toString(), "bytes");
+
+    if (notModified(request, etag, props.lastModifiedTime())) {
+      end(response, HttpResponseStatus.NOT_MODIFIED);
+      return;
+    }
+
+    long size = props.size();
+    long offset = 0;
+    long length = size;
+    String range = request.getHeader(HttpHeaderNames.RANGE.toString());
+    String ifRange = request.getHeader(HttpHeaderNames.IF_RANGE.toString());
+    // weak entity tags can not be used with If-Range, only the modification date
+    if (range != null && (ifRange == null || ifRange.equals(lastModified))) {
+      long[] bounds = byteRange(range, size);
+      if (bounds == null) {
+        response.putHeader(HttpHeaderNames.CONTENT_RANGE.toString(), "bytes */" + size);
+        end(response, HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        return;
+      }
+      if (bounds.length == 2) {
+        offset = bounds[0];
+        length = bounds[1] - bounds[0] + 1;
+        response.setStatusCode(HttpResponseStatus.PARTIAL_CONTENT.code())
+            .putHeader(HttpHeaderNames.CONTENT_RANGE.toString(),
+                "bytes " + bounds[0] + "-" + bounds[1] + "/" + size);
+      }
+    }
+
+    // the same headers as the ones sendFile adds, so HEAD and GET responses do not differ
+    String contentType = MimeMapping.getMimeTypeForFilename(file);
+    if (contentType != null) {
+      response.putHeader(HttpHeaderNames.CONTENT_TYPE.toString(), contentType);
+    }
+    if (request.method() == HttpMethod.HEAD) {
+      response.putHeader(HttpHeaderNames.CONTENT_LENGTH.toString(), String.valueOf(length)).end();
+    } else {
+      response.sendFile(file, offset, length);
+    }
+  }
+
+  /**
+   * Resolves the request path against the directory.
+   *
+   * @return the normalized file path or <tt>null</tt> if the path points outside the directory.
+   */
+  static Path resolve(String directory, String path) {
+    if (path == null) {
+      return null;
+    }
+    try {
+      Path root = Paths.get(directory).toAbsolutePath().normalize();
+      Path file = root.resolve(StringUtils.stripStart(path, "/")).normalize();
+      return file.startsWith(root) && !file.equals(root) ? file : null;
+    } catch (InvalidPathException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Parses a single <tt>bytes</tt> range. Other ranges (e.g. many ranges at once) are ignored and
+   * the whole file is sent.
+   *
+   * @return the first and the last byte position, an empty array if the range is ignored or
+   * <tt>null</tt> if it can not be satisfied.
+   */
+  static long[] byteRange(String header, long size) {
+    Matcher matcher = BYTE_RANGE.matcher(header.trim());
+    if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+      return new long[0];
+    }
+    try {
+      long first;
+      long last;
+      if (matcher.group(1).isEmpty()) {
+        // suffix range - the last N bytes
+        long suffix = Long.parseLong(matcher.group(2));
+        if (suffix == 0) {
+          return null;
+        }
+        first = Math.max(size - suffix, 0);
+        last = size - 1;
+      } else {
+        first = Long.parseLong(matcher.group(1));
+        last = matcher.group(2).isEmpty()
+            ? size - 1 : Math.min(Long.parseLong(matcher.group(2)), size - 1);
+      }
+      if (first > last && first < size) {
+        // syntactically invalid range
+        return new long[0];
+      }
+      return first < size ? new long[]{first, last} : null;
+    } catch (NumberFormatException e) {
+      return new long[0];
+    }
+  }
+
+  private static boolean notModified(HttpServerRequest request, String etag, long lastModified) {
+    String ifNoneMatch = request.getHeader(HttpHeaderNames.IF_NONE_MATCH.toString());
+    if (ifNoneMatch != null) {
+      // weak comparison, as for any GET request
+      String opaqueTag = StringUtils.removeStart(etag, WEAK_PREFIX);
+      return Arrays.stream(ifNoneMatch.split(","))
+          .map(String::trim)
+          .anyMatch(tag -> "*".equals(tag)
+              || opaqueTag.equals(StringUtils.removeStart(tag, WEAK_PREFIX)));
+    }
+    String ifModifiedSince = request.getHeader(HttpHeaderNames.IF_MODIFIED_SINCE.toString());
+    if (ifModifiedSince != null) {
+      try {
+        long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+            .toInstant().toEpochMilli();
+        // HTTP dates have a second precision
+        return lastModified / 1000 <= since / 1000;
+      } catch (DateTimeParseException e) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private static String etag(FileProps props) {
+    return WEAK_PREFIX + "\"" + Long.toHexString(props.size()) + "-"
+        + Long.toHexString(props.lastModifiedTime()) + "\"";
+  }
+
+  private static String httpDate(long millis) {
+    return HTTP_DATE.format(Instant.ofEpochMilli(millis));
+  }
+
+  private static void end(HttpServerResponse response, HttpResponseStatus status) {
+    response.setStatusCode(status.code()).end();
+  }
+}
@@ -15,14 +15,17 @@
  */
 package io.knotx.server;
 
+import io.knotx.server.ResolvedRoute.Flow;
 import io.knotx.server.configuration.KnotxFlowConfiguration;
 import io.knotx.server.configuration.KnotxServerConfiguration;
+import io.knotx.server.configuration.RoutingEntry;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.Optional;
 
 public class SupportedMethodsAndPathsHandler implements Handler<RoutingContext> {
 
@@ -47,16 +50,16 @@ public class SupportedMethodsAndPathsHandler implements Handler<RoutingContext>
     final String path = context.request().path();
     final HttpMethod method = context.request().method();
 
-    if (isPathSupportedByFlow(path, defaultFlow)) {
+    if (defaultFlow.supportsPath(path)) {
       if (isMethodAllowedInFlow(method, defaultFlow)) {
-        context.next();
+        resolve(context, method, path);
       } else {
         LOGGER.warn("{} path supported by DefaultFlow. {} method not allowed.", path, method);
         context.fail(HttpResponseStatus.METHOD_NOT_ALLOWED.code());
       }
-    } else if (isPathSupportedByFlow(path, customFlow)) {
+    } else if (customFlow.supportsPath(path)) {
       if (isMethodAllowedInFlow(method, customFlow)) {
-        context.next();
+        resolve(context, method, path);
       } else {
         LOGGER.warn("{} path supported by CustomFlow. {} method not allowed.", path, method);
         context.fail(HttpResponseStatus.METHOD_NOT_ALLOWED.code());
@@ -67,9 +70,21 @@ public class SupportedMethodsAndPathsHandler implements Handler<RoutingContext>
     }
   }
 
-  private boolean isPathSupportedByFlow(final String path, KnotxFlowConfiguration flow) {
-    return flow.getEngineRouting() != null && flow.getEngineRouting().values().stream()
-        .anyMatch(list -> list.stream().anyMatch(item -> path.matches(item.path())));
+  /**
+   * Finds the flow, routing entry and repository of the request, so the following handlers do not
+   * match the path again. A request with no routing entry for its method is not resolved and ends
+   * with 404 when no handler processes it.
+   */
+  private void resolve(RoutingContext context, HttpMethod method, String path) {
+    Optional<RoutingEntry> defaultEntry = defaultFlow.routingEntryFor(method, path);
+    if (defaultEntry.isPresent()) {
+      context.put(ResolvedRoute.KEY, new ResolvedRoute(Flow.DEFAULT, defaultEntry.get(),
+          defaultFlow.repositoryForPath(path).orElse(null)));
+    } else {
+      customFlow.routingEntryFor(method, path).ifPresent(entry ->
+          context.put(ResolvedRoute.KEY, new ResolvedRoute(Flow.CUSTOM, entry, null)));
+    }
+    context.next();
   }
 
   private boolean isMethodAllowedInFlow(final HttpMethod method, KnotxFlowConfiguration flow) {
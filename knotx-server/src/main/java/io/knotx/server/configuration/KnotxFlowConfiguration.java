@@ -18,10 +18,12 @@ package io.knotx.server.configuration;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
@@ -39,16 +41,25 @@ public class KnotxFlowConfiguration {
 
   private EnumMap<HttpMethod, List<RoutingEntry>> engineRouting;
 
+  private PathPatternIndex<RepositoryEntry> repositoryIndex;
+
+  private EnumMap<HttpMethod, PathPatternIndex<RoutingEntry>> routingIndex;
+
+  private PathPatternIndex<RoutingEntry> anyMethodRoutingIndex;
+
   public KnotxFlowConfiguration(JsonObject config) {
     if(config != null) {
-      repositoryAddressMapping = Maps.newHashMap();
+      repositoryAddressMapping = Maps.newLinkedHashMap();
       JsonArray repositories = config.getJsonArray("repositories");
       if (repositories != null) {
         repositories.stream()
             .map(item -> (JsonObject) item)
             .forEach(object -> repositoryAddressMapping.put(object.getString("path"),
                 new RepositoryEntry(object.getString("address"),
-                    object.getBoolean("doProcessing", true))));
+                    object.getBoolean("doProcessing", true),
+                    object.getString("directory"),
+                    object.containsKey("stream")
+                        ? new RepositoryStreamConfig(object.getJsonObject("stream")) : null)));
       }
 
       engineRouting = Maps.newEnumMap(HttpMethod.class);
@@ -58,9 +69,32 @@ public class KnotxFlowConfiguration {
       splitterAddress = getVerticleAddress(config, "splitter");
       assemblerAddress = getVerticleAddress(config, "assembler");
       responseProviderAddress = getVerticleAddress(config, "responseProvider");
+      compileIndexes();
     }
   }
 
+  /**
+   * Compiles the repositories and routing paths once, so resolving a request does not scan and
+   * compile all the patterns again.
+   */
+  private void compileIndexes() {
+    PathPatternIndex.Builder<RepositoryEntry> repositories = PathPatternIndex.builder();
+    repositoryAddressMapping.forEach(repositories::add);
+    repositoryIndex = repositories.build();
+
+    routingIndex = Maps.newEnumMap(HttpMethod.class);
+    PathPatternIndex.Builder<RoutingEntry> anyMethod = PathPatternIndex.builder();
+    engineRouting.forEach((method, entries) -> {
+      PathPatternIndex.Builder<RoutingEntry> methodRouting = PathPatternIndex.builder();
+      entries.forEach(entry -> {
+        methodRouting.add(entry.path(), entry);
+        anyMethod.add(entry.path(), entry);
+      });
+      routingIndex.put(method, methodRouting.build());
+    });
+    anyMethodRoutingIndex = anyMethod.build();
+  }
+
   private void parseMethodRouting(Map.Entry<String, Object> entry) {
     final List<RoutingEntry> methodCriteria = getMethodCriterias(
         HttpMethod.valueOf(entry.getKey()));
@@ -87,7 +121,31 @@ public class KnotxFlowConfiguration {
         object.getString("path"),
         object.getBoolean("csrf", false),
         object.getString("address"),
-        parseOnTransition(object.getJsonObject("onTransition")));
+        parseOnTransition(object.getJsonObject("onTransition")),
+        parseKnots(object),
+        parseParallel(object.getJsonArray("parallel", new JsonArray())),
+        object.getInteger("batchSize", 0));
+  }
+
+  private List<String> parseKnots(JsonObject object) {
+    return object.getJsonArray("knots", new JsonArray()).stream()
+        .map(String::valueOf)
+        .collect(Collectors.toList());
+  }
+
+  private List<RoutingEntry> parseParallel(JsonArray parallel) {
+    return parallel.stream()
+        .map(item -> (JsonObject) item)
+        .map(object -> {
+          if (object.getString("address") == null || parseKnots(object).isEmpty()) {
+            throw new IllegalArgumentException(
+                "Parallel Knot requires both 'address' and 'knots' " + object.encode());
+          }
+          return new RoutingEntry(null, false, object.getString("address"),
+              Collections.emptyMap(), parseKnots(object), Collections.emptyList(),
+              object.getInteger("batchSize", 0));
+        })
+        .collect(Collectors.toList());
   }
 
   private Map<String, RoutingEntry> parseOnTransition(JsonObject onTransition) {
@@ -109,9 +167,23 @@ public class KnotxFlowConfiguration {
   }
 
   public Optional<RepositoryEntry> repositoryForPath(final String path) {
-    return repositoryAddressMapping.entrySet().stream()
-        .filter(mapping -> path.matches(mapping.getKey()))
-        .findFirst().map(Map.Entry::getValue);
+    return repositoryIndex == null ? Optional.empty() : repositoryIndex.first(path);
+  }
+
+  /**
+   * @return the first routing entry of the method whose path matches the request path.
+   */
+  public Optional<RoutingEntry> routingEntryFor(final HttpMethod method, final String path) {
+    return Optional.ofNullable(routingIndex)
+        .map(index -> index.get(method))
+        .flatMap(index -> index.first(path));
+  }
+
+  /**
+   * @return <tt>true</tt> if the flow has a routing entry, for any method, matching the path.
+   */
+  public boolean supportsPath(final String path) {
+    return anyMethodRoutingIndex != null && anyMethodRoutingIndex.matches(path);
   }
 
   public String splitterAddress() {
@@ -15,6 +15,7 @@
  */
 package io.knotx.server.configuration;
 
+import io.knotx.codec.EventBusCodec;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.handler.BodyHandler;
@@ -42,12 +43,18 @@ public class KnotxServerConfiguration {
 
   private DeliveryOptions deliveryOptions;
 
+  private EventBusCodec eventBusCodec;
+
+  private boolean earlyFlush;
+
   private JsonObject customResponseHeader;
 
   private KnotxCSRFConfig csrfConfig;
 
   private AccessLogConfig accessLogConfig;
 
+  private PageCacheConfig pageCacheConfig;
+
   public KnotxServerConfiguration(JsonObject config) {
     displayExceptionDetails = config.getBoolean("displayExceptionDetails", false);
 
@@ -68,9 +75,12 @@ public class KnotxServerConfiguration {
         config.containsKey("deliveryOptions") ? new DeliveryOptions(
             config.getJsonObject("deliveryOptions"))
             : new DeliveryOptions();
+    eventBusCodec = EventBusCodec.from(config);
+    earlyFlush = config.getBoolean("earlyFlush", false);
     csrfConfig = new KnotxCSRFConfig(config.getJsonObject("csrf", new JsonObject()));
 
     accessLogConfig = new AccessLogConfig(config.getJsonObject("accessLog", new JsonObject()));
+    pageCacheConfig = new PageCacheConfig(config.getJsonObject("pageCache", new JsonObject()));
   }
 
   public boolean displayExceptionDetails() {
@@ -105,6 +115,14 @@ public class KnotxServerConfiguration {
     return deliveryOptions;
   }
 
+  public EventBusCodec getEventBusCodec() {
+    return eventBusCodec;
+  }
+
+  public boolean isEarlyFlush() {
+    return earlyFlush;
+  }
+
   public KnotxCSRFConfig getCsrfConfig() {
     return csrfConfig;
   }
@@ -116,4 +134,8 @@ public class KnotxServerConfiguration {
   public AccessLogConfig getAccessLogConfig() {
     return accessLogConfig;
   }
+
+  public PageCacheConfig getPageCacheConfig() {
+    return pageCacheConfig;
+  }
 }
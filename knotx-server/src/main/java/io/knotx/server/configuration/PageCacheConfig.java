@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server.configuration;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class PageCacheConfig {
+
+  private static final boolean DEFAULT_ENABLED = false;
+  private static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024; // 64 MB
+  private static final long DEFAULT_STATISTICS_LOG_INTERVAL = 0;
+
+  private final boolean enabled;
+  private final long maximumWeight;
+  private final List<String> varyHeaders;
+  private final List<String> varyCookies;
+  private final List<PageCacheRouteEntry> routes;
+  private final PathPatternIndex<PageCacheRouteEntry> routeIndex;
+  private final long statisticsLogInterval;
+  private final JsonObject clientOptions;
+
+  public PageCacheConfig(JsonObject config) {
+    enabled = config.getBoolean("enabled", DEFAULT_ENABLED);
+    maximumWeight = config.getLong("maximumWeight", DEFAULT_MAXIMUM_WEIGHT);
+    varyHeaders = strings(config.getJsonArray("varyHeaders", new JsonArray()));
+    varyCookies = strings(config.getJsonArray("varyCookies", new JsonArray()));
+    routes = config.getJsonArray("routes", new JsonArray()).stream()
+        .map(item -> new PageCacheRouteEntry((JsonObject) item))
+        .collect(Collectors.toList());
+    PathPatternIndex.Builder<PageCacheRouteEntry> routeIndexBuilder = PathPatternIndex.builder();
+    routes.forEach(route -> routeIndexBuilder.add(route.getPath(), route));
+    routeIndex = routeIndexBuilder.build();
+    statisticsLogInterval = config
+        .getLong("statisticsLogInterval", DEFAULT_STATISTICS_LOG_INTERVAL);
+    clientOptions = config.getJsonObject("clientOptions", new JsonObject());
+  }
+
+  public boolean isEnabled() {
+    return enabled && !routes.isEmpty();
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  public List<String> getVaryHeaders() {
+    return varyHeaders;
+  }
+
+  public List<String> getVaryCookies() {
+    return varyCookies;
+  }
+
+  public List<PageCacheRouteEntry> getRoutes() {
+    return routes;
+  }
+
+  /**
+   * @return the first route whose path pattern matches the given request path.
+   */
+  public Optional<PageCacheRouteEntry> routeFor(String path) {
+    return routeIndex.first(path);
+  }
+
+  /**
+   * @return the longest time (in milliseconds) a page may stay in the cache, including the time
+   * it may be served stale.
+   */
+  public long getMaximumLifetime() {
+    return routes.stream()
+        .mapToLong(route -> route.getTtl() + route.getStaleWhileRevalidate())
+        .max()
+        .orElse(0);
+  }
+
+  public long getStatisticsLogInterval() {
+    return statisticsLogInterval;
+  }
+
+  /**
+   * @return options of the HTTP client the server sends the stale pages revalidation requests to
+   * itself with.
+   */
+  public JsonObject getClientOptions() {
+    return clientOptions;
+  }
+
+  private static List<String> strings(JsonArray array) {
+    return array.stream().map(String::valueOf).collect(Collectors.toList());
+  }
+}
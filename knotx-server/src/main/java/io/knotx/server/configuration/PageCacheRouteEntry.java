@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server.configuration;
+
+import io.vertx.core.json.JsonObject;
+
+public class PageCacheRouteEntry {
+
+  private static final long DEFAULT_TTL = 60 * 1000; // 1 minute
+  private static final long DEFAULT_STALE_WHILE_REVALIDATE = 0;
+
+  private final String path;
+  private final long ttl;
+  private final long staleWhileRevalidate;
+
+  public PageCacheRouteEntry(JsonObject config) {
+    path = config.getString("path");
+    ttl = config.getLong("ttl", DEFAULT_TTL);
+    staleWhileRevalidate = config
+        .getLong("staleWhileRevalidate", DEFAULT_STALE_WHILE_REVALIDATE);
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public long getTtl() {
+    return ttl;
+  }
+
+  public long getStaleWhileRevalidate() {
+    return staleWhileRevalidate;
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server.configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the first (in the configuration order) value whose path regular expression matches the
+ * whole request path. Patterns are compiled once and indexed in a trie by their literal prefixes
+ * (e.g. <tt>/content/</tt> of <tt>/content/.*</tt>), so a lookup tests only the patterns whose
+ * prefix is a prefix of the path. Patterns without any regular expression syntax are matched with a
+ * hash lookup and never compiled.
+ *
+ * @param <T> - type of indexed values.
+ */
+public final class PathPatternIndex<T> {
+
+  private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+  private static final String QUANTIFIERS = "?*+{";
+
+  private final Map<String, Entry<T>> literals = new HashMap<>();
+
+  private final Node<T> root = new Node<>();
+
+  private final int size;
+
+  private PathPatternIndex(List<String> regexes, List<T> values) {
+    for (int order = 0; order < regexes.size(); order++) {
+      String regex = regexes.get(order);
+      Entry<T> entry = new Entry<>(order, values.get(order));
+      String prefix = literalPrefix(regex);
+      if (prefix == null) {
+        literals.putIfAbsent(unescape(regex), entry);
+      } else {
+        entry.pattern = Pattern.compile(regex);
+        root.descendant(prefix).entries.add(entry);
+      }
+    }
+    this.size = regexes.size();
+  }
+
+  public static <T> Builder<T> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * @param path - request path.
+   * @return the value of the first added pattern that matches the whole path.
+   */
+  public Optional<T> first(String path) {
+    Entry<T> best = literals.get(path);
+    Node<T> node = root;
+    int position = 0;
+    while (node != null) {
+      for (Entry<T> entry : node.entries) {
+        if (best != null && entry.order > best.order) {
+          break;
+        }
+        if (entry.pattern.matcher(path).matches()) {
+          best = entry;
+          break;
+        }
+      }
+      node = position < path.length() ? node.children.get(path.charAt(position++)) : null;
+    }
+    return Optional.ofNullable(best).map(entry -> entry.value);
+  }
+
+  /**
+   * @return <tt>true</tt> if any of the patterns matches the whole path.
+   */
+  public boolean matches(String path) {
+    return first(path).isPresent();
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the literal text every path matching the regular expression starts with, or
+   * <tt>null</tt> if the expression is a literal itself.
+   */
+  static String literalPrefix(String regex) {
+    // with an alternation any branch may match, so only the empty prefix is common
+    if (regex.indexOf('|') >= 0) {
+      return "";
+    }
+    StringBuilder prefix = new StringBuilder();
+    int position = 0;
+    while (position < regex.length()) {
+      char current = regex.charAt(position);
+      char literal;
+      int next;
+      if (current == '\\') {
+        // escaped letters and digits are character classes (\d, \w), quotes or back references
+        if (position + 1 == regex.length()
+            || Character.isLetterOrDigit(regex.charAt(position + 1))) {
+          return prefix.toString();
+        }
+        literal = regex.charAt(position + 1);
+        next = position + 2;
+      } else if (META_CHARACTERS.indexOf(current) >= 0) {
+        return prefix.toString();
+      } else {
+        literal = current;
+        next = position + 1;
+      }
+      // a quantified character is optional or repeated
+      if (next < regex.length() && QUANTIFIERS.indexOf(regex.charAt(next)) >= 0) {
+        return prefix.toString();
+      }
+      prefix.append(literal);
+      position = next;
+    }
+    return null;
+  }
+
+  private static String unescape(String literalRegex) {
+    StringBuilder literal = new StringBuilder(literalRegex.length());
+    for (int position = 0; position < literalRegex.length(); position++) {
+      char current = literalRegex.charAt(position);
+      if (current == '\\') {
+        current = literalRegex.charAt(++position);
+      }
+      literal.append(current);
+    }
+    return literal.toString();
+  }
+
+  public static final class Builder<T> {
+
+    private final List<String> regexes = new ArrayList<>();
+
+    private final List<T> values = new ArrayList<>();
+
+    private Builder() {
+      //use PathPatternIndex.builder()
+    }
+
+    public Builder<T> add(String regex, T value) {
+      regexes.add(regex);
+      values.add(value);
+      return this;
+    }
+
+    public PathPatternIndex<T> build() {
+      return new PathPatternIndex<>(regexes, values);
+    }
+  }
+
+  private static final class Entry<T> {
+
+    private final int order;
+    private final T value;
+    private Pattern pattern;
+
+    private Entry(int order, T value) {
+      this.order = order;
+      this.value = value;
+    }
+  }
+
+  private static final class Node<T> {
+
+    private final Map<Character, Node<T>> children = new HashMap<>();
+    private final List<Entry<T>> entries = new ArrayList<>();
+
+    private Node<T> descendant(String prefix) {
+      Node<T> node = this;
+      for (int i = 0; i < prefix.length(); i++) {
+        node = node.children.computeIfAbsent(prefix.charAt(i), character -> new Node<>());
+      }
+      return node;
+    }
+  }
+}
@@ -19,10 +19,27 @@ public class RepositoryEntry {
 
   private String address;
   private boolean doProcessing;
+  private String directory;
+  private RepositoryStreamConfig stream;
 
   public RepositoryEntry(String address, boolean doProcessing) {
+    this(address, doProcessing, null, null);
+  }
+
+  /**
+   * @param address - event bus address of the Repository Connector.
+   * @param doProcessing - <tt>false</tt> if templates are sent to the client as they are.
+   * @param directory - local directory the not processed resources are sent from directly,
+   * <tt>null</tt> if they are always taken from the Repository Connector.
+   * @param stream - HTTP origin the not processed resources are streamed from directly,
+   * <tt>null</tt> if they are always taken from the Repository Connector.
+   */
+  public RepositoryEntry(String address, boolean doProcessing, String directory,
+      RepositoryStreamConfig stream) {
     this.address = address;
     this.doProcessing = doProcessing;
+    this.directory = directory;
+    this.stream = stream;
   }
 
   public String address() {
@@ -32,4 +49,28 @@ public class RepositoryEntry {
   public boolean doProcessing() {
     return doProcessing;
   }
+
+  public String directory() {
+    return directory;
+  }
+
+  /**
+   * @return <tt>true</tt> if resources are sent to the client from the local {@link #directory()}
+   * without calling the Repository Connector.
+   */
+  public boolean isSendFile() {
+    return !doProcessing && directory != null;
+  }
+
+  public RepositoryStreamConfig stream() {
+    return stream;
+  }
+
+  /**
+   * @return <tt>true</tt> if resources are streamed to the client from the HTTP origin defined by
+   * {@link #stream()} without calling the Repository Connector.
+   */
+  public boolean isStreamed() {
+    return !doProcessing && directory == null && stream != null;
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server.configuration;
+
+import io.knotx.http.StringToPatternFunction;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Origin of not processed resources that are streamed to the client by the Server, with the same
+ * options as the HTTP Repository Connector uses.
+ */
+public class RepositoryStreamConfig {
+
+  private static final String DEFAULT_SCHEME = "http";
+
+  private static final long DEFAULT_REQUEST_TIMEOUT = 30000L;
+
+  private final JsonObject clientOptions;
+  private final boolean ssl;
+  private final String domain;
+  private final int port;
+  private final String hostHeader;
+  private final List<Pattern> allowedRequestHeaders;
+  private final long requestTimeout;
+
+  public RepositoryStreamConfig(JsonObject config) {
+    clientOptions = config.getJsonObject("clientOptions", new JsonObject());
+    JsonObject clientDestination = config.getJsonObject("clientDestination");
+    ssl = "https".equals(clientDestination.getString("scheme", DEFAULT_SCHEME));
+    domain = clientDestination.getString("domain");
+    port = clientDestination.getInteger("port");
+    hostHeader = clientDestination.getString("hostHeader");
+    allowedRequestHeaders = config.getJsonArray("allowedRequestHeaders", new JsonArray())
+        .stream()
+        .map(object -> (String) object)
+        .map(new StringToPatternFunction())
+        .collect(Collectors.toList());
+    requestTimeout = config.getLong("requestTimeout", DEFAULT_REQUEST_TIMEOUT);
+  }
+
+  public JsonObject getClientOptions() {
+    return clientOptions;
+  }
+
+  public boolean isSsl() {
+    return ssl;
+  }
+
+  public String getDomain() {
+    return domain;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public String getHostHeader() {
+    return hostHeader;
+  }
+
+  public List<Pattern> getAllowedRequestHeaders() {
+    return allowedRequestHeaders;
+  }
+
+  /**
+   * @return time in milliseconds the origin request fails after when no data is received from the
+   * origin, <tt>0</tt> if the request never times out.
+   */
+  public long getRequestTimeout() {
+    return requestTimeout;
+  }
+}
@@ -15,7 +15,13 @@
  */
 package io.knotx.server.configuration;
 
+import io.knotx.dataobjects.Fragment;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class RoutingEntry {
 
@@ -23,12 +29,34 @@ public class RoutingEntry {
   private boolean csrfEnabled;
   private String address;
   private Map<String, RoutingEntry> onTransition;
+  private List<Pattern> knots;
+  private List<RoutingEntry> parallel;
+  private int batchSize;
 
   public RoutingEntry(String path, boolean csrfEnabled, String address, Map<String, RoutingEntry> onTransition) {
+    this(path, csrfEnabled, address, onTransition, Collections.emptyList());
+  }
+
+  public RoutingEntry(String path, boolean csrfEnabled, String address,
+      Map<String, RoutingEntry> onTransition, List<String> knots) {
+    this(path, csrfEnabled, address, onTransition, knots, Collections.emptyList());
+  }
+
+  public RoutingEntry(String path, boolean csrfEnabled, String address,
+      Map<String, RoutingEntry> onTransition, List<String> knots, List<RoutingEntry> parallel) {
+    this(path, csrfEnabled, address, onTransition, knots, parallel, 0);
+  }
+
+  public RoutingEntry(String path, boolean csrfEnabled, String address,
+      Map<String, RoutingEntry> onTransition, List<String> knots, List<RoutingEntry> parallel,
+      int batchSize) {
     this.path = path;
     this.csrfEnabled = csrfEnabled;
     this.address = address;
     this.onTransition = onTransition;
+    this.knots = knots.stream().map(Pattern::compile).collect(Collectors.toList());
+    this.parallel = parallel;
+    this.batchSize = batchSize;
   }
 
   public String path() {
@@ -46,4 +74,56 @@ public class RoutingEntry {
   public Map<String, RoutingEntry> onTransition() {
     return onTransition;
   }
+
+  /**
+   * @return Knots called at the same time instead of a single Knot at {@link #address()}, empty if
+   * the entry is not a parallel one.
+   */
+  public List<RoutingEntry> parallel() {
+    return parallel;
+  }
+
+  public boolean isParallel() {
+    return !parallel.isEmpty();
+  }
+
+  /**
+   * @return maximum number of fragments sent to the Knot in a single message, <tt>0</tt> when all
+   * of them are sent together.
+   */
+  public int batchSize() {
+    return batchSize;
+  }
+
+  /**
+   * @param fragmentKnots - Knot identifiers of all fragments of the page.
+   * @return <tt>true</tt> if the Knot has to be called for the page, i.e. no <tt>knots</tt> are
+   * configured for the entry or a page fragment has a Knot identifier matching one of them.
+   */
+  public boolean processesAnyOf(Set<String> fragmentKnots) {
+    if (isParallel()) {
+      return parallel.stream().anyMatch(branch -> branch.processesAnyOf(fragmentKnots));
+    }
+    return knots.isEmpty() || fragmentKnots.stream().anyMatch(this::matches);
+  }
+
+  /**
+   * @return <tt>true</tt> if the entry declares which snippet Knot identifiers it processes.
+   */
+  public boolean hasKnots() {
+    return !knots.isEmpty();
+  }
+
+  /**
+   * @param fragment - a fragment of the page.
+   * @return <tt>true</tt> if the fragment is a snippet with a Knot identifier matching one of the
+   * configured <tt>knots</tt>.
+   */
+  public boolean processes(Fragment fragment) {
+    return !fragment.isRaw() && fragment.knots().stream().anyMatch(this::matches);
+  }
+
+  private boolean matches(String knot) {
+    return knots.stream().anyMatch(pattern -> pattern.matcher(knot).matches());
+  }
 }
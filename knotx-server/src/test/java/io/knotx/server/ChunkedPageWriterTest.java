@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Handler;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ChunkedPageWriterTest {
+
+  @Mock
+  private HttpServerResponse response;
+
+  @Test
+  public void write_whenClientKeepsUp_expectEachPartWrittenAsChunkInOrder() {
+    ChunkedPageWriter.write(response, Arrays.asList("<html>", "<body>", "</body></html>"));
+
+    InOrder chunks = inOrder(response);
+    chunks.verify(response).write("<html>");
+    chunks.verify(response).write("<body>");
+    chunks.verify(response).write("</body></html>");
+    chunks.verify(response).end();
+    verify(response, never()).drainHandler(any());
+  }
+
+  @Test
+  public void write_whenNoParts_expectResponseEnded() {
+    ChunkedPageWriter.write(response, Collections.emptyList());
+
+    verify(response).end();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void write_whenWriteQueueFull_expectWritingResumedAfterDrain() {
+    when(response.writeQueueFull()).thenReturn(true);
+
+    ChunkedPageWriter.write(response, Arrays.asList("<html>", "<body>", "</body></html>"));
+
+    ArgumentCaptor<Handler<Void>> drain = ArgumentCaptor.forClass((Class) Handler.class);
+    verify(response).write("<html>");
+    verify(response, never()).write("<body>");
+    verify(response, never()).end();
+    verify(response).drainHandler(drain.capture());
+
+    when(response.writeQueueFull()).thenReturn(false);
+    drain.getValue().handle(null);
+
+    InOrder chunks = inOrder(response);
+    chunks.verify(response).write("<body>");
+    chunks.verify(response).write("</body></html>");
+    chunks.verify(response).end();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.server.configuration.RoutingEntry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+
+public class FragmentProjectionTest {
+
+  private static final Fragment HEADER = Fragment.raw("<header/>");
+  private static final Fragment SERVICES = Fragment
+      .snippet(Collections.singletonList("services"), "<div>services</div>");
+  private static final Fragment TEMPLATE = Fragment
+      .snippet(Arrays.asList("services", "handlebars"), "<div>{{message}}</div>");
+  private static final Fragment FOOTER = Fragment.raw("<footer/>");
+
+  @Test
+  public void of_whenEntryWithoutKnots_expectNoProjection() {
+    RoutingEntry entry = new RoutingEntry(".*", false, "knot", Collections.emptyMap());
+
+    assertThat(FragmentProjection.of(context(), entry), equalTo(Optional.empty()));
+  }
+
+  @Test
+  public void projected_expectOnlyFragmentsProcessedByKnot() {
+    KnotContext projected = FragmentProjection.of(context(), entry("handlebars")).get()
+        .projected();
+
+    assertThat(projected.getFragments(), equalTo(Collections.singletonList(TEMPLATE)));
+    assertThat(projected.getTransition(), equalTo("next"));
+  }
+
+  @Test
+  public void includes_expectOnlyIndexesOfProjectedFragments() {
+    FragmentProjection projection = FragmentProjection.of(context(), entry("services")).get();
+
+    assertThat(projection.includes(1), equalTo(true));
+    assertThat(projection.includes(2), equalTo(true));
+    assertThat(projection.includes(0), equalTo(false));
+    assertThat(projection.includes(3), equalTo(false));
+    assertThat(projection.includes(4), equalTo(false));
+    assertThat(projection.includes(-1), equalTo(false));
+  }
+
+  @Test
+  public void merge_expectProcessedFragmentsInPlaceOfProjectedOnes() {
+    FragmentProjection projection = FragmentProjection.of(context(), entry("services")).get();
+    Fragment processedServices = Fragment.raw("<div>services processed</div>");
+    Fragment processedTemplate = Fragment.raw("<div>template processed</div>");
+
+    KnotContext merged = projection.merge(new KnotContext().setTransition("go")
+        .setFragments(Arrays.asList(processedServices, processedTemplate)));
+
+    assertThat(merged.getFragments(),
+        equalTo(Arrays.asList(HEADER, processedServices, processedTemplate, FOOTER)));
+    assertThat(merged.getTransition(), equalTo("go"));
+  }
+
+  @Test
+  public void merge_whenKnotClearedFragments_expectNoFragments() {
+    FragmentProjection projection = FragmentProjection.of(context(), entry("services")).get();
+
+    assertThat(projection.merge(new KnotContext()).getFragments(), nullValue());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void merge_whenKnotChangedNumberOfFragments_expectException() {
+    FragmentProjection projection = FragmentProjection.of(context(), entry("services")).get();
+
+    projection.merge(new KnotContext().setFragments(Collections.singletonList(SERVICES)));
+  }
+
+  @Test
+  public void batches_expectConsecutiveFragmentsWithOwnResponseMetadata() {
+    KnotContext knotContext = context();
+    List<FragmentProjection> batches = FragmentProjection.of(knotContext, entry("services")).get()
+        .batches(1);
+
+    assertThat(batches.size(), equalTo(2));
+    assertThat(batches.get(0).projected().getFragments(),
+        equalTo(Collections.singletonList(SERVICES)));
+    assertThat(batches.get(1).projected().getFragments(),
+        equalTo(Collections.singletonList(TEMPLATE)));
+    assertThat(batches.get(1).includes(2), equalTo(true));
+    assertThat(batches.get(1).includes(1), equalTo(false));
+    assertThat(batches.get(0).projected().getClientResponse(),
+        not(sameInstance(knotContext.getClientResponse())));
+  }
+
+  private KnotContext context() {
+    return new KnotContext().setTransition("next").setClientResponse(new ClientResponse())
+        .setFragments(Arrays.asList(HEADER, SERVICES, TEMPLATE, FOOTER));
+  }
+
+  private RoutingEntry entry(String knot) {
+    return new RoutingEntry(".*", false, "knot", Collections.emptyMap(),
+        Collections.singletonList(knot));
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Sets;
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.server.configuration.KnotxServerConfiguration;
+import io.vertx.reactivex.core.MultiMap;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KnotxEarlyFlushHandlerTest {
+
+  @Mock
+  private KnotxServerConfiguration configuration;
+  @Mock
+  private RoutingContext routingContext;
+  @Mock
+  private HttpServerResponse httpServerResponse;
+
+  private MultiMap responseHeaders;
+
+  private KnotxEarlyFlushHandler tested;
+
+  @Before
+  public void setUp() {
+    when(configuration.getAllowedResponseHeaders())
+        .thenReturn(Sets.newHashSet("content-type", "content-length", "x-server"));
+    responseHeaders = MultiMap.caseInsensitiveMultiMap();
+    when(routingContext.response()).thenReturn(httpServerResponse);
+    when(httpServerResponse.headers()).thenReturn(responseHeaders);
+    when(httpServerResponse.setStatusCode(anyInt())).thenReturn(httpServerResponse);
+    when(httpServerResponse.setChunked(anyBoolean())).thenReturn(httpServerResponse);
+    tested = KnotxEarlyFlushHandler.create(configuration);
+  }
+
+  @Test
+  public void handle_whenPageStartsWithRawFragments_expectHeadersWrittenBeforeLeadingFragments() {
+    KnotContext knotContext = knotContext(Fragment.raw("<html><head>"), Fragment.raw("<body>"),
+        Fragment.snippet(Collections.singletonList("services"), "{{name}}"),
+        Fragment.raw("</body></html>"));
+    when(routingContext.<KnotContext>get(KnotContext.KEY)).thenReturn(knotContext);
+
+    tested.handle(routingContext);
+
+    InOrder flush = inOrder(httpServerResponse, routingContext);
+    flush.verify(httpServerResponse).setStatusCode(200);
+    flush.verify(httpServerResponse).setChunked(true);
+    flush.verify(httpServerResponse).write("<html><head>");
+    flush.verify(httpServerResponse).write("<body>");
+    flush.verify(routingContext).next();
+    verify(httpServerResponse, atLeastOnce()).headers();
+    assertThat(responseHeaders.get("Content-Type"), equalTo("text/html"));
+    assertThat(responseHeaders.get("X-Server"), equalTo("Knot.x"));
+    assertThat(responseHeaders.get("Content-Length"), nullValue());
+    assertThat(responseHeaders.get("X-Not-Allowed"), nullValue());
+    assertThat(knotContext.getFragments().stream().map(Fragment::content)
+        .collect(Collectors.toList()), equalTo(Arrays.asList("{{name}}", "</body></html>")));
+  }
+
+  @Test
+  public void handle_whenPageStartsWithSnippet_expectNothingFlushed() {
+    KnotContext knotContext = knotContext(
+        Fragment.snippet(Collections.singletonList("services"), "{{name}}"),
+        Fragment.raw("</body></html>"));
+    when(routingContext.<KnotContext>get(KnotContext.KEY)).thenReturn(knotContext);
+
+    tested.handle(routingContext);
+
+    verify(httpServerResponse, never()).write(anyString());
+    verify(httpServerResponse, never()).setStatusCode(anyInt());
+    verify(routingContext).next();
+    assertThat(knotContext.getFragments().size(), equalTo(2));
+  }
+
+  @Test
+  public void handle_whenPageHasNoSnippets_expectNothingFlushed() {
+    KnotContext knotContext = knotContext(Fragment.raw("<html>"), Fragment.raw("</html>"));
+    when(routingContext.<KnotContext>get(KnotContext.KEY)).thenReturn(knotContext);
+
+    tested.handle(routingContext);
+
+    verify(httpServerResponse, never()).write(anyString());
+    verify(routingContext).next();
+  }
+
+  private KnotContext knotContext(Fragment... fragments) {
+    return new KnotContext()
+        .setClientRequest(new ClientRequest().setPath("/content/page.html"))
+        .setClientResponse(new ClientResponse().setStatusCode(200)
+            .setHeaders(MultiMap.caseInsensitiveMultiMap()
+                .add("Content-Type", "text/html")
+                .add("Content-Length", "1024")
+                .add("X-Server", "Knot.x")
+                .add("X-Not-Allowed", "value")))
+        .setFragments(Arrays.asList(fragments));
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.knotx.codec.EventBusCodec;
+import io.knotx.dataobjects.ClientRequest;
+import io.knotx.dataobjects.ClientResponse;
+import io.knotx.dataobjects.Fragment;
+import io.knotx.dataobjects.KnotContext;
+import io.knotx.junit.rule.Logback;
+import io.knotx.server.ResolvedRoute.Flow;
+import io.knotx.server.configuration.KnotxServerConfiguration;
+import io.knotx.server.configuration.RoutingEntry;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.runner.RunWith;
+import rx.functions.Action1;
+
+@RunWith(VertxUnitRunner.class)
+public class KnotxEngineHandlerTest {
+
+  private RunTestOnContext vertx = new RunTestOnContext();
+
+  @Rule
+  public RuleChain chain = RuleChain.outerRule(new Logback()).around(vertx);
+
+  private KnotxEngineHandler tested;
+
+  @Before
+  public void setUp() {
+    KnotxServerConfiguration configuration = mock(KnotxServerConfiguration.class);
+    when(configuration.getEventBusCodec()).thenReturn(EventBusCodec.JSON);
+    when(configuration.getDeliveryOptions()).thenReturn(new DeliveryOptions());
+    tested = KnotxEngineHandler.create(Vertx.newInstance(vertx.vertx()), configuration);
+  }
+
+  @Test
+  public void handle_whenParallelKnotsProcessOwnFragments_expectEachFragmentFromItsOwner(
+      TestContext context) {
+    registerKnot("A-engine", appendToFragments("+A"));
+    registerKnot("B-engine", appendToFragments("+B"));
+
+    whenProcessed(context, parallel(branch("A-engine", "a"), branch("B-engine", "b")),
+        page(Fragment.raw("<p>"), snippet("a"), snippet("b"), Fragment.raw("</p>")),
+        processed -> {
+          context.assertEquals("next", processed.getTransition());
+          context.assertEquals(Arrays.asList("<p>", "a+A", "b+B", "</p>"),
+              contents(processed));
+        });
+  }
+
+  @Test
+  public void handle_whenParallelKnotEndsFlow_expectFirstEndingKnotResponse(
+      TestContext context) {
+    registerKnot("A-engine", appendToFragments("+A"));
+    registerKnot("B-engine", redirect("/b.html"));
+    registerKnot("C-engine", redirect("/c.html"));
+
+    whenProcessed(context,
+        parallel(branch("A-engine", "a"), branch("B-engine", "b"), branch("C-engine", "c")),
+        page(snippet("a"), snippet("b"), snippet("c")),
+        processed -> {
+          context.assertNull(processed.getTransition());
+          context.assertEquals(301, processed.getClientResponse().getStatusCode());
+          context.assertEquals("/b.html",
+              processed.getClientResponse().getHeaders().get("Location"));
+        });
+  }
+
+  @Test
+  public void handle_whenParallelKnotsReturnTransitions_expectFirstNotDefaultTransitionAndModifiedResponse(
+      TestContext context) {
+    registerKnot("A-engine", appendToFragments("+A"));
+    registerKnot("B-engine", knotContext -> {
+      appendToFragments("+B").call(knotContext);
+      ClientResponse clientResponse = knotContext.getClientResponse();
+      clientResponse.setHeaders(clientResponse.getHeaders().add("X-Knot", "B"));
+      knotContext.setTransition("go-b");
+    });
+    registerKnot("C-engine", knotContext -> {
+      appendToFragments("+C").call(knotContext);
+      knotContext.setTransition("go-c");
+    });
+
+    whenProcessed(context,
+        parallel(branch("A-engine", "a"), branch("B-engine", "b"), branch("C-engine", "c")),
+        page(snippet("a"), snippet("b"), snippet("c")),
+        processed -> {
+          context.assertEquals("go-b", processed.getTransition());
+          context.assertEquals("B", processed.getClientResponse().getHeaders().get("X-Knot"));
+          context.assertEquals(Arrays.asList("a+A", "b+B", "c+C"), contents(processed));
+        });
+  }
+
+  @Test
+  public void handle_whenParallelKnotsShareFragment_expectKnotsCalledInSequence(
+      TestContext context) {
+    registerKnot("A-engine", appendToFragments("+A"));
+    registerKnot("B-engine", appendToFragments("+B"));
+
+    whenProcessed(context, parallel(branch("A-engine", "a"), branch("B-engine", "b")),
+        page(Fragment.raw("<p>"), Fragment.snippet(Arrays.asList("a", "b"), "ab"), snippet("b")),
+        processed -> {
+          context.assertEquals("next", processed.getTransition());
+          context.assertEquals(Arrays.asList("<p>", "ab+A+B", "b+B"), contents(processed));
+        });
+  }
+
+  private void whenProcessed(TestContext context, RoutingEntry routingEntry,
+      KnotContext knotContext, Consumer<KnotContext> assertions) {
+    Async async = context.async();
+    AtomicReference<KnotContext> processed = new AtomicReference<>();
+    RoutingContext routingContext = mock(RoutingContext.class);
+    when(routingContext.<Object>get(ResolvedRoute.KEY))
+        .thenReturn(new ResolvedRoute(Flow.DEFAULT, routingEntry, null));
+    when(routingContext.<Object>get(KnotContext.KEY))
+        .thenAnswer(invocation -> processed.get() == null ? knotContext : processed.get());
+    when(routingContext.put(eq(KnotContext.KEY), any())).thenAnswer(invocation -> {
+      processed.set((KnotContext) invocation.getArguments()[1]);
+      return routingContext;
+    });
+    doAnswer(invocation -> {
+      assertions.accept(processed.get());
+      async.complete();
+      return null;
+    }).when(routingContext).next();
+    doAnswer(invocation -> {
+      context.fail((Throwable) invocation.getArguments()[0]);
+      return null;
+    }).when(routingContext).fail(any(Throwable.class));
+
+    tested.handle(routingContext);
+  }
+
+  private void registerKnot(String address, Action1<KnotContext> knot) {
+    MockKnotProxy.register(vertx.vertx(), address, knot);
+  }
+
+  private static Action1<KnotContext> appendToFragments(String suffix) {
+    return knotContext -> {
+      knotContext.getFragments()
+          .forEach(fragment -> fragment.content(fragment.content() + suffix));
+      knotContext.setTransition("next");
+    };
+  }
+
+  private static Action1<KnotContext> redirect(String location) {
+    return knotContext -> {
+      ClientResponse clientResponse = knotContext.getClientResponse();
+      clientResponse.setStatusCode(301)
+          .setHeaders(clientResponse.getHeaders().add("Location", location));
+      knotContext.setTransition(null);
+    };
+  }
+
+  private static RoutingEntry parallel(RoutingEntry... branches) {
+    return new RoutingEntry(".*", false, null, Collections.emptyMap(), Collections.emptyList(),
+        Arrays.asList(branches));
+  }
+
+  private static RoutingEntry branch(String address, String knot) {
+    return new RoutingEntry(".*", false, address, Collections.emptyMap(),
+        Collections.singletonList(knot));
+  }
+
+  private static Fragment snippet(String knot) {
+    return Fragment.snippet(Collections.singletonList(knot), knot);
+  }
+
+  private static KnotContext page(Fragment... fragments) {
+    return new KnotContext()
+        .setClientRequest(new ClientRequest())
+        .setClientResponse(new ClientResponse().setStatusCode(200).setBody(Buffer.buffer()))
+        .setFragments(Arrays.asList(fragments));
+  }
+
+  private static List<String> contents(KnotContext knotContext) {
+    return knotContext.getFragments().stream().map(Fragment::content)
+        .collect(Collectors.toList());
+  }
+}
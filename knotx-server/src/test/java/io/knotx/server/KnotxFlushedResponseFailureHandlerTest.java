@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KnotxFlushedResponseFailureHandlerTest {
+
+  @Mock
+  private RoutingContext routingContext;
+  @Mock
+  private HttpServerRequest httpServerRequest;
+  @Mock
+  private HttpServerResponse httpServerResponse;
+
+  private KnotxFlushedResponseFailureHandler tested = KnotxFlushedResponseFailureHandler.create();
+
+  @Before
+  public void setUp() {
+    when(routingContext.request()).thenReturn(httpServerRequest);
+    when(routingContext.response()).thenReturn(httpServerResponse);
+    when(routingContext.failure()).thenReturn(new IllegalStateException("Knot failed"));
+    when(httpServerRequest.path()).thenReturn("/content/page.html");
+  }
+
+  @Test
+  public void handle_whenFailedAfterEarlyFlush_expectConnectionClosed() {
+    when(httpServerResponse.headWritten()).thenReturn(true);
+
+    tested.handle(routingContext);
+
+    verify(httpServerResponse).close();
+    verify(httpServerResponse, never()).setStatusCode(anyInt());
+    verify(routingContext, never()).next();
+  }
+
+  @Test
+  public void handle_whenFailedBeforeResponseStarted_expectNextFailureHandler() {
+    when(httpServerResponse.headWritten()).thenReturn(false);
+
+    tested.handle(routingContext);
+
+    verify(routingContext).next();
+    verify(httpServerResponse, never()).close();
+  }
+}
@@ -21,6 +21,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import io.knotx.junit.util.FileReader;
 import io.knotx.server.configuration.KnotxFlowConfiguration;
 import io.knotx.server.configuration.KnotxServerConfiguration;
+import io.knotx.server.configuration.RepositoryEntry;
 import io.vertx.core.json.JsonObject;
 import org.junit.Before;
 import org.junit.Test;
@@ -52,5 +53,28 @@ public class KnotxServerConfigurationRepositoriesTest {
     assertThat(flowConfiguration.repositoryForPath("/service/simple.html").isPresent(), equalTo(false));
   }
 
+  @Test
+  public void whenRepositoryWithDirectory_expectFilesSentFromDirectory() throws Exception {
+    RepositoryEntry staticEntry = flowConfiguration.repositoryForPath("/static/logo.png").get();
+    assertThat(staticEntry.isSendFile(), equalTo(true));
+    assertThat(staticEntry.directory(), equalTo("/var/www/"));
+    assertThat(flowConfiguration.repositoryForPath("/content/local/simple.html").get().isSendFile(),
+        equalTo(false));
+  }
+
+  @Test
+  public void whenRepositoryWithStream_expectContentStreamedFromOrigin() throws Exception {
+    RepositoryEntry downloadEntry = flowConfiguration.repositoryForPath("/download/file.zip")
+        .get();
+    assertThat(downloadEntry.isStreamed(), equalTo(true));
+    assertThat(downloadEntry.isSendFile(), equalTo(false));
+    assertThat(downloadEntry.stream().isSsl(), equalTo(false));
+    assertThat(downloadEntry.stream().getDomain(), equalTo("localhost"));
+    assertThat(downloadEntry.stream().getPort(), equalTo(3001));
+    assertThat(downloadEntry.stream().getAllowedRequestHeaders().size(), equalTo(1));
+    assertThat(flowConfiguration.repositoryForPath("/static/logo.png").get().isStreamed(),
+        equalTo(false));
+  }
+
 
 }
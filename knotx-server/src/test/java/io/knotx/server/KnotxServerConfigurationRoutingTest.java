@@ -19,11 +19,16 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import com.google.common.collect.Sets;
 import io.knotx.junit.util.FileReader;
+import io.knotx.server.configuration.KnotxFlowConfiguration;
 import io.knotx.server.configuration.KnotxServerConfiguration;
 import io.knotx.server.configuration.RoutingEntry;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.junit.Before;
@@ -144,4 +149,45 @@ public class KnotxServerConfigurationRoutingTest {
         engineRouting.get(HttpMethod.POST).get(SECOND_IDX).onTransition().get("go-c").onTransition()
             .isEmpty(), equalTo(true));
   }
+
+  @Test
+  public void whenRoutingEntryWithKnots_expectOnlyPagesWithMatchingFragmentsProcessed() {
+    RoutingEntry entry = new RoutingEntry(".*", false, "knotx.knot.action",
+        Collections.emptyMap(), Collections.singletonList("form.*"));
+
+    assertThat(entry.processesAnyOf(Sets.newHashSet("services", "form-1")), equalTo(true));
+    assertThat(entry.processesAnyOf(Sets.newHashSet("services", "handlebars")), equalTo(false));
+    assertThat(entry.processesAnyOf(Collections.emptySet()), equalTo(false));
+  }
+
+  @Test
+  public void whenRoutingEntryWithoutKnots_expectAllPagesProcessed() {
+    assertThat(engineRouting.get(HttpMethod.GET).get(FIRST_IDX)
+        .processesAnyOf(Collections.emptySet()), equalTo(true));
+  }
+
+  @Test
+  public void whenParallelEntry_expectAllKnotsOfTheEntry() {
+    RoutingEntry entry = new KnotxFlowConfiguration(flowWithParallel(
+        new JsonObject().put("address", "A-engine").put("knots", new JsonArray().add("form.*")),
+        new JsonObject().put("address", "B-engine").put("knots", new JsonArray().add("custom"))))
+        .routingEntryFor(HttpMethod.GET, "/content/page.html").get();
+
+    assertThat(entry.isParallel(), equalTo(true));
+    assertThat(entry.parallel().size(), equalTo(2));
+    assertThat(entry.parallel().get(FIRST_IDX).address(), equalTo("A-engine"));
+    assertThat(entry.parallel().get(SECOND_IDX).address(), equalTo("B-engine"));
+    assertThat(entry.processesAnyOf(Sets.newHashSet("custom")), equalTo(true));
+    assertThat(entry.processesAnyOf(Sets.newHashSet("services")), equalTo(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void whenParallelKnotWithoutKnots_expectException() {
+    new KnotxFlowConfiguration(flowWithParallel(new JsonObject().put("address", "A-engine")));
+  }
+
+  private JsonObject flowWithParallel(JsonObject... knots) {
+    return new JsonObject().put("routing", new JsonObject().put("GET", new JsonArray().add(
+        new JsonObject().put("path", ".*").put("parallel", new JsonArray(Arrays.asList(knots))))));
+  }
 }
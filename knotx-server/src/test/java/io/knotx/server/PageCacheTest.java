@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.knotx.server.PageCache.CachedPage;
+import io.knotx.server.configuration.PageCacheConfig;
+import io.knotx.server.configuration.PageCacheRouteEntry;
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.ext.web.Cookie;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class PageCacheTest {
+
+  private PageCache tested;
+
+  private PageCacheRouteEntry route;
+
+  @Before
+  public void before() {
+    PageCacheConfig config = new PageCacheConfig(new JsonObject()
+        .put("enabled", true)
+        .put("varyHeaders", new JsonArray().add("Accept-Language"))
+        .put("varyCookies", new JsonArray().add("segment"))
+        .put("routes", new JsonArray()
+            .add(new JsonObject().put("path", "/content/.*").put("ttl", 1000)
+                .put("staleWhileRevalidate", 500))));
+    tested = new PageCache(config);
+    route = tested.routeFor("/content/page.html").orElseThrow(IllegalStateException::new);
+  }
+
+  @Test
+  public void routeFor_whenPathNotConfigured_expectNoRoute() {
+    assertThat(tested.routeFor("/services/feature.json").isPresent(), equalTo(false));
+  }
+
+  @Test
+  public void key_whenVaryHeaderDiffers_expectDifferentKeys() {
+    String english = tested.key(route, mockContext("en", null));
+    String polish = tested.key(route, mockContext("pl", null));
+
+    assertThat(english, not(equalTo(polish)));
+    assertThat(english, equalTo(tested.key(route, mockContext("en", null))));
+  }
+
+  @Test
+  public void key_whenVaryCookieDiffers_expectDifferentKeys() {
+    assertThat(tested.key(route, mockContext("en", "a")),
+        not(equalTo(tested.key(route, mockContext("en", "b")))));
+  }
+
+  @Test
+  public void cachedPage_whenTtlPassed_expectStaleUntilRevalidationWindowEnds() {
+    CachedPage page = new CachedPage(MultiMap.caseInsensitiveMultiMap(),
+        "<html/>".getBytes(StandardCharsets.UTF_8), route, 0);
+
+    assertThat(page.isFresh(999), equalTo(true));
+    assertThat(page.isStale(999), equalTo(false));
+    assertThat(page.isStale(1000), equalTo(true));
+    assertThat(page.isStale(1500), equalTo(false));
+  }
+
+  @Test
+  public void cachedPage_whenRevalidationStarted_expectOnlyOneRevalidation() {
+    CachedPage page = new CachedPage(MultiMap.caseInsensitiveMultiMap(), new byte[0], route, 0);
+
+    assertThat(page.startRevalidation(), equalTo(true));
+    assertThat(page.startRevalidation(), equalTo(false));
+    page.revalidationFailed();
+    assertThat(page.startRevalidation(), equalTo(true));
+  }
+
+  @Test
+  public void statistics_whenPageServed_expectHitCountedPerRoute() {
+    String key = tested.key(route, mockContext("en", null));
+    tested.put(key, new CachedPage(MultiMap.caseInsensitiveMultiMap().add("Content-Type",
+        "text/html"), new byte[10], route, System.currentTimeMillis()));
+    assertThat(tested.get(key), not(nullValue()));
+    tested.statistics(route).hit();
+    tested.statistics(route).miss();
+
+    JsonObject routeStatistics = tested.statistics().getJsonObject("routes")
+        .getJsonObject("/content/.*");
+    assertThat(routeStatistics.getLong("hits"), equalTo(1L));
+    assertThat(routeStatistics.getLong("misses"), equalTo(1L));
+    assertThat(routeStatistics.getDouble("hitRate"), equalTo(0.5));
+  }
+
+  @Test
+  public void isRevalidationToken_whenTokenOfOtherCache_expectFalse() {
+    assertThat(tested.isRevalidationToken(tested.getRevalidationToken()), equalTo(true));
+    assertThat(tested.isRevalidationToken("true"), equalTo(false));
+    assertThat(tested.isRevalidationToken(null), equalTo(false));
+    assertThat(tested.isRevalidationToken(new PageCache(tested.getConfig())
+        .getRevalidationToken()), equalTo(false));
+  }
+
+  @Test
+  public void isStorable_whenResponseSharedCacheable_expectTrue() {
+    assertThat(PageCache.isStorable(MultiMap.caseInsensitiveMultiMap()), equalTo(true));
+    assertThat(PageCache.isStorable(MultiMap.caseInsensitiveMultiMap()
+        .add("Cache-Control", "public, max-age=60")), equalTo(true));
+  }
+
+  @Test
+  public void isStorable_whenResponsePrivateOrNotStored_expectFalse() {
+    assertThat(PageCache.isStorable(MultiMap.caseInsensitiveMultiMap()
+        .add("Cache-Control", "max-age=60, private")), equalTo(false));
+    assertThat(PageCache.isStorable(MultiMap.caseInsensitiveMultiMap()
+        .add("Cache-Control", "Private=\"Set-Cookie\"")), equalTo(false));
+    assertThat(PageCache.isStorable(MultiMap.caseInsensitiveMultiMap()
+        .add("Cache-Control", "public").add("Cache-Control", "no-store")), equalTo(false));
+    assertThat(PageCache.isStorable(MultiMap.caseInsensitiveMultiMap()
+        .add("Cache-Control", "no-cache")), equalTo(false));
+  }
+
+  private RoutingContext mockContext(String language, String segment) {
+    RoutingContext context = Mockito.mock(RoutingContext.class);
+    HttpServerRequest request = Mockito.mock(HttpServerRequest.class);
+    Mockito.when(context.request()).thenReturn(request);
+    Mockito.when(request.path()).thenReturn("/content/page.html");
+    Mockito.when(request.query()).thenReturn("a=b");
+    Mockito.when(request.getHeader("Accept-Language")).thenReturn(language);
+    if (segment != null) {
+      Cookie cookie = Mockito.mock(Cookie.class);
+      Mockito.when(cookie.getValue()).thenReturn(segment);
+      Mockito.when(context.getCookie("segment")).thenReturn(cookie);
+    }
+    return context;
+  }
+}
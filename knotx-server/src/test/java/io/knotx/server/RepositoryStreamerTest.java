@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.knotx.junit.rule.Logback;
+import io.knotx.server.configuration.RepositoryStreamConfig;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.Router;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+@RunWith(VertxUnitRunner.class)
+public class RepositoryStreamerTest {
+
+  private static final int ORIGIN_PORT = 9095;
+
+  private static final int SERVER_PORT = 9096;
+
+  private static final int NOT_LISTENING_PORT = 9097;
+
+  private RunTestOnContext vertx = new RunTestOnContext();
+
+  @Rule
+  public RuleChain chain = RuleChain.outerRule(new Logback()).around(vertx);
+
+  private RepositoryStreamer tested;
+
+  private HttpClient client;
+
+  private Async originClosed;
+
+  @Before
+  public void setUp(TestContext context) {
+    Vertx rxVertx = Vertx.newInstance(vertx.vertx());
+    tested = new RepositoryStreamer(rxVertx,
+        new HashSet<>(Arrays.asList("content-type", "x-origin")));
+    RepositoryStreamConfig origin = config(ORIGIN_PORT);
+    RepositoryStreamConfig notListening = config(NOT_LISTENING_PORT);
+
+    Router router = Router.router(rxVertx);
+    router.route("/not-listening/*")
+        .handler(routingContext -> tested.stream(routingContext, notListening));
+    router.route().handler(routingContext -> tested.stream(routingContext, origin));
+
+    vertx.vertx().createHttpServer().requestHandler(this::origin)
+        .listen(ORIGIN_PORT, context.asyncAssertSuccess());
+    rxVertx.createHttpServer().requestHandler(router::accept)
+        .listen(SERVER_PORT, context.asyncAssertSuccess());
+    client = vertx.vertx().createHttpClient();
+  }
+
+  @After
+  public void tearDown() {
+    client.close();
+  }
+
+  @Test
+  public void stream_whenOriginResponds_expectBodyWithAllowedHeaders(TestContext context) {
+    Async async = context.async();
+    client.getNow(SERVER_PORT, "localhost", "/download/file.txt", response -> {
+      context.assertEquals(200, response.statusCode());
+      context.assertEquals("origin", response.getHeader("X-Origin"));
+      context.assertNull(response.getHeader("X-Secret"));
+      context.assertEquals("chunked", response.getHeader("Transfer-Encoding"));
+      response.bodyHandler(body -> {
+        context.assertEquals("first-second-third", body.toString());
+        async.complete();
+      });
+    });
+  }
+
+  @Test
+  public void stream_whenOriginRespondsWithError_expectOriginStatus(TestContext context) {
+    Async async = context.async();
+    client.getNow(SERVER_PORT, "localhost", "/download/missing.txt", response -> {
+      context.assertEquals(404, response.statusCode());
+      response.bodyHandler(body -> {
+        context.assertEquals("not found", body.toString());
+        async.complete();
+      });
+    });
+  }
+
+  @Test
+  public void stream_whenOriginNotListening_expectInternalServerError(TestContext context) {
+    Async async = context.async();
+    client.getNow(SERVER_PORT, "localhost", "/not-listening/file.txt", response -> {
+      context.assertEquals(500, response.statusCode());
+      async.complete();
+    });
+  }
+
+  @Test
+  public void stream_whenOriginDoesNotRespond_expectGatewayTimeout(TestContext context) {
+    Async async = context.async();
+    client.getNow(SERVER_PORT, "localhost", "/download/hanging.txt", response -> {
+      context.assertEquals(504, response.statusCode());
+      async.complete();
+    });
+  }
+
+  @Test
+  public void stream_whenOriginFailsDuringStreaming_expectClientConnectionClosed(
+      TestContext context) {
+    Async async = context.async();
+    client.getNow(SERVER_PORT, "localhost", "/download/broken.txt", response -> {
+      context.assertEquals(200, response.statusCode());
+      response.endHandler(done -> context.fail("Incomplete response ended normally"));
+      response.exceptionHandler(error -> async.complete());
+    });
+  }
+
+  @Test
+  public void stream_whenClientClosesConnection_expectOriginRequestReset(TestContext context) {
+    originClosed = context.async();
+    client.getNow(SERVER_PORT, "localhost", "/download/endless.txt",
+        response -> response.handler(chunk -> response.request().connection().close()));
+  }
+
+  @Test
+  public void pipe_whenClientNotWritable_expectOriginPausedUntilDrained() {
+    HttpClientResponse originResponse = mock(HttpClientResponse.class);
+    when(originResponse.statusCode()).thenReturn(200);
+    when(originResponse.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap());
+    HttpServerResponse response = mock(HttpServerResponse.class);
+    when(response.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap());
+
+    tested.pipe(HttpMethod.GET,
+        io.vertx.reactivex.core.http.HttpClientResponse.newInstance(originResponse),
+        io.vertx.reactivex.core.http.HttpServerResponse.newInstance(response));
+
+    Handler<Buffer> data = captureHandler(originResponse);
+    Buffer chunk = Buffer.buffer("chunk");
+
+    data.handle(chunk);
+    verify(response).write(chunk);
+    verify(originResponse, never()).pause();
+
+    when(response.writeQueueFull()).thenReturn(true);
+    data.handle(chunk);
+    verify(originResponse).pause();
+    verify(originResponse, never()).resume();
+
+    when(response.writeQueueFull()).thenReturn(false);
+    captureDrainHandler(response).handle(null);
+    verify(originResponse).resume();
+  }
+
+  @Test
+  public void pipe_whenHeadRequest_expectResponseNotChunked() {
+    HttpServerResponse response = pipeWithoutContentLength(HttpMethod.HEAD, 200);
+
+    verify(response, never()).setChunked(true);
+  }
+
+  @Test
+  public void pipe_whenResponseWithoutBody_expectResponseNotChunked() {
+    HttpServerResponse noContent = pipeWithoutContentLength(HttpMethod.GET, 204);
+    HttpServerResponse notModified = pipeWithoutContentLength(HttpMethod.GET, 304);
+
+    verify(noContent, never()).setChunked(true);
+    verify(notModified, never()).setChunked(true);
+  }
+
+  @Test
+  public void pipe_whenResponseWithBodyAndNoContentLength_expectResponseChunked() {
+    HttpServerResponse response = pipeWithoutContentLength(HttpMethod.GET, 200);
+
+    verify(response).setChunked(true);
+  }
+
+  private HttpServerResponse pipeWithoutContentLength(HttpMethod method, int statusCode) {
+    HttpClientResponse originResponse = mock(HttpClientResponse.class);
+    when(originResponse.statusCode()).thenReturn(statusCode);
+    when(originResponse.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap());
+    HttpServerResponse response = mock(HttpServerResponse.class);
+    when(response.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap());
+
+    tested.pipe(method,
+        io.vertx.reactivex.core.http.HttpClientResponse.newInstance(originResponse),
+        io.vertx.reactivex.core.http.HttpServerResponse.newInstance(response));
+    return response;
+  }
+
+  private void origin(io.vertx.core.http.HttpServerRequest request) {
+    io.vertx.core.http.HttpServerResponse response = request.response();
+    switch (request.path()) {
+      case "/download/file.txt":
+        response.setChunked(true)
+            .putHeader("Content-Type", "text/plain")
+            .putHeader("X-Origin", "origin")
+            .putHeader("X-Secret", "secret");
+        response.write("first-").write("second-").end("third");
+        break;
+      case "/download/missing.txt":
+        response.setStatusCode(404).end("not found");
+        break;
+      case "/download/hanging.txt":
+        break;
+      case "/download/broken.txt":
+        response.setChunked(true).write("part");
+        vertx.vertx().setTimer(50, timerId -> request.connection().close());
+        break;
+      case "/download/endless.txt":
+        response.setChunked(true);
+        long timerId = vertx.vertx().setPeriodic(10, id -> response.write("chunk"));
+        request.connection().closeHandler(closed -> {
+          vertx.vertx().cancelTimer(timerId);
+          originClosed.complete();
+        });
+        break;
+      default:
+        response.setStatusCode(500).end();
+    }
+  }
+
+  private static RepositoryStreamConfig config(int port) {
+    return new RepositoryStreamConfig(new JsonObject()
+        .put("clientDestination", new JsonObject().put("domain", "localhost").put("port", port))
+        .put("requestTimeout", 500));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Handler<Buffer> captureHandler(HttpClientResponse originResponse) {
+    ArgumentCaptor<Handler<Buffer>> captor = ArgumentCaptor.forClass((Class) Handler.class);
+    verify(originResponse).handler(captor.capture());
+    return captor.getValue();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Handler<Void> captureDrainHandler(HttpServerResponse response) {
+    ArgumentCaptor<Handler<Void>> captor = ArgumentCaptor.forClass((Class) Handler.class);
+    verify(response).drainHandler(captor.capture());
+    return captor.getValue();
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.knotx.junit.rule.Logback;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.RunTestOnContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.Router;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.BiConsumer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+@RunWith(VertxUnitRunner.class)
+public class StaticFileSenderTest {
+
+  private static final long SIZE = 1000;
+
+  private static final int PORT = 9094;
+
+  private static final String CONTENT = "body { color: red; }";
+
+  private RunTestOnContext vertx = new RunTestOnContext();
+
+  private TemporaryFolder folder = new TemporaryFolder();
+
+  @Rule
+  public RuleChain chain = RuleChain.outerRule(new Logback()).around(folder).around(vertx);
+
+  private String directory;
+
+  private HttpClient client;
+
+  @Before
+  public void setUp(TestContext context) throws IOException {
+    File root = folder.newFolder("public");
+    directory = root.getAbsolutePath() + File.separator;
+    Files.write(new File(root, "style.css").toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+    Files.write(new File(root, "a..b.css").toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+
+    Vertx rxVertx = Vertx.newInstance(vertx.vertx());
+    StaticFileSender tested = new StaticFileSender(rxVertx);
+    Router router = Router.router(rxVertx);
+    router.route().handler(routingContext -> tested.send(routingContext, directory));
+    rxVertx.createHttpServer().requestHandler(router::accept)
+        .listen(PORT, context.asyncAssertSuccess());
+    client = vertx.vertx().createHttpClient();
+  }
+
+  @After
+  public void tearDown() {
+    client.close();
+  }
+
+  @Test
+  public void send_whenFileExists_expectFileWithHeaders(TestContext context) {
+    whenRequested(context, HttpMethod.GET, "/style.css", MultiMap.caseInsensitiveMultiMap(),
+        (response, body) -> {
+          context.assertEquals(200, response.statusCode());
+          context.assertEquals(CONTENT, body.toString());
+          context.assertEquals("text/css", response.getHeader("Content-Type"));
+          context.assertEquals(String.valueOf(CONTENT.length()),
+              response.getHeader("Content-Length"));
+          context.assertEquals("bytes", response.getHeader("Accept-Ranges"));
+          context.assertNotNull(response.getHeader("ETag"));
+          context.assertNotNull(response.getHeader("Last-Modified"));
+        });
+  }
+
+  @Test
+  public void send_whenHeadRequest_expectGetHeadersWithoutBody(TestContext context) {
+    whenRequested(context, HttpMethod.GET, "/style.css", MultiMap.caseInsensitiveMultiMap(),
+        (get, getBody) -> whenRequested(context, HttpMethod.HEAD, "/style.css",
+            MultiMap.caseInsensitiveMultiMap(), (head, headBody) -> {
+              context.assertEquals(200, head.statusCode());
+              context.assertEquals(0, headBody.length());
+              for (String name : new String[]{"Content-Type", "Content-Length", "ETag",
+                  "Last-Modified", "Accept-Ranges"}) {
+                context.assertEquals(get.getHeader(name), head.getHeader(name), name);
+              }
+            }));
+  }
+
+  @Test
+  public void send_whenEntityTagMatches_expectNotModified(TestContext context) {
+    whenRequested(context, HttpMethod.GET, "/style.css", MultiMap.caseInsensitiveMultiMap(),
+        (response, body) -> whenRequested(context, HttpMethod.GET, "/style.css",
+            MultiMap.caseInsensitiveMultiMap().add("If-None-Match", response.getHeader("ETag")),
+            (notModified, notModifiedBody) -> {
+              context.assertEquals(304, notModified.statusCode());
+              context.assertEquals(0, notModifiedBody.length());
+            }));
+  }
+
+  @Test
+  public void send_whenByteRangeRequested_expectPartialContent(TestContext context) {
+    whenRequested(context, HttpMethod.GET, "/style.css",
+        MultiMap.caseInsensitiveMultiMap().add("Range", "bytes=0-3"),
+        (response, body) -> {
+          context.assertEquals(206, response.statusCode());
+          context.assertEquals("body", body.toString());
+          context.assertEquals("bytes 0-3/" + CONTENT.length(),
+              response.getHeader("Content-Range"));
+          context.assertEquals("text/css", response.getHeader("Content-Type"));
+        });
+  }
+
+  @Test
+  public void send_whenByteRangeOutsideFile_expectRangeNotSatisfiable(TestContext context) {
+    whenRequested(context, HttpMethod.GET, "/style.css",
+        MultiMap.caseInsensitiveMultiMap().add("Range", "bytes=100-"),
+        (response, body) -> {
+          context.assertEquals(416, response.statusCode());
+          context.assertEquals("bytes */" + CONTENT.length(),
+              response.getHeader("Content-Range"));
+        });
+  }
+
+  @Test
+  public void send_whenFileNameContainsDots_expectFile(TestContext context) {
+    whenRequested(context, HttpMethod.GET, "/a..b.css", MultiMap.caseInsensitiveMultiMap(),
+        (response, body) -> {
+          context.assertEquals(200, response.statusCode());
+          context.assertEquals(CONTENT, body.toString());
+        });
+  }
+
+  @Test
+  public void send_whenFileMissing_expectNotFound(TestContext context) {
+    whenRequested(context, HttpMethod.GET, "/missing.css", MultiMap.caseInsensitiveMultiMap(),
+        (response, body) -> context.assertEquals(404, response.statusCode()));
+  }
+
+  @Test
+  public void resolve_whenPathInsideDirectory_expectNormalizedFile() {
+    assertThat(StaticFileSender.resolve("public/", "/css/../style.css"),
+        equalTo(Paths.get("public", "style.css").toAbsolutePath()));
+    assertThat(StaticFileSender.resolve("public/", "/a..b.css"),
+        equalTo(Paths.get("public", "a..b.css").toAbsolutePath()));
+  }
+
+  @Test
+  public void resolve_whenPathOutsideDirectory_expectNull() {
+    assertThat(StaticFileSender.resolve("public/", "/../secret.txt"), nullValue());
+    assertThat(StaticFileSender.resolve("public/", "/css/../../secret.txt"), nullValue());
+    assertThat(StaticFileSender.resolve("public/", "/../public-secret/file.txt"), nullValue());
+    assertThat(StaticFileSender.resolve("public/", "/"), nullValue());
+    assertThat(StaticFileSender.resolve("public/", null), nullValue());
+  }
+
+  @Test
+  public void byteRange_whenSingleRange_expectBounds() {
+    assertThat(StaticFileSender.byteRange("bytes=0-99", SIZE), equalTo(new long[]{0, 99}));
+    assertThat(StaticFileSender.byteRange("bytes=100-", SIZE), equalTo(new long[]{100, 999}));
+    assertThat(StaticFileSender.byteRange("bytes=-10", SIZE), equalTo(new long[]{990, 999}));
+    assertThat(StaticFileSender.byteRange("bytes=900-5000", SIZE), equalTo(new long[]{900, 999}));
+  }
+
+  @Test
+  public void byteRange_whenRangeOutsideFile_expectNotSatisfiable() {
+    assertThat(StaticFileSender.byteRange("bytes=1000-", SIZE), nullValue());
+    assertThat(StaticFileSender.byteRange("bytes=-0", SIZE), nullValue());
+  }
+
+  @Test
+  public void byteRange_whenRangeNotSupported_expectIgnored() {
+    assertThat(StaticFileSender.byteRange("bytes=0-1,5-6", SIZE), equalTo(new long[0]));
+    assertThat(StaticFileSender.byteRange("items=0-1", SIZE), equalTo(new long[0]));
+    assertThat(StaticFileSender.byteRange("bytes=5-3", SIZE), equalTo(new long[0]));
+  }
+
+  private void whenRequested(TestContext context, HttpMethod method, String uri,
+      MultiMap headers, BiConsumer<HttpClientResponse, Buffer> assertions) {
+    Async async = context.async();
+    client.request(method, PORT, "localhost", uri, response -> response.bodyHandler(body -> {
+      assertions.accept(response, body);
+      async.complete();
+    })).exceptionHandler(context::fail).putHeaders(headers).end();
+  }
+}
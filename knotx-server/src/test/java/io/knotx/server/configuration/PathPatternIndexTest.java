@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2016 Cognifide Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.server.configuration;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Optional;
+import org.junit.Test;
+
+public class PathPatternIndexTest {
+
+  @Test
+  public void first_whenManyPatternsMatch_expectFirstConfiguredOne() {
+    PathPatternIndex<String> tested = PathPatternIndex.<String>builder()
+        .add("/content/.*", "content")
+        .add("/content/local/.*", "local")
+        .build();
+
+    assertThat(tested.first("/content/local/simple.html"), equalTo(Optional.of("content")));
+  }
+
+  @Test
+  public void first_whenPrefixesDiffer_expectPatternWithMatchingPrefix() {
+    PathPatternIndex<String> tested = PathPatternIndex.<String>builder()
+        .add("/content/local/.*", "local")
+        .add("/content/.*", "content")
+        .add(".*\\.html", "html")
+        .build();
+
+    assertThat(tested.first("/content/local/simple.html"), equalTo(Optional.of("local")));
+    assertThat(tested.first("/content/simple.html"), equalTo(Optional.of("content")));
+    assertThat(tested.first("/other/simple.html"), equalTo(Optional.of("html")));
+    assertThat(tested.first("/other/simple.json"), equalTo(Optional.empty()));
+  }
+
+  @Test
+  public void first_whenLiteralPath_expectExactMatchOnly() {
+    PathPatternIndex<String> tested = PathPatternIndex.<String>builder()
+        .add("/content/simple\\.html", "simple")
+        .build();
+
+    assertThat(tested.first("/content/simple.html"), equalTo(Optional.of("simple")));
+    assertThat(tested.first("/content/simple.htm"), equalTo(Optional.empty()));
+    assertThat(tested.first("/content/simpleXhtml"), equalTo(Optional.empty()));
+  }
+
+  @Test
+  public void first_whenOptionalOrAlternativePrefix_expectPatternSemanticsKept() {
+    PathPatternIndex<String> tested = PathPatternIndex.<String>builder()
+        .add("/contents?/.*", "optional")
+        .add("/a/.*|/b/.*", "alternative")
+        .build();
+
+    assertThat(tested.first("/content/page.html"), equalTo(Optional.of("optional")));
+    assertThat(tested.first("/contents/page.html"), equalTo(Optional.of("optional")));
+    assertThat(tested.first("/b/page.html"), equalTo(Optional.of("alternative")));
+  }
+}